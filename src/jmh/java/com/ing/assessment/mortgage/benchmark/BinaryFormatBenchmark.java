@@ -0,0 +1,95 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the rate list and of a mortgage check in JSON, CBOR and Smile, with the mapper settings
+ * of the message converters. The encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryFormatBenchmark {
+    private static final TypeReference<List<MortgageRate>> RATE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"8", "1000"})
+    private int rows;
+
+    private ObjectMapper mapper;
+    private List<MortgageRate> rates;
+    private MortgageCheckRequest request;
+    private MortgageCheckResponse response;
+    private byte[] encodedRates;
+    private byte[] encodedRequest;
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        mapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        rates = new ArrayList<>(rows);
+        for (int period = 1; period <= rows; period++) {
+            rates.add(new MortgageRate(period, BigDecimal.valueOf(300 + period % 500, 2),
+                    RateTables.HISTORY_START.plusMinutes(period)));
+        }
+        request = new MortgageCheckRequest();
+        request.setIncome(new BigDecimal("60000"));
+        request.setMaturityPeriod(30);
+        request.setLoanValue(new BigDecimal("150000.00"));
+        request.setHomeValue(new BigDecimal("200000.00"));
+        response = new MortgageCheckResponse(true, new BigDecimal("1111.55"), "quoted");
+
+        encodedRates = mapper.writeValueAsBytes(rates);
+        encodedRequest = mapper.writeValueAsBytes(request);
+        System.out.printf("%n%s, %d rates: rate list %d bytes, check request %d bytes, check response %d bytes%n",
+                format, rows, encodedRates.length, encodedRequest.length, mapper.writeValueAsBytes(response).length);
+    }
+
+    @Benchmark
+    public byte[] writeRates() throws IOException {
+        return mapper.writeValueAsBytes(rates);
+    }
+
+    @Benchmark
+    public List<MortgageRate> readRates() throws IOException {
+        return mapper.readValue(encodedRates, RATE_LIST);
+    }
+
+    @Benchmark
+    public MortgageCheckRequest readCheckRequest() throws IOException {
+        return mapper.readValue(encodedRequest, MortgageCheckRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeCheckResponse() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+}
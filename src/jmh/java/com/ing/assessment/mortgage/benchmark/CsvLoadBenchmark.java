@@ -0,0 +1,37 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.util.CsvUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a rate file and building its snapshot (index and annuity factors), for 10 to 1M rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvLoadBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int rows;
+
+    private CsvUtil csvUtil;
+
+    @Setup
+    public void setup() {
+        csvUtil = RateTables.loadCsv(RateTables.writeCsv(rows));
+    }
+
+    @Benchmark
+    public boolean reload() {
+        return csvUtil.reload();
+    }
+}
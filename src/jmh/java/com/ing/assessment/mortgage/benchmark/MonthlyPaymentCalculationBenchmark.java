@@ -0,0 +1,65 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.util.DoublePaymentEngine;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import com.ing.assessment.mortgage.util.PaymentEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monthly payment calculation for every listed maturity, a zero rate and small to very large principals,
+ * computed from the rate and from a precomputed annuity factor, with the BigDecimal and the double engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MonthlyPaymentCalculationBenchmark {
+
+    @Param({"1", "2", "5", "10", "15", "20", "25", "30"})
+    private int years;
+
+    @Param({"0", "5.222222", "15.1"})
+    private String annualRatePercent;
+
+    @Param({"150000", "999999999999.99"})
+    private String principal;
+
+    @Param({"bigdecimal", "double"})
+    private String engine;
+
+    private PaymentEngine util;
+    private BigDecimal rate;
+    private BigDecimal loan;
+    private BigDecimal annuityFactor;
+
+    @Setup
+    public void setup() {
+        util = "double".equals(engine)
+                ? new DoublePaymentEngine(new MonthlyPaymentCalculationUtil())
+                : new MonthlyPaymentCalculationUtil();
+        rate = new BigDecimal(annualRatePercent);
+        loan = new BigDecimal(principal);
+        annuityFactor = rate.signum() == 0 ? null : MonthlyPaymentCalculationUtil.calculateAnnuityFactor(rate, years);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFromRate() {
+        return util.calculateMonthlyPayment(loan, rate, years);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFromAnnuityFactor() {
+        return annuityFactor == null
+                ? util.calculateMonthlyPayment(loan, rate, years)
+                : util.calculateMonthlyPayment(loan, annuityFactor);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics;
+import com.ing.assessment.mortgage.repo.CsvMortgageRateRepository;
+import com.ing.assessment.mortgage.service.MortgageCheckCache;
+import com.ing.assessment.mortgage.service.MortgageServiceImpl;
+import com.ing.assessment.mortgage.util.DoublePaymentEngine;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end mortgage check against the rates of src/main/resources/mortgage-rates.csv,
+ * for every listed maturity, with feasible and infeasible requests, computed and answered from the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MortgageCheckBenchmark {
+
+    @Param({"1", "2", "5", "10", "15", "20", "25", "30"})
+    private int maturityPeriod;
+
+    @Param({"150000", "999999999999.99"})
+    private String loanValue;
+
+    @Param({"bigdecimal", "double"})
+    private String engine;
+
+    /**
+     * 0 computes every check, otherwise every check after the first is answered from the cache.
+     */
+    @Param({"0", "10000"})
+    private long cacheSize;
+
+    private MortgageServiceImpl mortgageService;
+    private MortgageCheckRequest feasible;
+    private MortgageCheckRequest infeasible;
+
+    @Setup
+    public void setup() {
+        CsvMortgageRateRepository repository = new CsvMortgageRateRepository(
+                RateTables.loadCsv(Path.of("src/main/resources/mortgage-rates.csv")));
+        mortgageService = new MortgageServiceImpl(repository,
+                "double".equals(engine) ? new DoublePaymentEngine(new MonthlyPaymentCalculationUtil()) : new MonthlyPaymentCalculationUtil(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new MortgageMetrics(new SimpleMeterRegistry(), repository),
+                new MortgageCheckCache(cacheSize, new SimpleMeterRegistry()));
+        BigDecimal loan = new BigDecimal(loanValue);
+        feasible = request(loan, loan, loan);
+        infeasible = request(loan, loan.divide(BigDecimal.TEN), loan);
+    }
+
+    private MortgageCheckRequest request(BigDecimal loan, BigDecimal income, BigDecimal homeValue) {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setMaturityPeriod(maturityPeriod);
+        request.setLoanValue(loan);
+        request.setIncome(income);
+        request.setHomeValue(homeValue);
+        return request;
+    }
+
+    @Benchmark
+    public MortgageCheckResponse checkFeasible() {
+        return mortgageService.checkMortgage(feasible);
+    }
+
+    @Benchmark
+    public MortgageCheckResponse checkInfeasible() {
+        return mortgageService.checkMortgage(infeasible);
+    }
+}
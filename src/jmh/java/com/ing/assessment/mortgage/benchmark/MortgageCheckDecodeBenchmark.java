@@ -0,0 +1,89 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ing.assessment.mortgage.controller.MortgageCheckRequestDecoder;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics;
+import com.ing.assessment.mortgage.repo.CsvMortgageRateRepository;
+import com.ing.assessment.mortgage.service.MortgageCheckCache;
+import com.ing.assessment.mortgage.service.MortgageServiceImpl;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a mortgage check body: data binding into {@link MortgageCheckRequest} with Bean Validation, against the
+ * streaming {@link MortgageCheckRequestDecoder} into cents. decodeAndCheck adds the check itself, with the result
+ * cache off, so the allocation rate (-prof gc) covers the whole request apart from HTTP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MortgageCheckDecodeBenchmark {
+    private static final byte[] BODY = "{\"income\":90000,\"maturityPeriod\":10,\"loanValue\":300000.50,\"homeValue\":400000}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"databind", "streaming"})
+    private String decoder;
+
+    private ObjectReader requestReader;
+    private Validator validator;
+    private MortgageCheckRequestDecoder streamingDecoder;
+    private MortgageServiceImpl mortgageService;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = objectMapper.readerFor(MortgageCheckRequest.class);
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        streamingDecoder = new MortgageCheckRequestDecoder(objectMapper.getFactory());
+        CsvMortgageRateRepository repository = new CsvMortgageRateRepository(
+                RateTables.loadCsv(Path.of("src/main/resources/mortgage-rates.csv")));
+        mortgageService = new MortgageServiceImpl(repository, new MonthlyPaymentCalculationUtil(), validator,
+                new MortgageMetrics(new SimpleMeterRegistry(), repository),
+                new MortgageCheckCache(0, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return "streaming".equals(decoder) ? streamingDecoder.decode(BODY) : bind();
+    }
+
+    @Benchmark
+    public MortgageCheckResponse decodeAndCheck() throws IOException {
+        if ("streaming".equals(decoder)) {
+            MortgageCheckCents request = streamingDecoder.decode(BODY);
+            return mortgageService.checkMortgage(request);
+        }
+        return mortgageService.checkMortgage(bind());
+    }
+
+    private MortgageCheckRequest bind() throws IOException {
+        MortgageCheckRequest request = requestReader.readValue(BODY);
+        Set<ConstraintViolation<MortgageCheckRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException(violations.iterator().next().getMessage());
+        }
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.repo.CsvMortgageRateRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live lookups against lookups as of a random point in the history, for 1 to 10k versions per maturity period.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateHistoryBenchmark {
+    private static final int KEYS = 1024;
+    private static final int ROWS = 30;
+
+    @Param({"1", "100", "10000"})
+    private int versions;
+
+    private CsvMortgageRateRepository repository;
+    private Integer[] periods;
+    private LocalDateTime[] asOf;
+    private int next;
+
+    @Setup
+    public void setup() {
+        repository = new CsvMortgageRateRepository(RateTables.loadCsv(RateTables.writeHistoryCsv(ROWS, versions)));
+        Random random = new Random(42);
+        periods = new Integer[KEYS];
+        asOf = new LocalDateTime[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            periods[i] = 1 + random.nextInt(ROWS);
+            asOf[i] = RateTables.HISTORY_START.plusMinutes(random.nextInt(versions * 60));
+        }
+    }
+
+    @Benchmark
+    public Optional<MortgageRate> findLive() {
+        return repository.findByMaturityPeriod(periods[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<MortgageRate> findAsOf() {
+        int key = next++ & (KEYS - 1);
+        return repository.findByMaturityPeriod(periods[key], asOf[key]);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> findAnnuityFactorAsOf() {
+        int key = next++ & (KEYS - 1);
+        return repository.findAnnuityFactor(periods[key], asOf[key]);
+    }
+}
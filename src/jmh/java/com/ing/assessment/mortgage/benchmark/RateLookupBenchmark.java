@@ -0,0 +1,62 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.repo.CsvMortgageRateRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maturity period lookups against rate tables of 10 to 1M rows, for listed and unlisted periods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLookupBenchmark {
+    private static final int KEYS = 1024;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int rows;
+
+    private CsvMortgageRateRepository repository;
+    private Integer[] listedPeriods;
+    private Integer[] unlistedPeriods;
+    private int next;
+
+    @Setup
+    public void setup() {
+        repository = new CsvMortgageRateRepository(RateTables.loadCsv(RateTables.writeCsv(rows)));
+        Random random = new Random(42);
+        listedPeriods = new Integer[KEYS];
+        unlistedPeriods = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            listedPeriods[i] = 1 + random.nextInt(rows);
+            unlistedPeriods[i] = rows + 1 + random.nextInt(rows);
+        }
+    }
+
+    @Benchmark
+    public Optional<MortgageRate> findListed() {
+        return repository.findByMaturityPeriod(listedPeriods[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<MortgageRate> findUnlisted() {
+        return repository.findByMaturityPeriod(unlistedPeriods[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public List<MortgageRate> findAll() {
+        return repository.findAll();
+    }
+}
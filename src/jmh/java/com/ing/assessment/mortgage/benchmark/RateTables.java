@@ -0,0 +1,85 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.util.CsvUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Generates rate files of a given size for the benchmarks. Maturity periods run from 1 to rows.
+ */
+final class RateTables {
+    private static final String HEADER = "Maturity Period,Interest Rate,Last Update";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+    /**
+     * First lastUpdate of the generated histories, versions follow each other by one hour.
+     */
+    static final LocalDateTime HISTORY_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private RateTables() {
+    }
+
+    static Path writeCsv(int rows) {
+        try {
+            Path file = Files.createTempFile("mortgage-rates-" + rows + "-", ".csv");
+            file.toFile().deleteOnExit();
+            Random random = new Random(rows);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (int period = 1; period <= rows; period++) {
+                    writer.write(period + "," + (1 + random.nextInt(1500)) / 100.0 + ",01-12-2025 13:30:00");
+                    writer.newLine();
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the given number of versions for maturity periods 1 to rows, oldest first.
+     */
+    static Path writeHistoryCsv(int rows, int versions) {
+        try {
+            Path file = Files.createTempFile("mortgage-rate-history-" + rows + "x" + versions + "-", ".csv");
+            file.toFile().deleteOnExit();
+            Random random = new Random(rows);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (int version = 0; version < versions; version++) {
+                    String lastUpdate = HISTORY_START.plusHours(version).format(DATE_FORMATTER);
+                    for (int period = 1; period <= rows; period++) {
+                        writer.write(period + "," + (1 + random.nextInt(1500)) / 100.0 + "," + lastUpdate);
+                        writer.newLine();
+                    }
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the file without maximum maturity period, the generated tables list more periods than a real one.
+     */
+    static CsvUtil loadCsv(Path file) {
+        CsvUtil csvUtil = new CsvUtil();
+        ReflectionTestUtils.setField(csvUtil, "ratesFile", file.toString());
+        ReflectionTestUtils.setField(csvUtil, "maxMaturityPeriod", Integer.MAX_VALUE);
+        csvUtil.init();
+        return csvUtil;
+    }
+}
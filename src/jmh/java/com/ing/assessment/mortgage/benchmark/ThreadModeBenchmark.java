@@ -0,0 +1,91 @@
+package com.ing.assessment.mortgage.benchmark;
+
+import com.ing.assessment.mortgage.MortgageApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load comparison of the platform thread pool and virtual threads: the application is started on a random port and
+ * the mortgage check endpoint is called by many concurrent clients (override the count with -t).
+ * The pool size is lowered so that it, not the CPU, caps the number of requests in progress; the jdbc repository
+ * adds blocking database reads on snapshot refresh. The virtual mode only differs from the platform mode on Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(256)
+public class ThreadModeBenchmark {
+    private static final String TOKEN = "benchmark-token";
+    private static final String BODY = "{\"income\":90000,\"maturityPeriod\":10,\"loanValue\":300000,\"homeValue\":400000}";
+
+    @Param({"platform", "virtual"})
+    private String threadMode;
+
+    @Param({"csv", "jdbc"})
+    private String repository;
+
+    @Param({"32"})
+    private int maxPlatformThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setup() {
+        // command line arguments, as default properties would be overridden by application.properties
+        context = new SpringApplicationBuilder(MortgageApplication.class)
+                .run("--server.port=0",
+                        "--api.bearer.token=" + TOKEN,
+                        "--api.rate-limit.permits-per-second=0",
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(threadMode),
+                        "--server.tomcat.threads.max=" + maxPlatformThreads,
+                        "--mortgage.rates.repository=" + repository,
+                        "--mortgage.rates.jdbc.cache-ttl=1s",
+                        "--mortgage.rates.jdbc.refresh-ahead=100ms",
+                        "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/mortgage-check"))
+                .header("Authorization", "Bearer " + TOKEN)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int mortgageCheck() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ing.assessment.mortgage.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The endpoints driven by the load test, named as in the mix option.
+ */
+enum Endpoint {
+    CHECK("check") {
+        @Override
+        HttpRequest.Builder request(URI baseUri, String token, SplittableRandom random) {
+            int period = MATURITY_PERIODS[random.nextInt(MATURITY_PERIODS.length)];
+            int income = 30_000 + random.nextInt(170_000);
+            int homeValue = 100_000 + random.nextInt(900_000);
+            int loanValue = 50_000 + random.nextInt(homeValue - 50_000);
+            String body = "{\"income\":" + income + ",\"maturityPeriod\":" + period
+                    + ",\"loanValue\":" + loanValue + ",\"homeValue\":" + homeValue + "}";
+            return HttpRequest.newBuilder(baseUri.resolve("/api/mortgage-check"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    RATES("rates") {
+        @Override
+        HttpRequest.Builder request(URI baseUri, String token, SplittableRandom random) {
+            return HttpRequest.newBuilder(baseUri.resolve("/api/interest-rates"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET();
+        }
+    };
+
+    private static final int[] MATURITY_PERIODS = {1, 2, 5, 10, 15, 20, 25, 30};
+
+    private final String value;
+
+    Endpoint(String value) {
+        this.value = value;
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    /**
+     * Builds the next request; mortgage checks get random amounts, so they are not all served from the check cache.
+     *
+     * @param baseUri
+     * @param token
+     * @param random
+     * @return
+     */
+    abstract HttpRequest.Builder request(URI baseUri, String token, SplittableRandom random);
+
+    static Endpoint fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + value + ", expected check or rates"));
+    }
+}
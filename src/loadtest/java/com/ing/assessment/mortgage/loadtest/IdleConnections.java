@@ -0,0 +1,194 @@
+package com.ing.assessment.mortgage.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps many idle keep-alive connections open to the application while the load runs, like the client connections
+ * an API gateway holds. Each connection sends one GET /api/interest-rates/page?limit=1 and then stays open without
+ * sending anything more; it counts as established once its response arrives. All connections are handled by one
+ * selector thread, so the load test itself needs no thread per connection.
+ * Connections are opened at most {@value #MAX_PENDING} at a time. Opening stops when all are established, or when
+ * none got established for the timeout, e.g. because the server does not accept more connections.
+ */
+final class IdleConnections implements AutoCloseable {
+    private static final int MAX_PENDING = 256;
+    private static final long SELECT_MILLIS = 100;
+
+    private final InetSocketAddress address;
+    private final byte[] request;
+    private final int requested;
+    private final long timeoutNanos;
+    private final Selector selector;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(8192);
+    private final CountDownLatch opening = new CountDownLatch(1);
+    private final Thread thread;
+
+    private volatile int opened;
+    private volatile int established;
+    private volatile int failed;
+    private volatile int closed;
+    private int pending;
+
+    private IdleConnections(InetSocketAddress address, String token, int requested, Duration timeout) throws IOException {
+        this.address = address;
+        this.request = ("GET /api/interest-rates/page?limit=1 HTTP/1.1\r\n"
+                + "Host: " + address.getHostString() + ":" + address.getPort() + "\r\n"
+                + "Authorization: Bearer " + token + "\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.requested = requested;
+        this.timeoutNanos = timeout.toNanos();
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, "idle-connections");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Opens the connections and returns once opening has stopped, the connections stay open until closed.
+     *
+     * @param address
+     * @param token
+     * @param requested
+     * @param timeout
+     * @return
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    static IdleConnections open(InetSocketAddress address, String token, int requested, Duration timeout)
+            throws IOException, InterruptedException {
+        IdleConnections connections = new IdleConnections(address, token, requested, timeout);
+        connections.thread.start();
+        connections.opening.await();
+        return connections;
+    }
+
+    /**
+     * Counts of the connections so far, those that were closed after their response are included in established.
+     *
+     * @return
+     */
+    LoadTestResult.Connections result() {
+        return new LoadTestResult.Connections(requested, opened, established, failed, closed);
+    }
+
+    @Override
+    public void close() throws InterruptedException, IOException {
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void run() {
+        long lastProgress = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (opening.getCount() > 0) {
+                    while (opened < requested && pending < MAX_PENDING) {
+                        connect();
+                    }
+                    if (established + failed == requested || System.nanoTime() - lastProgress > timeoutNanos) {
+                        opening.countDown();
+                    }
+                }
+                selector.select(SELECT_MILLIS);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (handle(key)) {
+                        lastProgress = System.nanoTime();
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            System.err.println("Idle connections stopped: " + e);
+        } finally {
+            opening.countDown();
+        }
+    }
+
+    private void connect() throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        opened++;
+        pending++;
+        try {
+            channel.connect(address);
+            channel.register(selector, SelectionKey.OP_CONNECT, ByteBuffer.wrap(request));
+        } catch (IOException e) {
+            fail(channel);
+        }
+    }
+
+    /**
+     * Handles a ready connection and returns whether it got established or failed.
+     */
+    private boolean handle(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer pendingRequest = (ByteBuffer) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                channel.finishConnect();
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else if (key.isWritable()) {
+                channel.write(pendingRequest);
+                if (!pendingRequest.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } else if (key.isReadable()) {
+                readBuffer.clear();
+                int read = channel.read(readBuffer);
+                if (read < 0) {
+                    key.cancel();
+                    channel.close();
+                    if (key.attachment() == null) {
+                        closed++;
+                        return false;
+                    }
+                    pending--;
+                    failed++;
+                    return true;
+                }
+                if (read > 0 && key.attachment() != null) {
+                    key.attach(null);
+                    pending--;
+                    established++;
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            key.cancel();
+            if (key.attachment() == null) {
+                closed++;
+                closeQuietly(channel);
+                return false;
+            }
+            fail(channel);
+            return true;
+        }
+    }
+
+    private void fail(SocketChannel channel) {
+        pending--;
+        failed++;
+        closeQuietly(channel);
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+//            nothing to do, the connection is gone
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ing.assessment.mortgage.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: request i is due at start + i / rate, whether or not the earlier requests have completed,
+ * and is sent asynchronously from a single thread. Latency is measured from the time a request was due instead of the
+ * time it was sent, so a stalled server or generator cannot hide the queueing delay of the requests behind it
+ * (coordinated omission). The uncorrected time from send to response is recorded next to it as the service time.
+ * Requests due during the warmup are sent but not recorded.
+ */
+final class LoadGenerator {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long DRAIN_POLL_MILLIS = 10;
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final String token;
+    private final LoadTestOptions options;
+    private final Endpoint[] schedule;
+
+    LoadGenerator(HttpClient httpClient, URI baseUri, String token, LoadTestOptions options) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.token = token;
+        this.options = options;
+        List<Endpoint> weighted = new ArrayList<>();
+        options.mix().forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.schedule = weighted.toArray(Endpoint[]::new);
+    }
+
+    /**
+     * Runs the warmup and the measured period and waits for the outstanding requests.
+     *
+     * @return
+     * @throws InterruptedException
+     */
+    LoadTestResult run() throws InterruptedException {
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : schedule) {
+            stats.computeIfAbsent(endpoint, key -> new Stats());
+        }
+        SplittableRandom random = new SplittableRandom(options.seed());
+        AtomicLong outstanding = new AtomicLong();
+        long warmupRequests = options.warmup().toNanos() * options.rate() / NANOS_PER_SECOND;
+        long totalRequests = warmupRequests + options.duration().toNanos() * options.rate() / NANOS_PER_SECOND;
+        long maxSendLag = 0;
+
+        long start = System.nanoTime();
+        for (long i = 0; i < totalRequests; i++) {
+            long due = start + i * NANOS_PER_SECOND / options.rate();
+            waitUntil(due);
+            Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = endpoint.request(baseUri, token, random)
+                    .timeout(options.timeout())
+                    .build();
+            Stats recorded = i >= warmupRequests ? stats.get(endpoint) : null;
+
+            outstanding.incrementAndGet();
+            long sent = System.nanoTime();
+            if (recorded != null) {
+                recorded.sent.increment();
+                maxSendLag = Math.max(maxSendLag, sent - due);
+            }
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (recorded != null) {
+                            recorded.record(due, sent, System.nanoTime(), error == null && response.statusCode() == 200);
+                        }
+                        outstanding.decrementAndGet();
+                    });
+        }
+        drain(outstanding);
+
+        Map<String, LoadTestResult.EndpointResult> endpoints = new LinkedHashMap<>();
+        Histogram allLatency = new Histogram(3);
+        Histogram allServiceTime = new Histogram(3);
+        long allSent = 0;
+        long allErrors = 0;
+        double seconds = options.duration().toNanos() / (double) NANOS_PER_SECOND;
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Stats endpointStats = entry.getValue();
+            long sent = endpointStats.sent.sum();
+            long errors = endpointStats.errors(sent);
+            endpoints.put(entry.getKey().getValue(), LoadTestResult.EndpointResult.of(sent, errors, seconds,
+                    endpointStats.latency, endpointStats.serviceTime));
+            allLatency.add(endpointStats.latency);
+            allServiceTime.add(endpointStats.serviceTime);
+            allSent += sent;
+            allErrors += errors;
+        }
+        endpoints.put(LoadTestResult.ALL, LoadTestResult.EndpointResult.of(allSent, allErrors, seconds,
+                allLatency, allServiceTime));
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((endpoint, weight) -> mix.put(endpoint.getValue(), weight));
+        return new LoadTestResult(null, options.rate(), options.duration().toSeconds(), options.warmup().toSeconds(),
+                mix, LoadTestResult.toMillis(maxSendLag), 0, null, endpoints);
+    }
+
+    private static void waitUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void drain(AtomicLong outstanding) throws InterruptedException {
+        long deadline = System.nanoTime() + 2 * options.timeout().toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(DRAIN_POLL_MILLIS);
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final Histogram serviceTime = new ConcurrentHistogram(3);
+
+        private void record(long due, long sent, long completed, boolean success) {
+            latency.recordValue(completed - due);
+            serviceTime.recordValue(completed - sent);
+            if (!success) {
+                failed.increment();
+            }
+        }
+
+        /**
+         * Failed responses plus the requests that never completed.
+         */
+        private long errors(long sent) {
+            return failed.sum() + sent - latency.getTotalCount();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ing.assessment.mortgage.loadtest;
+
+import com.ing.assessment.mortgage.MortgageApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts the application on a random local port, drives POST /api/mortgage-check and
+ * GET /api/interest-rates at a fixed arrival rate with {@link LoadGenerator}, prints p50/p99/p99.9 latency and
+ * throughput per endpoint and writes them to a JSON file (see {@link LoadTestOptions} for the arguments).
+ * The generator runs in the same JVM as the application, so the numbers are for one machine under the full load.
+ * Rate limiting is turned off, as all requests use one token.
+ * To compare the servlet and the reactive runtime under many connections, run both with connections=N idle
+ * keep-alive connections, the second one with --spring.main.web-application-type=reactive and baseline= the result
+ * of the first; the result has the peak number of JVM threads and how many connections each runtime kept open.
+ */
+public final class LoadTest {
+    private static final String TOKEN = "load-test-token";
+    private static final Map<String, String> APPLICATION_DEFAULTS = Map.of(
+            "server.port", "0",
+            "api.bearer.token", TOKEN,
+            "api.rate-limit.permits-per-second", "0",
+            "logging.level.root", "WARN");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MortgageApplication.class)
+                .run(applicationArgs(options.applicationArgs()));
+        IdleConnections connections = null;
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String runtime = context instanceof ReactiveWebServerApplicationContext ? "reactive" : "servlet";
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            if (options.connections() > 0) {
+                connections = IdleConnections.open(new InetSocketAddress("localhost", port), TOKEN,
+                        options.connections(), options.timeout());
+                System.out.println("Opened idle connections: " + connections.result());
+            }
+            LoadTestResult result = new LoadGenerator(httpClient, URI.create("http://localhost:" + port), TOKEN, options)
+                    .run()
+                    .withServer(runtime, threads.getPeakThreadCount(),
+                            connections == null ? null : connections.result());
+
+            result.print(System.out);
+            if (options.baseline() != null) {
+                result.printComparison(LoadTestResult.read(options.baseline()), System.out);
+            }
+            result.write(options.output());
+            System.out.println("Result written to " + options.output());
+        } finally {
+            if (connections != null) {
+                connections.close();
+            }
+            context.close();
+        }
+    }
+
+    /**
+     * The defaults are passed as command line arguments too, as default properties would be overridden by
+     * application.properties; an argument for the same property replaces the default.
+     */
+    private static String[] applicationArgs(List<String> args) {
+        List<String> applicationArgs = new ArrayList<>();
+        APPLICATION_DEFAULTS.forEach((name, value) -> {
+            if (args.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+                applicationArgs.add("--" + name + "=" + value);
+            }
+        });
+        applicationArgs.addAll(args);
+        return applicationArgs.toArray(String[]::new);
+    }
+}
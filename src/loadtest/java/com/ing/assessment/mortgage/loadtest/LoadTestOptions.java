@@ -0,0 +1,90 @@
+package com.ing.assessment.mortgage.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test options, passed as key=value arguments:
+ * rate (requests per second), duration and warmup (e.g. 30s), mix (weights such as check:9,rates:1), timeout of a
+ * single request, seed of the request mix, connections (idle keep-alive connections held open during the run, see
+ * {@link IdleConnections}), output (the result file) and baseline (a result file of an earlier run to compare with).
+ * Arguments starting with -- are passed to the application, e.g. --mortgage.rates.repository=jdbc, or
+ * --spring.main.web-application-type=reactive for the reactive runtime.
+ */
+record LoadTestOptions(int rate,
+                       Duration duration,
+                       Duration warmup,
+                       Map<Endpoint, Integer> mix,
+                       Duration timeout,
+                       long seed,
+                       int connections,
+                       Path output,
+                       Path baseline,
+                       List<String> applicationArgs) {
+
+    static LoadTestOptions parse(String... args) {
+        int rate = 200;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        Map<Endpoint, Integer> mix = parseMix("check:9,rates:1");
+        Duration timeout = Duration.ofSeconds(10);
+        long seed = 42;
+        int connections = 0;
+        Path output = Path.of("target", "loadtest-result.json");
+        Path baseline = null;
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "rate" -> rate = Integer.parseInt(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "mix" -> mix = parseMix(value);
+                case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "connections" -> connections = Integer.parseInt(value);
+                case "output" -> output = Path.of(value);
+                case "baseline" -> baseline = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (rate <= 0 || duration.isNegative() || duration.isZero() || warmup.isNegative() || connections < 0) {
+            throw new IllegalArgumentException(
+                    "rate and duration must be positive, warmup and connections must not be negative");
+        }
+        return new LoadTestOptions(rate, duration, warmup, mix, timeout, seed, connections, output, baseline,
+                Collections.unmodifiableList(applicationArgs));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix " + value);
+            }
+            mix.put(Endpoint.fromValue(parts[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix " + value + " has no requests");
+        }
+        return Collections.unmodifiableMap(mix);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ing.assessment.mortgage.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a load test run, written as JSON so that runs on different commits can be compared.
+ * Latencies are in milliseconds; throughput counts the successful responses per second of the measured period.
+ */
+record LoadTestResult(String runtime,
+                      int rate,
+                      long durationSeconds,
+                      long warmupSeconds,
+                      Map<String, Integer> mix,
+                      double maxSendLagMillis,
+                      int peakThreads,
+                      Connections connections,
+                      Map<String, EndpointResult> endpoints) {
+
+    static final String ALL = "all";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    static LoadTestResult read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LoadTestResult.class);
+    }
+
+    /**
+     * Returns this result with the runtime, the peak number of JVM threads and the idle connections of the run.
+     *
+     * @param runtime
+     * @param peakThreads
+     * @param connections
+     * @return
+     */
+    LoadTestResult withServer(String runtime, int peakThreads, Connections connections) {
+        return new LoadTestResult(runtime, rate, durationSeconds, warmupSeconds, mix, maxSendLagMillis, peakThreads,
+                connections, endpoints);
+    }
+
+    void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+    }
+
+    void print(PrintStream out) {
+        out.printf("Load test (%s runtime): %d requests/s for %d s after %d s warmup, mix %s, max send lag %.3f ms%n",
+                runtime, rate, durationSeconds, warmupSeconds, mix, maxSendLagMillis);
+        if (connections != null) {
+            out.printf("Idle keep-alive connections: %d requested, %d opened, %d established, %d failed, "
+                            + "%d closed by the server%n", connections.requested(), connections.opened(),
+                    connections.established(), connections.failed(), connections.closedByServer());
+        }
+        out.printf("Peak JVM threads: %d%n", peakThreads);
+        out.println("Latency from the time each request was due, corrected for coordinated omission (ms):");
+        out.printf("%-10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50", "p99", "p99.9", "max");
+        endpoints.forEach((name, result) -> out.printf("%-10s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                name, result.requests(), result.errors(), result.throughput(),
+                result.p50(), result.p99(), result.p999(), result.max()));
+        out.println("Service time from the actual send (ms):");
+        out.printf("%-10s %10s %10s %10s%n", "endpoint", "p50", "p99", "p99.9");
+        endpoints.forEach((name, result) -> out.printf("%-10s %10.3f %10.3f %10.3f%n",
+                name, result.serviceP50(), result.serviceP99(), result.serviceP999()));
+    }
+
+    /**
+     * Prints throughput and corrected latency next to those of the baseline, for the endpoints in both runs.
+     *
+     * @param baseline
+     * @param out
+     */
+    void printComparison(LoadTestResult baseline, PrintStream out) {
+        out.printf("Compared with the baseline (%s runtime, %d requests/s, mix %s, %s idle connections, "
+                        + "%d peak threads):%n", baseline.runtime(), baseline.rate(), baseline.mix(),
+                baseline.connections() == null ? 0 : baseline.connections().established(), baseline.peakThreads());
+        out.printf("%-10s %-6s %12s %12s %9s%n", "endpoint", "metric", "baseline", "current", "change");
+        endpoints.forEach((name, current) -> {
+            EndpointResult previous = baseline.endpoints().get(name);
+            if (previous == null) {
+                return;
+            }
+            printChange(out, name, "req/s", previous.throughput(), current.throughput());
+            printChange(out, name, "p50", previous.p50(), current.p50());
+            printChange(out, name, "p99", previous.p99(), current.p99());
+            printChange(out, name, "p99.9", previous.p999(), current.p999());
+        });
+    }
+
+    private static void printChange(PrintStream out, String endpoint, String metric, double baseline, double current) {
+        String change = baseline == 0 ? "n/a" : String.format("%+.1f%%", (current - baseline) * 100 / baseline);
+        out.printf("%-10s %-6s %12.3f %12.3f %9s%n", endpoint, metric, baseline, current, change);
+    }
+
+    /**
+     * Idle keep-alive connections held open during the run, see {@link IdleConnections}.
+     */
+    record Connections(int requested,
+                       int opened,
+                       int established,
+                       int failed,
+                       int closedByServer) {
+    }
+
+    record EndpointResult(long requests,
+                          long errors,
+                          double throughput,
+                          double p50,
+                          double p99,
+                          double p999,
+                          double max,
+                          double serviceP50,
+                          double serviceP99,
+                          double serviceP999) {
+
+        static EndpointResult of(long requests, long errors, double seconds, Histogram latency, Histogram serviceTime) {
+            return new EndpointResult(requests, errors, (requests - errors) / seconds,
+                    toMillis(latency.getValueAtPercentile(50)),
+                    toMillis(latency.getValueAtPercentile(99)),
+                    toMillis(latency.getValueAtPercentile(99.9)),
+                    toMillis(latency.getMaxValue()),
+                    toMillis(serviceTime.getValueAtPercentile(50)),
+                    toMillis(serviceTime.getValueAtPercentile(99)),
+                    toMillis(serviceTime.getValueAtPercentile(99.9)));
+        }
+    }
+}
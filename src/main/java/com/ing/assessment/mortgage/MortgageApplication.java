@@ -2,8 +2,12 @@ package com.ing.assessment.mortgage;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * The DataSource is only configured in jdbc mode, by {@link com.ing.assessment.mortgage.config.JdbcRatesConfig}.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
 public class MortgageApplication {
     public static void main(String[] args) {
         SpringApplication.run(MortgageApplication.class, args);
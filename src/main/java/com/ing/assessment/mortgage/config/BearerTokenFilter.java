@@ -5,18 +5,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying a bearer token accepted by the {@link TokenAuthenticator}.
+ * The authentication is set on a new SecurityContext for the request thread instead of the one returned by
+ * {@link SecurityContextHolder#getContext()}, so nothing is shared between requests when a thread serves
+ * several of them, as with pooled platform threads, or when virtual threads are enabled.
+ */
 @AllArgsConstructor
 public class BearerTokenFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
 
-    private final String validToken;
+    private final TokenAuthenticator tokenAuthenticator;
 
     @Override
     public void doFilterInternal(HttpServletRequest request,
@@ -25,15 +32,13 @@ public class BearerTokenFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            Optional<Authentication> auth = tokenAuthenticator.authenticate(authHeader.substring(BEARER_PREFIX.length()));
 
-            if (validToken.equals(token)) {
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        "apiUser",
-                        null,
-                        List.of(new SimpleGrantedAuthority("ROLE_USER")));
-                SecurityContextHolder.getContext().setAuthentication(auth);
+            if (auth.isPresent()) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(auth.get());
+                SecurityContextHolder.setContext(context);
 
                 filterChain.doFilter(request, response);
                 return;
@@ -0,0 +1,47 @@
+package com.ing.assessment.mortgage.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Reactive equivalent of {@link BearerTokenFilter}: authenticates requests carrying a bearer token accepted by the
+ * {@link TokenAuthenticator} and answers all others with 401. The authentication is put on the Reactor context of
+ * the rest of the chain, so it belongs to the request and not to the event loop thread that happens to serve it.
+ */
+@AllArgsConstructor
+public class BearerTokenWebFilter implements WebFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"error\":\"Invalid or missing Bearer token\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final TokenAuthenticator tokenAuthenticator;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            Optional<Authentication> auth = tokenAuthenticator.authenticate(authHeader.substring(BEARER_PREFIX.length()));
+
+            if (auth.isPresent()) {
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth.get()));
+            }
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(UNAUTHORIZED_BODY)));
+    }
+}
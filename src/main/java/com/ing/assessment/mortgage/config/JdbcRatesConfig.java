@@ -0,0 +1,18 @@
+package com.ing.assessment.mortgage.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Database support of mortgage.rates.repository=jdbc. DataSourceAutoConfiguration is excluded on the application,
+ * so the default csv mode starts without connection pool, database health check or pool metrics; the JdbcTemplate,
+ * transaction manager, health and metrics auto-configurations only apply when there is a DataSource.
+ * It is imported as a regular configuration, as auto-configuration imports are subject to the same exclusion.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mortgage.rates.repository", havingValue = "jdbc")
+@Import(DataSourceAutoConfiguration.class)
+public class JdbcRatesConfig {
+}
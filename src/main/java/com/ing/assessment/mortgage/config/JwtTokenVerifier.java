@@ -0,0 +1,74 @@
+package com.ing.assessment.mortgage.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Verifies JWTs signed with one of the RSA or EC keys of a local JWKS file, enabled by setting api.tokens.jwks-file.
+ * The expiry and not-before claims are checked, and the issuer when api.tokens.jwt.issuer is set.
+ * The subject claim is the principal.
+ */
+@Component
+@ConditionalOnProperty(name = "api.tokens.jwks-file")
+@Order(1)
+@Slf4j
+public class JwtTokenVerifier implements TokenVerifier {
+    private final NimbusJwtDecoder jwtDecoder;
+
+    public JwtTokenVerifier(@Value("${api.tokens.jwks-file}") Path jwksFile,
+                            @Value("${api.tokens.jwt.issuer:}") String issuer) {
+        JWKSet jwkSet;
+        try {
+            jwkSet = JWKSet.load(jwksFile.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JWKS file " + jwksFile, e);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid JWKS file " + jwksFile, e);
+        }
+
+        Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+        DefaultJWTProcessor<com.nimbusds.jose.proc.SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, new ImmutableJWKSet<>(jwkSet)));
+        jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(issuer.isBlank() ? JwtValidators.createDefault() : JwtValidators.createDefaultWithIssuer(issuer));
+        log.info("Loaded {} JWT verification keys from {}", jwkSet.getKeys().size(), jwksFile);
+    }
+
+    @Override
+    public Optional<VerifiedToken> verify(String token) {
+        if (token.chars().filter(c -> c == '.').count() != 2) {
+            return Optional.empty();
+        }
+        try {
+            Jwt jwt = jwtDecoder.decode(token);
+            if (jwt.getSubject() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedToken(jwt.getSubject(), jwt.getExpiresAt()));
+        } catch (JwtException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
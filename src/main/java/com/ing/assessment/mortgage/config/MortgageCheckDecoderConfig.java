@@ -0,0 +1,31 @@
+package com.ing.assessment.mortgage.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.assessment.mortgage.controller.MortgageCheckArgumentResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the {@link MortgageCheckArgumentResolver}. It reads JSON with the factory of the application's
+ * ObjectMapper and falls back to the application's message converters, looked up on first use.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class MortgageCheckDecoderConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<HttpMessageConverters> messageConverters;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new MortgageCheckArgumentResolver(objectMapper.getFactory(),
+                () -> messageConverters.getObject().getConverters()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ing.assessment.mortgage.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Verifies opaque tokens against their SHA-256 hashes, so the tokens themselves are not kept in the configuration.
+ * Tokens are configured as principal:sha256-hex in api.tokens.opaque; the legacy api.bearer.token is accepted for
+ * the apiUser principal. The hash of the presented token is compared with every configured hash in constant time.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class OpaqueTokenVerifier implements TokenVerifier {
+    static final String LEGACY_PRINCIPAL = "apiUser";
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    public OpaqueTokenVerifier(@Value("${api.bearer.token:}") String legacyToken,
+                               @Value("${api.tokens.opaque:}") List<String> hashedTokens) {
+        if (!legacyToken.isBlank()) {
+            entries.add(new Entry(LEGACY_PRINCIPAL, TokenAuthenticator.sha256(legacyToken)));
+        }
+        for (String hashedToken : hashedTokens) {
+            if (hashedToken.isBlank()) {
+                continue;
+            }
+            int separator = hashedToken.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Opaque tokens must be configured as principal:sha256-hex");
+            }
+            byte[] hash = HexFormat.of().parseHex(hashedToken.substring(separator + 1).trim());
+            entries.add(new Entry(hashedToken.substring(0, separator).trim(), hash));
+        }
+        log.info("Configured {} opaque bearer tokens", entries.size());
+    }
+
+    @Override
+    public Optional<VerifiedToken> verify(String token) {
+        byte[] hash = TokenAuthenticator.sha256(token);
+        String principal = null;
+        for (Entry entry : entries) {
+            if (MessageDigest.isEqual(entry.hash, hash) && principal == null) {
+                principal = entry.principal;
+            }
+        }
+        return principal == null ? Optional.empty() : Optional.of(new VerifiedToken(principal, null));
+    }
+
+    private record Entry(String principal, byte[] hash) {
+    }
+}
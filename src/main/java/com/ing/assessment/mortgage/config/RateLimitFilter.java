@@ -0,0 +1,46 @@
+package com.ing.assessment.mortgage.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimiter} of the principal authenticated by {@link BearerTokenFilter}. A request over the
+ * limit is answered with 429 and a Retry-After of the seconds until the next permit, before it reaches a controller.
+ */
+@AllArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public void doFilterInternal(HttpServletRequest request,
+                                 HttpServletResponse response,
+                                 FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            long waitNanos = rateLimiter.tryAcquire(authentication.getName());
+            if (waitNanos > 0) {
+                response.setStatus(SC_TOO_MANY_REQUESTS);
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many requests\"}");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
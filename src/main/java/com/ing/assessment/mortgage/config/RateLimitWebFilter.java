@@ -0,0 +1,45 @@
+package com.ing.assessment.mortgage.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive equivalent of {@link RateLimitFilter}: applies the {@link RateLimiter} of the principal authenticated by
+ * {@link BearerTokenWebFilter} and answers a request over the limit with 429 and a Retry-After.
+ */
+@AllArgsConstructor
+public class RateLimitWebFilter implements WebFilter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final byte[] TOO_MANY_REQUESTS_BODY = "{\"error\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(authentication -> rateLimiter.tryAcquire(authentication.getName()))
+                .defaultIfEmpty(0L)
+                .flatMap(waitNanos -> waitNanos > 0 ? tooManyRequests(exchange, waitNanos) : chain.filter(exchange));
+    }
+
+    private static Mono<Void> tooManyRequests(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString((waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(TOO_MANY_REQUESTS_BODY)));
+    }
+}
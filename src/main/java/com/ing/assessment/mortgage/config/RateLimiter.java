@@ -0,0 +1,100 @@
+package com.ing.assessment.mortgage.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-principal token buckets: api.rate-limit.permits-per-second refill the bucket of a principal, which holds at
+ * most api.rate-limit.burst permits. A permits-per-second of 0 turns rate limiting off.
+ * A bucket is kept as the theoretical arrival time of the next request (the generic cell rate algorithm): a request
+ * is admitted when that time is at most burst - 1 intervals ahead, and moves it one interval on. It is a single
+ * AtomicLong advanced with compareAndSet, so admission takes no lock. Admitted and rejected requests are
+ * counted in LongAdders, which are striped across threads.
+ */
+@Component
+public class RateLimiter {
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Ticker ticker;
+    private final Cache<String, Bucket> buckets;
+
+    @Autowired
+    public RateLimiter(@Value("${api.rate-limit.permits-per-second:0}") double permitsPerSecond,
+                       @Value("${api.rate-limit.burst:1}") int burst,
+                       @Value("${api.rate-limit.max-principals:10000}") long maxPrincipals) {
+        this(permitsPerSecond, burst, maxPrincipals, Ticker.systemTicker());
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, long maxPrincipals, Ticker ticker) {
+        this.enabled = permitsPerSecond > 0;
+        this.intervalNanos = enabled ? Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond)) : 0;
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxPrincipals)
+                .build();
+    }
+
+    /**
+     * Takes a permit from the principal's bucket. Returns 0 when the request is admitted, otherwise the number of
+     * nanoseconds until a permit is available.
+     *
+     * @param principal
+     * @return
+     */
+    public long tryAcquire(String principal) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = ticker.read();
+        Bucket bucket = buckets.get(principal, key -> new Bucket(now));
+        while (true) {
+            long arrival = bucket.theoreticalArrival.get();
+            long wait = arrival - now - toleranceNanos;
+            if (wait > 0) {
+                bucket.rejected.increment();
+                return wait;
+            }
+            if (bucket.theoreticalArrival.compareAndSet(arrival, Math.max(arrival, now) + intervalNanos)) {
+                bucket.admitted.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Admitted and rejected requests per principal, sorted by principal.
+     *
+     * @return
+     */
+    public Map<String, Counts> getCounts() {
+        Map<String, Counts> counts = new TreeMap<>();
+        buckets.asMap().forEach((principal, bucket) ->
+                counts.put(principal, new Counts(bucket.admitted.sum(), bucket.rejected.sum())));
+        return counts;
+    }
+
+    public record Counts(long admitted, long rejected) {
+    }
+
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Bucket(long theoreticalArrival) {
+            this.theoreticalArrival = new AtomicLong(theoreticalArrival);
+        }
+    }
+}
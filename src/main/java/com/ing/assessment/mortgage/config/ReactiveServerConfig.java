@@ -0,0 +1,21 @@
+package com.ing.assessment.mortgage.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the reactive runtime on Netty. Tomcat is on the classpath for the servlet runtime and would otherwise be
+ * picked for the reactive one too, behind a servlet adapter instead of the event loop.
+ * The server.* settings are applied to the factory by Spring Boot as usual.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
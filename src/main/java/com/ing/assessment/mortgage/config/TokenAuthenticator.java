@@ -0,0 +1,160 @@
+package com.ing.assessment.mortgage.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns a bearer token into an Authentication using the configured {@link TokenVerifier}s.
+ * Successful verifications are cached by the SHA-256 hash of the token, bounded by api.tokens.cache.max-size and
+ * evicted after api.tokens.cache.ttl or when the token expires, whichever comes first. Rejected tokens are not cached.
+ * One Authentication is kept per principal and shared by all of its tokens and requests; its setters throw, so no
+ * request can change it for the others.
+ */
+@Component
+public class TokenAuthenticator {
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final List<TokenVerifier> verifiers;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Cache<String, CachedToken> tokens;
+    private final Cache<String, Authentication> authentications;
+
+    @Autowired
+    public TokenAuthenticator(List<TokenVerifier> verifiers,
+                              @Value("${api.tokens.cache.ttl:5m}") Duration ttl,
+                              @Value("${api.tokens.cache.max-size:10000}") long maxSize) {
+        this(verifiers, ttl, maxSize, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    TokenAuthenticator(List<TokenVerifier> verifiers, Duration ttl, long maxSize, Ticker ticker, Clock clock) {
+        this.verifiers = verifiers;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        return value.cacheNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+        this.authentications = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the Authentication for the token, or empty when no verifier accepts it.
+     *
+     * @param token
+     * @return
+     */
+    public Optional<Authentication> authenticate(String token) {
+        String key = HexFormat.of().formatHex(sha256(token));
+        CachedToken cached = tokens.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached.authentication);
+        }
+
+        for (TokenVerifier verifier : verifiers) {
+            Optional<TokenVerifier.VerifiedToken> verified = verifier.verify(token);
+            if (verified.isPresent()) {
+                Authentication authentication = authentications.get(verified.get().principal(), TokenAuthenticator::authentication);
+                long cacheNanos = cacheNanos(verified.get().expiresAt());
+                if (cacheNanos > 0) {
+                    tokens.put(key, new CachedToken(authentication, cacheNanos));
+                }
+                return Optional.of(authentication);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private long cacheNanos(Instant expiresAt) {
+        if (expiresAt == null) {
+            return ttl.toNanos();
+        }
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        if (remaining.isNegative()) {
+            return 0;
+        }
+        return remaining.compareTo(ttl) < 0 ? remaining.toNanos() : ttl.toNanos();
+    }
+
+    private static Authentication authentication(String principal) {
+        return new SharedAuthentication(principal);
+    }
+
+    static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedToken(Authentication authentication, long cacheNanos) {
+    }
+
+    private static final class SharedAuthentication extends AbstractAuthenticationToken {
+        private final String principal;
+
+        private SharedAuthentication(String principal) {
+            super(AUTHORITIES);
+            this.principal = principal;
+            super.setAuthenticated(true);
+        }
+
+        @Override
+        public Object getCredentials() {
+            return null;
+        }
+
+        @Override
+        public Object getPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public void setAuthenticated(boolean authenticated) {
+            throw new UnsupportedOperationException("Authentication is shared and cannot be changed");
+        }
+
+        @Override
+        public void setDetails(Object details) {
+            throw new UnsupportedOperationException("Authentication is shared and cannot be changed");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ing.assessment.mortgage.config;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Verifies a bearer token. Implementations are tried in order by {@link TokenAuthenticator}, which caches
+ * successful verifications, so a verifier may do expensive work such as a signature check.
+ */
+public interface TokenVerifier {
+
+    /**
+     * Verifies the token and returns the principal it belongs to, or empty when the token is not valid
+     * for this verifier.
+     *
+     * @param token
+     * @return
+     */
+    Optional<VerifiedToken> verify(String token);
+
+    /**
+     * A verified token: the principal and, when the token carries one, the instant it expires.
+     *
+     * @param principal
+     * @param expiresAt null when the token does not expire
+     */
+    record VerifiedToken(String principal, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized JSON of the interest rate list, with a gzip variant, CBOR and Smile encodings and strong
+ * ETags, so polling clients are served without serializing the list again. The entry is rebuilt only when a
+ * different rate list is passed in, which happens when the rates are reloaded. The binary encodings are serialized
+ * on the first request for them per entry, so a reload only pays for the formats that are asked for. They use the
+ * mappers of the CBOR and Smile message converters, so they match what those converters write.
+ */
+@Component
+public class InterestRatesResponseCache {
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+    private volatile Entry entry;
+
+    public InterestRatesResponseCache(ObjectMapper objectMapper,
+                                      MappingJackson2CborHttpMessageConverter cborConverter,
+                                      MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.smileMapper = smileConverter.getObjectMapper();
+    }
+
+    /**
+     * Returns the cached response for the given rate list, building it when the list has changed.
+     *
+     * @param rates
+     * @return
+     */
+    public Entry get(List<MortgageRate> rates) {
+        Entry current = entry;
+        if (current == null || current.rates != rates) {
+            current = build(rates);
+            entry = current;
+        }
+        return current;
+    }
+
+    /**
+     * Builds the response for a rate list without caching it, e.g. for the rates as of a point in time.
+     *
+     * @param rates
+     * @return
+     */
+    public Entry render(List<MortgageRate> rates) {
+        return build(rates);
+    }
+
+    private Entry build(List<MortgageRate> rates) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(rates);
+            String hash = DigestUtils.md5DigestAsHex(json);
+            return new Entry(rates, json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\"", lastModified(rates),
+                    new LazyEncoding(cborMapper, rates, "cbor"), new LazyEncoding(smileMapper, rates, "smile"));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize interest rates", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress interest rates", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static long lastModified(List<MortgageRate> rates) {
+        return rates.stream()
+                .map(MortgageRate::getLastUpdate)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .map(lastUpdate -> lastUpdate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+
+    /**
+     * Serialized interest rates. lastModified is the newest lastUpdate in epoch millis, or -1 when unknown.
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Entry {
+        private final List<MortgageRate> rates;
+        private final byte[] json;
+        private final byte[] gzipJson;
+        private final String etag;
+        private final String gzipEtag;
+        private final long lastModified;
+        @Getter(AccessLevel.NONE)
+        private final LazyEncoding cbor;
+        @Getter(AccessLevel.NONE)
+        private final LazyEncoding smile;
+
+        public byte[] getCbor() {
+            return cbor.get().body();
+        }
+
+        public String getCborEtag() {
+            return cbor.get().etag();
+        }
+
+        public byte[] getSmile() {
+            return smile.get().body();
+        }
+
+        public String getSmileEtag() {
+            return smile.get().etag();
+        }
+    }
+
+    /**
+     * A binary encoding of one rate list, serialized once by the first caller that needs it.
+     */
+    private static final class LazyEncoding {
+        private final ObjectMapper mapper;
+        private final List<MortgageRate> rates;
+        private final String name;
+        private volatile Encoded encoded;
+
+        private LazyEncoding(ObjectMapper mapper, List<MortgageRate> rates, String name) {
+            this.mapper = mapper;
+            this.rates = rates;
+            this.name = name;
+        }
+
+        private Encoded get() {
+            Encoded current = encoded;
+            if (current == null) {
+                synchronized (this) {
+                    current = encoded;
+                    if (current == null) {
+                        current = encode();
+                        encoded = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        private Encoded encode() {
+            try {
+                byte[] body = mapper.writeValueAsBytes(rates);
+                return new Encoded(body, "\"" + DigestUtils.md5DigestAsHex(body) + "-" + name + "\"");
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Failed to serialize interest rates as " + name, e);
+            }
+        }
+    }
+
+    private record Encoded(byte[] body, String etag) {
+    }
+}
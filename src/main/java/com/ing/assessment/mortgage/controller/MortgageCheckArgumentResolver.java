@@ -0,0 +1,186 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_DECODED_CHECK_BODY_BYTES;
+
+/**
+ * Resolves the body of POST /api/mortgage-check. A UTF-8 JSON body is decoded by {@link MortgageCheckRequestDecoder}
+ * into cents, without data binding or reflective validation. Every body it does not decode, and every other content
+ * type (CBOR, Smile), goes through the regular {@code @Valid @RequestBody} processing, so responses and errors are
+ * the same as before. Only bodies up to {@value com.ing.assessment.mortgage.util.MortgageConstants#MAX_DECODED_CHECK_BODY_BYTES}
+ * bytes are read into memory for the decoder; a body declared larger goes to the fallback unread, and one that turns
+ * out larger while reading is handed over with the bytes read so far in front of the rest of the stream.
+ */
+public class MortgageCheckArgumentResolver implements HandlerMethodArgumentResolver {
+    private static final MethodParameter REQUEST_BODY = new MethodParameter(
+            ReflectionUtils.findMethod(MortgageCheckArgumentResolver.class, "requestBody", MortgageCheckRequest.class), 0);
+
+    private final MortgageCheckRequestDecoder decoder;
+    private final Supplier<List<HttpMessageConverter<?>>> messageConverters;
+    private volatile RequestResponseBodyMethodProcessor bodyProcessor;
+
+    public MortgageCheckArgumentResolver(JsonFactory jsonFactory, Supplier<List<HttpMessageConverter<?>>> messageConverters) {
+        this.decoder = new MortgageCheckRequestDecoder(jsonFactory);
+        this.messageConverters = messageConverters;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == MortgageCheckBody.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) throws Exception {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (request != null && isUtf8Json(request.getContentType())
+                && request.getContentLengthLong() <= MAX_DECODED_CHECK_BODY_BYTES) {
+            ServletInputStream input = request.getInputStream();
+            byte[] body = input.readNBytes(MAX_DECODED_CHECK_BODY_BYTES + 1);
+            if (body.length <= MAX_DECODED_CHECK_BODY_BYTES) {
+                MortgageCheckCents cents = decoder.decode(body);
+                if (cents != null) {
+                    return new MortgageCheckBody(cents, null);
+                }
+                input = null;
+            }
+            webRequest = new ServletWebRequest(new ReplayedBodyRequest(request, body, input),
+                    webRequest.getNativeResponse(HttpServletResponse.class));
+        }
+        MortgageCheckRequest checkRequest = (MortgageCheckRequest) bodyProcessor()
+                .resolveArgument(REQUEST_BODY, mavContainer, webRequest, binderFactory);
+        return new MortgageCheckBody(null, checkRequest);
+    }
+
+    static boolean isUtf8Json(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            Charset charset = mediaType.getCharset();
+            return MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)
+                    && (charset == null || StandardCharsets.UTF_8.equals(charset));
+        } catch (IllegalArgumentException e) {
+//            invalid media type or unsupported charset
+            return false;
+        }
+    }
+
+    private RequestResponseBodyMethodProcessor bodyProcessor() {
+        RequestResponseBodyMethodProcessor processor = bodyProcessor;
+        if (processor == null) {
+            processor = new RequestResponseBodyMethodProcessor(messageConverters.get());
+            bodyProcessor = processor;
+        }
+        return processor;
+    }
+
+    /**
+     * Parameter the fallback is resolved for, it carries the annotations of the original handler parameter.
+     */
+    @SuppressWarnings("unused")
+    private static void requestBody(@Valid @RequestBody MortgageCheckRequest request) {
+    }
+
+    /**
+     * Serves the bytes that were already read to the regular request body processing, followed by the rest of the
+     * original stream when the body was not read to its end.
+     */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream input;
+
+        private ReplayedBodyRequest(HttpServletRequest request, byte[] read, ServletInputStream rest) {
+            super(request);
+            this.input = new ReplayedInputStream(new ByteArrayInputStream(read), rest);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return input;
+        }
+    }
+
+    private static final class ReplayedInputStream extends ServletInputStream {
+        private final ByteArrayInputStream read;
+        private final ServletInputStream rest;
+
+        private ReplayedInputStream(ByteArrayInputStream read, ServletInputStream rest) {
+            this.read = read;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (read.available() > 0) {
+                return read.read();
+            }
+            return rest == null ? -1 : rest.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (read.available() > 0) {
+                return read.read(buffer, offset, length);
+            }
+            return rest == null ? -1 : rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return read.available() == 0 && (rest == null || rest.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return read.available() > 0 || rest == null || rest.isReady();
+        }
+
+        /**
+         * A body held in memory is available at once and complete. Otherwise the listener is registered on the original
+         * stream, whose callbacks can read the held bytes first.
+         */
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (rest != null) {
+                rest.setReadListener(listener);
+                return;
+            }
+            try {
+                listener.onDataAvailable();
+                listener.onAllDataRead();
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+    }
+}
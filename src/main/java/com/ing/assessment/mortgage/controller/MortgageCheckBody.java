@@ -0,0 +1,11 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+
+/**
+ * Body of POST /api/mortgage-check as resolved by {@link MortgageCheckArgumentResolver}: either the check decoded
+ * into cents, or the data bound and validated request.
+ */
+record MortgageCheckBody(MortgageCheckCents cents, MortgageCheckRequest request) {
+}
@@ -0,0 +1,198 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON mortgage check with the streaming parser straight into {@link MortgageCheckCents} and applies the
+ * {@code @NotNull}/{@code @Min} rules of {@link MortgageCheckRequest} inline, with the same messages.
+ * Returns null for a body that data binding might read differently: anything but an object of plain numbers and
+ * nulls, amounts with more than two decimals or {@value #MAX_INTEGER_DIGITS} integer digits, unknown fields, asOf,
+ * or malformed JSON. The caller reads those with data binding, so their responses and errors do not change.
+ */
+public final class MortgageCheckRequestDecoder {
+    static final int MAX_INTEGER_DIGITS = 15;
+    private static final long NOT_DECODED = Long.MIN_VALUE;
+    private static final int INCOME = 1;
+    private static final int MATURITY_PERIOD = 2;
+    private static final int LOAN_VALUE = 4;
+    private static final int HOME_VALUE = 8;
+    private static final InvalidRequestException INCOME_REQUIRED =
+            new InvalidRequestException(MortgageCheckRequest.INCOME_REQUIRED);
+    private static final InvalidRequestException INCOME_NEGATIVE =
+            new InvalidRequestException(MortgageCheckRequest.INCOME_NEGATIVE);
+    private static final InvalidRequestException MATURITY_PERIOD_REQUIRED =
+            new InvalidRequestException(MortgageCheckRequest.MATURITY_PERIOD_REQUIRED);
+    private static final InvalidRequestException MATURITY_PERIOD_TOO_SHORT =
+            new InvalidRequestException(MortgageCheckRequest.MATURITY_PERIOD_TOO_SHORT);
+    private static final InvalidRequestException LOAN_VALUE_REQUIRED =
+            new InvalidRequestException(MortgageCheckRequest.LOAN_VALUE_REQUIRED);
+    private static final InvalidRequestException LOAN_VALUE_NEGATIVE =
+            new InvalidRequestException(MortgageCheckRequest.LOAN_VALUE_NEGATIVE);
+    private static final InvalidRequestException HOME_VALUE_REQUIRED =
+            new InvalidRequestException(MortgageCheckRequest.HOME_VALUE_REQUIRED);
+    private static final InvalidRequestException HOME_VALUE_NEGATIVE =
+            new InvalidRequestException(MortgageCheckRequest.HOME_VALUE_NEGATIVE);
+
+    private final JsonFactory jsonFactory;
+
+    public MortgageCheckRequestDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Decodes and validates the body, or returns null when it has to be read with data binding.
+     *
+     * @param body
+     * @return
+     * @throws InvalidRequestException when a field is missing or out of range
+     */
+    public MortgageCheckCents decode(byte[] body) {
+        long income = 0;
+        int maturityPeriod = 0;
+        long loanValue = 0;
+        long homeValue = 0;
+        int present = 0;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("maturityPeriod".equals(field)) {
+                    if (value == JsonToken.VALUE_NULL) {
+                        present &= ~MATURITY_PERIOD;
+                    } else if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+                        maturityPeriod = parser.getIntValue();
+                        present |= MATURITY_PERIOD;
+                    } else {
+                        return null;
+                    }
+                    continue;
+                }
+                if ("asOf".equals(field)) {
+                    if (value != JsonToken.VALUE_NULL) {
+                        return null;
+                    }
+                    continue;
+                }
+                int flag = switch (field) {
+                    case "income" -> INCOME;
+                    case "loanValue" -> LOAN_VALUE;
+                    case "homeValue" -> HOME_VALUE;
+                    default -> 0;
+                };
+                if (flag == 0) {
+                    return null;
+                }
+                if (value == JsonToken.VALUE_NULL) {
+                    present &= ~flag;
+                    continue;
+                }
+                long cents = value.isNumeric() ? toCents(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()) : NOT_DECODED;
+                if (cents == NOT_DECODED) {
+                    return null;
+                }
+                present |= flag;
+                if (flag == INCOME) {
+                    income = cents;
+                } else if (flag == LOAN_VALUE) {
+                    loanValue = cents;
+                } else {
+                    homeValue = cents;
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        validate(present, income, maturityPeriod, loanValue, homeValue);
+        return new MortgageCheckCents(income, maturityPeriod, loanValue, homeValue);
+    }
+
+    /**
+     * The checks of the annotations, in field order. The exceptions are stackless and thrown as shared instances.
+     */
+    private static void validate(int present, long income, int maturityPeriod, long loanValue, long homeValue) {
+        if ((present & INCOME) == 0) {
+            throw INCOME_REQUIRED;
+        }
+        if (income < 0) {
+            throw INCOME_NEGATIVE;
+        }
+        if ((present & MATURITY_PERIOD) == 0) {
+            throw MATURITY_PERIOD_REQUIRED;
+        }
+        if (maturityPeriod < 1) {
+            throw MATURITY_PERIOD_TOO_SHORT;
+        }
+        if ((present & LOAN_VALUE) == 0) {
+            throw LOAN_VALUE_REQUIRED;
+        }
+        if (loanValue < 0) {
+            throw LOAN_VALUE_NEGATIVE;
+        }
+        if ((present & HOME_VALUE) == 0) {
+            throw HOME_VALUE_REQUIRED;
+        }
+        if (homeValue < 0) {
+            throw HOME_VALUE_NEGATIVE;
+        }
+    }
+
+    /**
+     * Converts the text of a JSON number to cents, or returns NOT_DECODED when it has an exponent, more than two
+     * significant decimals or too many integer digits.
+     */
+    static long toCents(char[] text, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = i < end && text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long cents = 0;
+        int integerDigits = 0;
+        for (; i < end && isDigit(text[i]); i++) {
+            if (++integerDigits > MAX_INTEGER_DIGITS) {
+                return NOT_DECODED;
+            }
+            cents = cents * 10 + (text[i] - '0');
+        }
+        if (integerDigits == 0) {
+            return NOT_DECODED;
+        }
+        cents *= 100;
+        if (i < end && text[i] == '.') {
+            i++;
+            for (int decimals = 1; i < end && isDigit(text[i]); i++, decimals++) {
+                int digit = text[i] - '0';
+                if (decimals == 1) {
+                    cents += digit * 10L;
+                } else if (decimals == 2) {
+                    cents += digit;
+                } else if (digit != 0) {
+                    return NOT_DECODED;
+                }
+            }
+        }
+        if (i != end) {
+            return NOT_DECODED;
+        }
+        return negative ? -cents : cents;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
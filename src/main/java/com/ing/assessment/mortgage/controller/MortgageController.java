@@ -1,52 +1,285 @@
 package com.ing.assessment.mortgage.controller;
 
+import com.ing.assessment.mortgage.dto.AmortizationScheduleRequest;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanRequest;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
 import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
 import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
 import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.service.AmortizationSchedule;
+import com.ing.assessment.mortgage.service.AmortizationScheduleWriter;
+import com.ing.assessment.mortgage.service.InterestRateStreamWriter;
+import com.ing.assessment.mortgage.service.MortgageCheckStreamService;
 import com.ing.assessment.mortgage.service.MortgageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.ing.assessment.mortgage.util.MortgageConstants.DEFAULT_RATE_PAGE_SIZE;
+
 
 /**
- * Handles requests related to Mortgage.
+ * Handles requests related to Mortgage on the servlet stack, the default runtime.
+ * See {@link ReactiveMortgageController} for the reactive runtime.
  */
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MortgageController {
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
     private final MortgageService mortgageService;
+    private final MortgageCheckStreamService mortgageCheckStreamService;
+    private final InterestRatesResponseCache interestRatesResponseCache;
+    private final AmortizationScheduleWriter amortizationScheduleWriter;
+    private final InterestRateStreamWriter interestRateStreamWriter;
 
     /**
-     * Fetch a list of all interest rates.
+     * Fetch a list of all interest rates. The JSON is served from {@link InterestRatesResponseCache},
+     * gzip encoded when the client accepts it, and answered with 304 when the client's ETag still matches.
+     * With asOf, the rates that were in effect at that time are returned; that response is not cached.
+     * Clients that accept application/cbor or application/x-jackson-smile get the cached binary encoding instead.
      *
+     * @param asOf
+     * @param webRequest
      * @return
      */
-    @GetMapping("/interest-rates")
-    public ResponseEntity<List<MortgageRate>> getInterestRates() {
-        log.info("Fetching list of all available interst rates");
-        return ResponseEntity.ok(mortgageService.getAllRates());
+    @GetMapping(value = "/interest-rates",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<byte[]> getInterestRates(@RequestParam(value = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+                                                   WebRequest webRequest) {
+        log.info("Fetching list of all available interest rates");
+        InterestRatesResponseCache.Entry entry;
+        if (asOf == null) {
+            entry = interestRatesResponseCache.get(mortgageService.getAllRates());
+        } else {
+            List<MortgageRate> rates = mortgageService.getAllRates(asOf);
+            entry = interestRatesResponseCache.render(rates);
+        }
+        MediaType mediaType = selectMediaType(webRequest.getHeader(HttpHeaders.ACCEPT),
+                MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+        boolean gzip = mediaType == MediaType.APPLICATION_JSON && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag;
+        if (mediaType == MediaType.APPLICATION_CBOR) {
+            etag = entry.getCborEtag();
+        } else if (mediaType == APPLICATION_SMILE) {
+            etag = entry.getSmileEtag();
+        } else {
+            etag = gzip ? entry.getGzipEtag() : entry.getEtag();
+        }
+
+        if (webRequest.checkNotModified(etag, entry.getLastModified())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (entry.getLastModified() >= 0) {
+            response.lastModified(entry.getLastModified());
+        }
+        if (mediaType == MediaType.APPLICATION_CBOR) {
+            return response.body(entry.getCbor());
+        }
+        if (mediaType == APPLICATION_SMILE) {
+            return response.body(entry.getSmile());
+        }
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.getGzipJson());
+        }
+        return response.body(entry.getJson());
+    }
+
+    /**
+     * Fetch a page of the current interest rates sorted by maturity period, filtered on minMaturity, maxMaturity
+     * and updatedSince. The nextCursor of a page fetches the next one, with the same filters.
+     *
+     * @param filter
+     * @param cursor
+     * @param limit
+     * @return
+     */
+    @GetMapping(value = "/interest-rates/page",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<InterestRatePage> getInterestRatePage(InterestRateFilter filter,
+                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "limit", defaultValue = "" + DEFAULT_RATE_PAGE_SIZE) int limit) {
+        log.info("Fetching page of interest rates - Limit {}", limit);
+        return ResponseEntity.ok(mortgageService.getInterestRatePage(filter, cursor, limit));
+    }
+
+    /**
+     * Streams the current interest rates sorted by maturity period as newline-delimited JSON, one rate per line,
+     * with the same filters as the paged list.
+     *
+     * @param filter
+     * @param response
+     * @throws IOException
+     */
+    @GetMapping(value = "/interest-rates/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamInterestRates(InterestRateFilter filter, HttpServletResponse response) throws IOException {
+        log.info("Streaming interest rates");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        interestRateStreamWriter.writeNdjson(mortgageService.streamInterestRates(filter), response.getOutputStream());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     /**
      * Checks if a mortgage request is feasible based on income, loan value,
      * home value and maturity period.Calculates monthly costs if feasible.
+     * The body is resolved by {@link MortgageCheckArgumentResolver}: plain JSON is decoded into cents, other bodies
+     * are read and validated as {@link MortgageCheckRequest}.
      *
-     * @param request
+     * @param body
      * @return
      */
     @PostMapping("/mortgage-check")
-    public ResponseEntity<MortgageCheckResponse> mortgageCheck(@Valid @RequestBody MortgageCheckRequest request) {
-        log.info("Received request for mortgage check - MaturityPeriod {}, LoanValue {}, HomeValue {}, Income {}",
-                request.getMaturityPeriod(), request.getLoanValue(), request.getHomeValue(), request.getIncome());
+    public ResponseEntity<MortgageCheckResponse> mortgageCheck(MortgageCheckBody body) {
+        MortgageCheckCents cents = body.cents();
+        if (cents != null) {
+            if (log.isInfoEnabled()) {
+                logMortgageCheck(cents.maturityPeriod(), BigDecimal.valueOf(cents.loanValueCents(), 2),
+                        BigDecimal.valueOf(cents.homeValueCents(), 2), BigDecimal.valueOf(cents.incomeCents(), 2));
+            }
+            return ResponseEntity.ok(mortgageService.checkMortgage(cents));
+        }
+        MortgageCheckRequest request = body.request();
+        logMortgageCheck(request.getMaturityPeriod(), request.getLoanValue(), request.getHomeValue(), request.getIncome());
         return ResponseEntity.ok(mortgageService.checkMortgage(request));
     }
+
+    private static void logMortgageCheck(Integer maturityPeriod, BigDecimal loanValue, BigDecimal homeValue, BigDecimal income) {
+        log.info("Received request for mortgage check - MaturityPeriod {}, LoanValue {}, HomeValue {}, Income {}",
+                maturityPeriod, loanValue, homeValue, income);
+    }
+
+    /**
+     * Calculates the maximum feasible loan and its monthly costs for an income, home value and maturity period,
+     * optionally limited by a maximum monthly payment.
+     *
+     * @param request
+     * @return
+     */
+    @PostMapping("/max-loan")
+    public ResponseEntity<MaxLoanResponse> maxLoan(@Valid @RequestBody MaxLoanRequest request) {
+        log.info("Received request for maximum loan - MaturityPeriod {}, HomeValue {}, Income {}, MaxMonthlyPayment {}",
+                request.getMaturityPeriod(), request.getHomeValue(), request.getIncome(), request.getMaxMonthlyPayment());
+        return ResponseEntity.ok(mortgageService.getMaxLoan(request));
+    }
+
+    /**
+     * Checks a batch of mortgage requests in one call. Items are validated one by one,
+     * so an invalid item is reported in its own result instead of rejecting the batch.
+     *
+     * @param requests
+     * @return
+     */
+    @PostMapping("/mortgage-check/batch")
+    public ResponseEntity<List<MortgageCheckBatchItem>> mortgageCheckBatch(@RequestBody List<MortgageCheckRequest> requests) {
+        log.info("Received batch request for mortgage check - Size {}", requests.size());
+        return ResponseEntity.ok(mortgageService.checkMortgages(requests));
+    }
+
+    /**
+     * Checks newline-delimited JSON mortgage requests and streams one NDJSON result per request
+     * while the input is still being read.
+     *
+     * @param request
+     * @param response
+     * @throws IOException
+     */
+    @PostMapping(value = "/mortgage-check/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void mortgageCheckStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Received streaming request for mortgage check");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        mortgageCheckStreamService.process(request.getInputStream(), response.getOutputStream());
+    }
+
+    /**
+     * Streams the month by month amortization schedule of a loan, as a JSON array or as CSV when the client
+     * prefers text/csv. The rate and monthly payment are the same as for the mortgage check.
+     *
+     * @param request
+     * @param accept
+     * @param response
+     * @throws IOException
+     */
+    @PostMapping(value = "/amortization-schedule", produces = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    public void amortizationSchedule(@Valid @RequestBody AmortizationScheduleRequest request,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                     HttpServletResponse response) throws IOException {
+        log.info("Received request for amortization schedule - MaturityPeriod {}, LoanValue {}",
+                request.getMaturityPeriod(), request.getLoanValue());
+        AmortizationSchedule schedule = mortgageService.getAmortizationSchedule(request);
+        if (selectMediaType(accept, MediaType.APPLICATION_JSON, TEXT_CSV) == TEXT_CSV) {
+            response.setContentType(TEXT_CSV_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            amortizationScheduleWriter.writeCsv(schedule, response.getOutputStream());
+        } else {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            amortizationScheduleWriter.writeJson(schedule, response.getOutputStream());
+        }
+    }
+
+    /**
+     * Returns the first of the producible media types that the most specific accepted type is compatible with,
+     * the first producible type when nothing matches or there is no Accept header.
+     */
+    static MediaType selectMediaType(String accept, MediaType... producible) {
+        if (accept == null) {
+            return producible[0];
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            for (MediaType candidate : producible) {
+                if (mediaType.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return producible[0];
+    }
 }
\ No newline at end of file
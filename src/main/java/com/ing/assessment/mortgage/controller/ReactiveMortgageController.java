@@ -0,0 +1,366 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ing.assessment.mortgage.dto.AmortizationRow;
+import com.ing.assessment.mortgage.dto.AmortizationScheduleRequest;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanRequest;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+import com.ing.assessment.mortgage.service.AmortizationSchedule;
+import com.ing.assessment.mortgage.service.AmortizationScheduleWriter;
+import com.ing.assessment.mortgage.service.MortgageCheckStreamService;
+import com.ing.assessment.mortgage.service.MortgageService;
+import com.ing.assessment.mortgage.util.ValidationErrors;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static com.ing.assessment.mortgage.controller.MortgageController.APPLICATION_SMILE;
+import static com.ing.assessment.mortgage.controller.MortgageController.APPLICATION_SMILE_VALUE;
+import static com.ing.assessment.mortgage.controller.MortgageController.TEXT_CSV;
+import static com.ing.assessment.mortgage.controller.MortgageController.TEXT_CSV_VALUE;
+import static com.ing.assessment.mortgage.controller.MortgageController.acceptsGzip;
+import static com.ing.assessment.mortgage.controller.MortgageController.selectMediaType;
+import static com.ing.assessment.mortgage.util.MortgageConstants.DEFAULT_RATE_PAGE_SIZE;
+
+/**
+ * Handles requests related to Mortgage on the reactive runtime (spring.main.web-application-type=reactive), with the
+ * same endpoints, responses and errors as {@link MortgageController} and the same {@link MortgageService}.
+ * Requests are served on the Netty event loop. The service works on the in-memory rate snapshot, only the jdbc
+ * repository can block on a reload of expired rates, so with mortgage.rates.repository=jdbc the service calls run on
+ * the bounded elastic scheduler instead.
+ */
+@RestController
+@RequestMapping("/api")
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMortgageController {
+    private static final MediaType TEXT_CSV_UTF8 = new MediaType(TEXT_CSV, StandardCharsets.UTF_8);
+    private static final byte JSON_ARRAY_START = '[';
+    private static final byte JSON_ARRAY_SEPARATOR = ',';
+    private static final byte JSON_ARRAY_END = ']';
+
+    private final MortgageService mortgageService;
+    private final MortgageCheckStreamService mortgageCheckStreamService;
+    private final InterestRatesResponseCache interestRatesResponseCache;
+    private final AmortizationScheduleWriter amortizationScheduleWriter;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final MortgageCheckRequestDecoder decoder;
+    private final Validator validator;
+    private final Scheduler scheduler;
+
+    public ReactiveMortgageController(MortgageService mortgageService,
+                                      MortgageCheckStreamService mortgageCheckStreamService,
+                                      InterestRatesResponseCache interestRatesResponseCache,
+                                      AmortizationScheduleWriter amortizationScheduleWriter,
+                                      ObjectMapper objectMapper,
+                                      Validator validator,
+                                      @Value("${mortgage.rates.repository:csv}") String repository) {
+        this.mortgageService = mortgageService;
+        this.mortgageCheckStreamService = mortgageCheckStreamService;
+        this.interestRatesResponseCache = interestRatesResponseCache;
+        this.amortizationScheduleWriter = amortizationScheduleWriter;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(AmortizationRow.class);
+        this.decoder = new MortgageCheckRequestDecoder(objectMapper.getFactory());
+        this.validator = validator;
+        this.scheduler = "jdbc".equals(repository) ? Schedulers.boundedElastic() : Schedulers.immediate();
+    }
+
+    /**
+     * Fetch a list of all interest rates, see {@link MortgageController#getInterestRates}.
+     *
+     * @param asOf
+     * @param exchange
+     * @return
+     */
+    @GetMapping(value = "/interest-rates",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<byte[]>> getInterestRates(@RequestParam(value = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+                                                         ServerWebExchange exchange) {
+        return call(() -> {
+            log.info("Fetching list of all available interest rates");
+            if (asOf == null) {
+                return interestRatesResponseCache.get(mortgageService.getAllRates());
+            }
+            List<MortgageRate> rates = mortgageService.getAllRates(asOf);
+            return interestRatesResponseCache.render(rates);
+        }).flatMap(entry -> {
+            HttpHeaders headers = exchange.getRequest().getHeaders();
+            MediaType mediaType = selectMediaType(headers.getFirst(HttpHeaders.ACCEPT),
+                    MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+            boolean gzip = mediaType == MediaType.APPLICATION_JSON && acceptsGzip(headers.getFirst(HttpHeaders.ACCEPT_ENCODING));
+            String etag;
+            if (mediaType == MediaType.APPLICATION_CBOR) {
+                etag = entry.getCborEtag();
+            } else if (mediaType == APPLICATION_SMILE) {
+                etag = entry.getSmileEtag();
+            } else {
+                etag = gzip ? entry.getGzipEtag() : entry.getEtag();
+            }
+
+            boolean notModified = entry.getLastModified() >= 0
+                    ? exchange.checkNotModified(etag, Instant.ofEpochMilli(entry.getLastModified()))
+                    : exchange.checkNotModified(etag);
+            if (notModified) {
+                return Mono.empty();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (entry.getLastModified() >= 0) {
+                response.lastModified(entry.getLastModified());
+            }
+            if (mediaType == MediaType.APPLICATION_CBOR) {
+                return Mono.just(response.body(entry.getCbor()));
+            }
+            if (mediaType == APPLICATION_SMILE) {
+                return Mono.just(response.body(entry.getSmile()));
+            }
+            if (gzip) {
+                return Mono.just(response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.getGzipJson()));
+            }
+            return Mono.just(response.body(entry.getJson()));
+        });
+    }
+
+    /**
+     * Fetch a page of the current interest rates, see {@link MortgageController#getInterestRatePage}.
+     *
+     * @param filter
+     * @param cursor
+     * @param limit
+     * @return
+     */
+    @GetMapping(value = "/interest-rates/page",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<InterestRatePage>> getInterestRatePage(InterestRateFilter filter,
+                                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "limit", defaultValue = "" + DEFAULT_RATE_PAGE_SIZE) int limit) {
+        return call(() -> {
+            log.info("Fetching page of interest rates - Limit {}", limit);
+            return ResponseEntity.ok(mortgageService.getInterestRatePage(filter, cursor, limit));
+        });
+    }
+
+    /**
+     * Streams the current interest rates as newline-delimited JSON, one rate per line, with the same filters as
+     * the paged list. The rates are encoded as the client reads them.
+     *
+     * @param filter
+     * @return
+     */
+    @GetMapping(value = "/interest-rates/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MortgageRate> streamInterestRates(InterestRateFilter filter) {
+        return Flux.fromStream(() -> {
+            log.info("Streaming interest rates");
+            return mortgageService.streamInterestRates(filter);
+        }).subscribeOn(scheduler);
+    }
+
+    /**
+     * Checks if a mortgage request is feasible, see {@link MortgageController#mortgageCheck}. A UTF-8 JSON body is
+     * decoded into cents by {@link MortgageCheckRequestDecoder}; a body it does not decode is read and validated as
+     * {@link MortgageCheckRequest}, with the message of the first violation as error.
+     *
+     * @param body
+     * @param contentType
+     * @return
+     */
+    @PostMapping(value = "/mortgage-check", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<MortgageCheckResponse>> mortgageCheckJson(@RequestBody byte[] body,
+                                                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return call(() -> {
+            MortgageCheckCents cents = MortgageCheckArgumentResolver.isUtf8Json(contentType) ? decoder.decode(body) : null;
+            if (cents != null) {
+                if (log.isInfoEnabled()) {
+                    logMortgageCheck(cents.maturityPeriod(), BigDecimal.valueOf(cents.loanValueCents(), 2),
+                            BigDecimal.valueOf(cents.homeValueCents(), 2), BigDecimal.valueOf(cents.incomeCents(), 2));
+                }
+                return ResponseEntity.ok(mortgageService.checkMortgage(cents));
+            }
+            return checkMortgage(readRequest(body, contentType));
+        });
+    }
+
+    /**
+     * Checks if a mortgage request in another format than JSON (CBOR, Smile) is feasible.
+     *
+     * @param request
+     * @return
+     */
+    @PostMapping("/mortgage-check")
+    public Mono<ResponseEntity<MortgageCheckResponse>> mortgageCheck(@Valid @RequestBody MortgageCheckRequest request) {
+        return call(() -> checkMortgage(request));
+    }
+
+    private ResponseEntity<MortgageCheckResponse> checkMortgage(MortgageCheckRequest request) {
+        logMortgageCheck(request.getMaturityPeriod(), request.getLoanValue(), request.getHomeValue(), request.getIncome());
+        return ResponseEntity.ok(mortgageService.checkMortgage(request));
+    }
+
+    private MortgageCheckRequest readRequest(byte[] body, String contentType) throws IOException {
+        Charset charset = MediaType.parseMediaType(contentType).getCharset();
+        MortgageCheckRequest request;
+        try {
+            request = charset == null || StandardCharsets.UTF_8.equals(charset)
+                    ? objectMapper.readValue(body, MortgageCheckRequest.class)
+                    : objectMapper.readValue(new String(body, charset), MortgageCheckRequest.class);
+        } catch (JsonProcessingException e) {
+//            reported like a body the codecs could not decode
+            throw new ServerWebInputException("Failed to read HTTP message", null, e);
+        }
+        Set<ConstraintViolation<MortgageCheckRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(ValidationErrors.firstMessage(violations));
+        }
+        return request;
+    }
+
+    private static void logMortgageCheck(Integer maturityPeriod, BigDecimal loanValue, BigDecimal homeValue, BigDecimal income) {
+        log.info("Received request for mortgage check - MaturityPeriod {}, LoanValue {}, HomeValue {}, Income {}",
+                maturityPeriod, loanValue, homeValue, income);
+    }
+
+    /**
+     * Calculates the maximum feasible loan and its monthly costs, see {@link MortgageController#maxLoan}.
+     *
+     * @param request
+     * @return
+     */
+    @PostMapping("/max-loan")
+    public Mono<ResponseEntity<MaxLoanResponse>> maxLoan(@Valid @RequestBody MaxLoanRequest request) {
+        return call(() -> {
+            log.info("Received request for maximum loan - MaturityPeriod {}, HomeValue {}, Income {}, MaxMonthlyPayment {}",
+                    request.getMaturityPeriod(), request.getHomeValue(), request.getIncome(), request.getMaxMonthlyPayment());
+            return ResponseEntity.ok(mortgageService.getMaxLoan(request));
+        });
+    }
+
+    /**
+     * Checks a batch of mortgage requests in one call, see {@link MortgageController#mortgageCheckBatch}.
+     *
+     * @param requests
+     * @return
+     */
+    @PostMapping("/mortgage-check/batch")
+    public Mono<ResponseEntity<List<MortgageCheckBatchItem>>> mortgageCheckBatch(@RequestBody List<MortgageCheckRequest> requests) {
+        return call(() -> {
+            log.info("Received batch request for mortgage check - Size {}", requests.size());
+            return ResponseEntity.ok(mortgageService.checkMortgages(requests));
+        });
+    }
+
+    /**
+     * Checks newline-delimited JSON mortgage requests and streams one NDJSON result per request while the input is
+     * still being read. Lines are requested from the client as the results are written (back-pressure).
+     *
+     * @param lines
+     * @return
+     */
+    @PostMapping(value = "/mortgage-check/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MortgageCheckBatchItem> mortgageCheckStream(@RequestBody(required = false) Flux<String> lines) {
+        log.info("Received streaming request for mortgage check");
+        return lines.filter(line -> !line.isBlank())
+                .index()
+                .publishOn(scheduler)
+                .map(line -> mortgageCheckStreamService.checkLine(line.getT1(), line.getT2()));
+    }
+
+    /**
+     * Streams the month by month amortization schedule of a loan as a JSON array, or as CSV when the client prefers
+     * text/csv, see {@link MortgageController#amortizationSchedule}. The rows are calculated as the client reads them.
+     *
+     * @param request
+     * @param accept
+     * @param response
+     * @return
+     */
+    @PostMapping(value = "/amortization-schedule", produces = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> amortizationSchedule(@Valid @RequestBody AmortizationScheduleRequest request,
+                                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                       ServerHttpResponse response) {
+        return call(() -> {
+            log.info("Received request for amortization schedule - MaturityPeriod {}, LoanValue {}",
+                    request.getMaturityPeriod(), request.getLoanValue());
+            AmortizationSchedule schedule = mortgageService.getAmortizationSchedule(request);
+            DataBufferFactory bufferFactory = response.bufferFactory();
+            if (selectMediaType(accept, MediaType.APPLICATION_JSON, TEXT_CSV) == TEXT_CSV) {
+                return ResponseEntity.ok().contentType(TEXT_CSV_UTF8).body(csvRows(schedule, bufferFactory));
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(jsonRows(schedule, bufferFactory));
+        });
+    }
+
+    private Flux<DataBuffer> csvRows(AmortizationSchedule schedule, DataBufferFactory bufferFactory) {
+        return Flux.fromIterable(schedule)
+                .map(amortizationScheduleWriter::toCsvLine)
+                .startWith(AmortizationScheduleWriter.CSV_HEADER + "\n")
+                .map(line -> bufferFactory.wrap(line.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Flux<DataBuffer> jsonRows(AmortizationSchedule schedule, DataBufferFactory bufferFactory) {
+        return Flux.fromIterable(schedule)
+                .index()
+                .<DataBuffer>handle((row, sink) -> {
+                    try {
+                        byte[] json = rowWriter.writeValueAsBytes(row.getT2());
+                        sink.next(bufferFactory.allocateBuffer(json.length + 1)
+                                .write(row.getT1() == 0 ? JSON_ARRAY_START : JSON_ARRAY_SEPARATOR)
+                                .write(json));
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
+                    }
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.allocateBuffer(1).write(JSON_ARRAY_START)))
+                .concatWith(Mono.fromSupplier(() -> bufferFactory.allocateBuffer(1).write(JSON_ARRAY_END)));
+    }
+
+    /**
+     * Runs a service call on the scheduler, a null result completes empty and exceptions go to the exception handler.
+     */
+    private <T> Mono<T> call(Callable<T> serviceCall) {
+        return Mono.fromCallable(serviceCall).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ing.assessment.mortgage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class AmortizationRow {
+    private int month;
+    private BigDecimal payment;
+    private BigDecimal interest;
+    private BigDecimal principal;
+    private BigDecimal remainingBalance;
+}
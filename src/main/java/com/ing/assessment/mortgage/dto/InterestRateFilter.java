@@ -0,0 +1,22 @@
+package com.ing.assessment.mortgage.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters on the interest rate list, bound from the query parameters. The maturity range is inclusive.
+ */
+@Data
+public class InterestRateFilter {
+    private Integer minMaturity;
+
+    private Integer maxMaturity;
+
+    /**
+     * Only rates with a lastUpdate at or after this time.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedSince;
+}
@@ -0,0 +1,18 @@
+package com.ing.assessment.mortgage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of interest rates sorted by maturity period. nextCursor is only set when there are more rates.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InterestRatePage {
+    private List<MortgageRate> rates;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.ing.assessment.mortgage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class MaxLoanResponse {
+    private BigDecimal maxLoanValue;
+    private BigDecimal monthlyCosts;
+    /**
+     * The rule that limits the loan: income, home-value or monthly-payment.
+     */
+    private String limitedBy;
+    /**
+     * Whether the rate was quoted or interpolated.
+     */
+    private String rateSource;
+}
@@ -0,0 +1,17 @@
+package com.ing.assessment.mortgage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Result of one request in a batch mortgage check. Either result or error is set.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MortgageCheckBatchItem {
+    private long index;
+    private MortgageCheckResponse result;
+    private ErrorResponse error;
+}
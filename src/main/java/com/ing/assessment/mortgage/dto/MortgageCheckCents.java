@@ -0,0 +1,8 @@
+package com.ing.assessment.mortgage.dto;
+
+/**
+ * A mortgage check with the amounts in whole cents, decoded from a plain JSON request without BigDecimal.
+ * It carries no asOf, such requests are read as {@link MortgageCheckRequest}.
+ */
+public record MortgageCheckCents(long incomeCents, int maturityPeriod, long loanValueCents, long homeValueCents) {
+}
@@ -5,22 +5,40 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
+/**
+ * The validation messages are constants, as the same rules are applied inline to {@link MortgageCheckCents}.
+ */
 @Data
 public class MortgageCheckRequest {
-    @NotNull(message = "Income is required")
-    @Min(value = 0, message = "Income cannot be negative")
+    public static final String INCOME_REQUIRED = "Income is required";
+    public static final String INCOME_NEGATIVE = "Income cannot be negative";
+    public static final String MATURITY_PERIOD_REQUIRED = "Maturity period is required";
+    public static final String MATURITY_PERIOD_TOO_SHORT = "Maturity period must be at least 1 year";
+    public static final String LOAN_VALUE_REQUIRED = "Loan value is required";
+    public static final String LOAN_VALUE_NEGATIVE = "Loan value cannot be negative";
+    public static final String HOME_VALUE_REQUIRED = "Home value is required";
+    public static final String HOME_VALUE_NEGATIVE = "Home value cannot be negative";
+
+    @NotNull(message = INCOME_REQUIRED)
+    @Min(value = 0, message = INCOME_NEGATIVE)
     private BigDecimal income;
 
-    @NotNull(message = "Maturity period is required")
-    @Min(value = 1, message = "Maturity period must be at least 1 year")
+    @NotNull(message = MATURITY_PERIOD_REQUIRED)
+    @Min(value = 1, message = MATURITY_PERIOD_TOO_SHORT)
     private Integer maturityPeriod;
 
-    @NotNull(message = "Loan value is required")
-    @Min(value = 0, message = "Loan value cannot be negative")
+    @NotNull(message = LOAN_VALUE_REQUIRED)
+    @Min(value = 0, message = LOAN_VALUE_NEGATIVE)
     private BigDecimal loanValue;
 
-    @NotNull(message = "Home value is required")
-    @Min(value = 0, message = "Home value cannot be negative")
+    @NotNull(message = HOME_VALUE_REQUIRED)
+    @Min(value = 0, message = HOME_VALUE_NEGATIVE)
     private BigDecimal homeValue;
+
+    /**
+     * Optional, checks against the rate that was in effect at this time instead of the current rate.
+     */
+    private LocalDateTime asOf;
 }
\ No newline at end of file
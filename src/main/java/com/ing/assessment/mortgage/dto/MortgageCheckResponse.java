@@ -1,5 +1,6 @@
 package com.ing.assessment.mortgage.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -7,7 +8,16 @@ import java.math.BigDecimal;
 
 @Data
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class MortgageCheckResponse {
     private boolean feasible;
     private BigDecimal monthlyCosts;
+    /**
+     * Whether the rate was quoted or interpolated, not set when the check did not need a rate.
+     */
+    private String rateSource;
+
+    public MortgageCheckResponse(boolean feasible, BigDecimal monthlyCosts) {
+        this(feasible, monthlyCosts, null);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.ing.assessment.mortgage.exception;
 
+/**
+ * No rate for the requested maturity period, answered with 404. It is an expected outcome of a request, so it has
+ * no stack trace: throwing it does not walk the stack, and one instance can be thrown again.
+ */
 public class DataNotAvailableException extends RuntimeException {
     public DataNotAvailableException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
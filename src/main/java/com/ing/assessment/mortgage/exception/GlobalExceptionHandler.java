@@ -1,20 +1,60 @@
 package com.ing.assessment.mortgage.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.ing.assessment.mortgage.dto.ErrorResponse;
-import jakarta.servlet.http.HttpServletRequest;
+import com.ing.assessment.mortgage.util.ValidationErrors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.HttpMediaTypeException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.ServletRequestBindingException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.servlet.NoHandlerFoundException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps exceptions to error responses for both runtimes. The handlers only take the exception, so the same advice
+ * serves the servlet and the reactive controller; the reactive binding exceptions are mapped like their servlet
+ * counterparts.
+ * Expected failures of a request, a missing rate or an invalid request, are stackless and counted by
+ * {@link SampledErrorLog}. Malformed bodies and the Spring web exceptions of a bad request, such as an unsupported
+ * media type or a missing parameter, are counted the same way and answered with their 4xx status and a fixed message,
+ * whose response body is pre-built; only unexpected exceptions are logged one by one with their stack trace.
+ */
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private static final String UNEXPECTED_ERROR = "An unexpected error occurred";
+    private static final String MALFORMED_REQUEST = "Malformed request";
+
+    private final SampledErrorLog sampledErrorLog;
+    private final PrebuiltErrorResponse malformedRequest =
+            new PrebuiltErrorResponse(MALFORMED_REQUEST, HttpStatus.BAD_REQUEST.value());
+    private final ConcurrentMap<Integer, PrebuiltErrorResponse> clientErrors = new ConcurrentHashMap<>();
 
     @ExceptionHandler(CsvLoadException.class)
-    public ResponseEntity<ErrorResponse> handleCsvLoadException(CsvLoadException ex, HttpServletRequest request) {
+    public ResponseEntity<ErrorResponse> handleCsvLoadException(CsvLoadException ex) {
         log.error("Error loading Mortgage Rate CSV{}", ex.getMessage(), ex);
         ErrorResponse error = new ErrorResponse(
                 ex.getMessage(),
@@ -25,8 +65,8 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(DataNotAvailableException.class)
-    public ResponseEntity<ErrorResponse> handleDataNotAvailableException(DataNotAvailableException ex, HttpServletRequest request) {
-        log.error("Data not available{}", ex.getMessage(), ex);
+    public ResponseEntity<ErrorResponse> handleDataNotAvailableException(DataNotAvailableException ex) {
+        sampledErrorLog.record(ex);
         ErrorResponse error = new ErrorResponse(
                 ex.getMessage(),
                 HttpStatus.NOT_FOUND.value(),
@@ -35,12 +75,110 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException ex) {
+        sampledErrorLog.record(ex);
+        ErrorResponse error = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                System.currentTimeMillis()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
-        String errorMessage = ex.getBindingResult().getAllErrors().get(0).getDefaultMessage();
+        return badRequest(validationMessage(ex.getBindingResult()));
+    }
+
+    /**
+     * Reactive counterpart of {@link MethodArgumentNotValidException}.
+     *
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return badRequest(validationMessage(ex.getBindingResult()));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleMessageNotReadableException(HttpMessageNotReadableException ex) {
+        return malformedRequest(ex);
+    }
+
+    /**
+     * Spring web exceptions of a request the application cannot serve, answered with the status of the exception and
+     * its reason phrase, plus its headers such as Allow or Accept. Those with a 5xx status are unexpected errors.
+     *
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler({HttpMediaTypeException.class, HttpRequestMethodNotSupportedException.class,
+            ServletRequestBindingException.class, NoHandlerFoundException.class, NoResourceFoundException.class,
+            ErrorResponseException.class})
+    public ResponseEntity<ErrorResponse> handleClientErrorException(Exception ex) {
+        if (!(ex instanceof org.springframework.web.ErrorResponse errorResponse)
+                || !errorResponse.getStatusCode().is4xxClientError()) {
+            return handleGenericException(ex);
+        }
+        sampledErrorLog.record(ex);
+        HttpStatusCode status = errorResponse.getStatusCode();
+        ErrorResponse error = clientErrors
+                .computeIfAbsent(status.value(), code -> new PrebuiltErrorResponse(reasonPhrase(status), code))
+                .get();
+        return ResponseEntity.status(status).headers(errorResponse.getHeaders()).body(error);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        return badRequest("Invalid value for parameter " + ex.getName());
+    }
+
+    /**
+     * Reactive request input errors. A request parameter of the wrong type is mapped like
+     * {@link MethodArgumentTypeMismatchException}, a body that cannot be decoded like
+     * {@link HttpMessageNotReadableException} and all others as client errors.
+     *
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex) {
+        MethodParameter parameter = ex.getMethodParameter();
+        if (ex.getCause() instanceof TypeMismatchException && parameter != null) {
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            String name = requestParam != null && !requestParam.name().isEmpty()
+                    ? requestParam.name()
+                    : parameter.getParameterName();
+            return badRequest("Invalid value for parameter " + name);
+        }
+        if (ex.getCause() instanceof DecodingException || ex.getCause() instanceof JsonProcessingException) {
+            return malformedRequest(ex);
+        }
+        return handleClientErrorException(ex);
+    }
+
+    private ResponseEntity<ErrorResponse> malformedRequest(Exception ex) {
+        sampledErrorLog.record(ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(malformedRequest.get());
+    }
+
+    private static String reasonPhrase(HttpStatusCode status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status.value());
+        return httpStatus != null ? httpStatus.getReasonPhrase() : "Client error";
+    }
+
+    private static String validationMessage(BindingResult bindingResult) {
+        ObjectError objectError = ValidationErrors.firstError(bindingResult);
+        return objectError instanceof FieldError fieldError && fieldError.isBindingFailure()
+                ? "Invalid value for parameter " + fieldError.getField()
+                : objectError.getDefaultMessage();
+    }
+
+    private static ResponseEntity<ErrorResponse> badRequest(String message) {
         ErrorResponse error = new ErrorResponse(
-                errorMessage,
+                message,
                 HttpStatus.BAD_REQUEST.value(),
                 System.currentTimeMillis()
         );
@@ -49,14 +187,38 @@ public class GlobalExceptionHandler {
 
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, HttpServletRequest request) {
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
         ErrorResponse error = new ErrorResponse(
-                "An unexpected error occurred",
+                UNEXPECTED_ERROR,
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 System.currentTimeMillis()
         );
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    /**
+     * Error response with a fixed message, built once per second and shared by the requests answered in that second;
+     * its timestamp is the start of the second.
+     */
+    private static final class PrebuiltErrorResponse {
+        private final String message;
+        private final int status;
+        private volatile ErrorResponse current;
+
+        private PrebuiltErrorResponse(String message, int status) {
+            this.message = message;
+            this.status = status;
+        }
+
+        ErrorResponse get() {
+            long second = System.currentTimeMillis() / 1000 * 1000;
+            ErrorResponse response = current;
+            if (response == null || response.getTimestamp() != second) {
+                response = new ErrorResponse(message, status, second);
+                current = response;
+            }
+            return response;
+        }
+    }
 }
\ No newline at end of file
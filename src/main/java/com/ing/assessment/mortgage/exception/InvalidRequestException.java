@@ -0,0 +1,11 @@
+package com.ing.assessment.mortgage.exception;
+
+/**
+ * A request that breaks a validation rule, answered with 400. Like {@link DataNotAvailableException} it has no
+ * stack trace, so the fixed validation failures are thrown as shared instances.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message, null, false, false);
+    }
+}
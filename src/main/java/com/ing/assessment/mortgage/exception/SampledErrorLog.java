@@ -0,0 +1,99 @@
+package com.ing.assessment.mortgage.exception;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs expected failures, such as checks for a maturity period without a rate, by count instead of one line each.
+ * The first failure of each exception type in an interval of api.errors.log-interval is logged with its message;
+ * the failures are counted per type and the counts are logged as one line by the first failure after the interval.
+ * A client repeating a bad request so costs a counter increment per request instead of a log line.
+ * Recording takes no lock: counts are LongAdders and the interval is moved on with compareAndSet.
+ */
+@Component
+@Slf4j
+public class SampledErrorLog {
+    private final long intervalNanos;
+    private final Ticker ticker;
+    private final AtomicLong intervalStart;
+    private final ConcurrentMap<Class<?>, Count> counts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SampledErrorLog(@Value("${api.errors.log-interval:60s}") Duration interval) {
+        this(interval, Ticker.systemTicker());
+    }
+
+    SampledErrorLog(Duration interval, Ticker ticker) {
+        this.intervalNanos = interval.toNanos();
+        this.ticker = ticker;
+        this.intervalStart = new AtomicLong(ticker.read());
+    }
+
+    /**
+     * Counts the failure, logs its message when it is the first of its type in the interval and logs the counts of
+     * the previous interval when it has ended.
+     *
+     * @param ex
+     */
+    public void record(Exception ex) {
+        long now = ticker.read();
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            logCounts(now - start);
+        }
+        Count count = counts.computeIfAbsent(ex.getClass(), type -> new Count());
+        count.failures.increment();
+        if (!count.sampled.get() && count.sampled.compareAndSet(false, true)) {
+            log.warn("{}: {} (further ones are counted and logged every {} s)", ex.getClass().getSimpleName(),
+                    ex.getMessage(), TimeUnit.NANOSECONDS.toSeconds(intervalNanos));
+        }
+    }
+
+    /**
+     * Failures per exception type in the current interval, sorted by type.
+     *
+     * @return
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((type, count) -> {
+            long failures = count.failures.sum();
+            if (failures > 0) {
+                result.put(type.getSimpleName(), failures);
+            }
+        });
+        return result;
+    }
+
+    private void logCounts(long elapsedNanos) {
+        Map<String, Long> failures = new TreeMap<>();
+        counts.forEach((type, count) -> {
+            long sum = count.failures.sumThenReset();
+            count.sampled.set(false);
+            if (sum > 0) {
+                failures.put(type.getSimpleName(), sum);
+            }
+        });
+        if (!failures.isEmpty()) {
+            log.warn("Failures in the last {} s: {}", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), failures);
+        }
+    }
+
+    private static final class Count {
+        private final LongAdder failures = new LongAdder();
+        private final AtomicBoolean sampled = new AtomicBoolean();
+    }
+}
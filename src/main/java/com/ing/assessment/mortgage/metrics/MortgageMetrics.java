@@ -0,0 +1,131 @@
+package com.ing.assessment.mortgage.metrics;
+
+import com.ing.assessment.mortgage.repo.MortgageRateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_TAGGED_MATURITY_PERIOD;
+
+/**
+ * Micrometer meters for mortgage checks and rate lookups.
+ * Maturity periods come from the request, so only periods up to {@code MAX_TAGGED_MATURITY_PERIOD} get their own tag
+ * value, the rest are tagged "other" to keep the number of time series bounded.
+ */
+@Component
+public class MortgageMetrics {
+    public static final String CHECK_TIMER = "mortgage.check";
+    public static final String ALL_RATES_TIMER = "mortgage.rates.all";
+    public static final String RATE_LOOKUP_MISS_COUNTER = "mortgage.rates.lookup.miss";
+    public static final String RATE_TABLE_SIZE_GAUGE = "mortgage.rates.size";
+    public static final String SNAPSHOT_AGE_GAUGE = "mortgage.rates.snapshot.age";
+    public static final String CHECK_CACHE = "mortgage.check";
+    public static final String CHECK_CACHE_HIT_RATIO_GAUGE = "mortgage.check.cache.hit.ratio";
+    public static final String OTHER_MATURITY_PERIOD = "other";
+
+    /**
+     * Result of a mortgage check, used as the outcome tag.
+     */
+    public enum Outcome {
+        FEASIBLE("feasible"),
+        INFEASIBLE_INCOME("infeasible-income"),
+        INFEASIBLE_VALUE("infeasible-value"),
+        NO_RATE("no-rate"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Timer allRatesTimer;
+    private final Timer[][] checkTimers = new Timer[MAX_TAGGED_MATURITY_PERIOD + 1][Outcome.values().length];
+    private final Counter[] lookupMissCounters = new Counter[MAX_TAGGED_MATURITY_PERIOD + 1];
+
+    public MortgageMetrics(MeterRegistry meterRegistry, MortgageRateRepository mortgageRateRepository) {
+        this.meterRegistry = meterRegistry;
+        this.allRatesTimer = Timer.builder(ALL_RATES_TIMER)
+                .description("Time to fetch all mortgage rates")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder(RATE_TABLE_SIZE_GAUGE, mortgageRateRepository, repository -> repository.getSnapshot().size())
+                .description("Number of rows in the current mortgage rate snapshot")
+                .register(meterRegistry);
+        Gauge.builder(SNAPSHOT_AGE_GAUGE, mortgageRateRepository,
+                        repository -> Duration.between(repository.getSnapshot().getLoadedAt(), Instant.now()).toMillis() / 1000.0)
+                .description("Age of the current mortgage rate snapshot")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the duration of one mortgage check.
+     *
+     * @param maturityPeriod
+     * @param outcome
+     * @param nanos
+     */
+    public void recordCheck(Integer maturityPeriod, Outcome outcome, long nanos) {
+        int slot = slot(maturityPeriod);
+        Timer timer = checkTimers[slot][outcome.ordinal()];
+        if (timer == null) {
+            timer = Timer.builder(CHECK_TIMER)
+                    .description("Time to check a mortgage request")
+                    .tag("maturity.period", tagValue(slot))
+                    .tag("outcome", outcome.getTag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            checkTimers[slot][outcome.ordinal()] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAllRates(long nanos) {
+        allRatesTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a rate lookup that found no rate and ends in a DataNotAvailableException.
+     *
+     * @param maturityPeriod
+     */
+    public void rateLookupMiss(Integer maturityPeriod) {
+        int slot = slot(maturityPeriod);
+        Counter counter = lookupMissCounters[slot];
+        if (counter == null) {
+            counter = Counter.builder(RATE_LOOKUP_MISS_COUNTER)
+                    .description("Rate lookups without a rate for the maturity period")
+                    .tag("maturity.period", tagValue(slot))
+                    .register(meterRegistry);
+            lookupMissCounters[slot] = counter;
+        }
+        counter.increment();
+    }
+
+    /**
+     * Slot 0 collects all periods that are not tagged individually.
+     */
+    private static int slot(Integer maturityPeriod) {
+        if (maturityPeriod == null || maturityPeriod < 1 || maturityPeriod > MAX_TAGGED_MATURITY_PERIOD) {
+            return 0;
+        }
+        return maturityPeriod;
+    }
+
+    private static String tagValue(int slot) {
+        return slot == 0 ? OTHER_MATURITY_PERIOD : Integer.toString(slot);
+    }
+}
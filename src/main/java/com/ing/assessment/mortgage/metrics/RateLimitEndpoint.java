@@ -0,0 +1,24 @@
+package com.ing.assessment.mortgage.metrics;
+
+import com.ing.assessment.mortgage.config.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint /actuator/ratelimit with the admitted and rejected requests per principal.
+ */
+@Component
+@Endpoint(id = "ratelimit")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+    private final RateLimiter rateLimiter;
+
+    @ReadOperation
+    public Map<String, RateLimiter.Counts> ratelimit() {
+        return rateLimiter.getCounts();
+    }
+}
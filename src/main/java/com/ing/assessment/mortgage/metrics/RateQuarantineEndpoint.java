@@ -0,0 +1,23 @@
+package com.ing.assessment.mortgage.metrics;
+
+import com.ing.assessment.mortgage.util.CsvUtil;
+import com.ing.assessment.mortgage.util.RateFileLoader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint /actuator/quarantine with the rows of the last read rate file that could not be parsed.
+ */
+@Component
+@Endpoint(id = "quarantine")
+@RequiredArgsConstructor
+public class RateQuarantineEndpoint {
+    private final CsvUtil csvUtil;
+
+    @ReadOperation
+    public RateFileLoader.QuarantineReport quarantine() {
+        return csvUtil.getQuarantineReport();
+    }
+}
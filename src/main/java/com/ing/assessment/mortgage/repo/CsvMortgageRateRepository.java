@@ -3,12 +3,19 @@ package com.ing.assessment.mortgage.repo;
 import com.ing.assessment.mortgage.dto.MortgageRate;
 import com.ing.assessment.mortgage.util.CsvUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Default repository serving the rates loaded from the CSV file, see {@link CsvUtil}.
+ */
 @Component
+@ConditionalOnProperty(name = "mortgage.rates.repository", havingValue = "csv", matchIfMissing = true)
 @RequiredArgsConstructor
 public class CsvMortgageRateRepository implements MortgageRateRepository {
 
@@ -16,13 +23,53 @@ public class CsvMortgageRateRepository implements MortgageRateRepository {
 
     @Override
     public List<MortgageRate> findAll() {
-        return csvUtil.getMortgageRateList();
+        return csvUtil.getMortgageRateSnapshot().getCurrentRates();
+    }
+
+    @Override
+    public List<MortgageRate> findAll(LocalDateTime asOf) {
+        return csvUtil.getMortgageRateSnapshot().getRates(asOf);
     }
 
     @Override
     public Optional<MortgageRate> findByMaturityPeriod(Integer period) {
-        return csvUtil.getMortgageRateList().stream()
-                .filter(rate -> rate.getMaturityPeriod().equals(period))
-                .findFirst();
+        if (period == null) {
+            return Optional.empty();
+        }
+        return csvUtil.getMortgageRateSnapshot().findByMaturityPeriod(period);
+    }
+
+    @Override
+    public Optional<MortgageRate> findByMaturityPeriod(Integer period, LocalDateTime asOf) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return csvUtil.getMortgageRateSnapshot().findByMaturityPeriod(period, asOf);
+    }
+
+    @Override
+    public Optional<BigDecimal> findAnnuityFactor(Integer period) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return csvUtil.getMortgageRateSnapshot().findAnnuityFactor(period);
+    }
+
+    @Override
+    public Optional<BigDecimal> findAnnuityFactor(Integer period, LocalDateTime asOf) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return csvUtil.getMortgageRateSnapshot().findAnnuityFactor(period, asOf);
+    }
+
+    @Override
+    public boolean isInterpolated(Integer period) {
+        return period != null && csvUtil.getMortgageRateSnapshot().isInterpolated(period);
+    }
+
+    @Override
+    public MortgageRateSnapshot getSnapshot() {
+        return csvUtil.getMortgageRateSnapshot();
     }
 }
@@ -0,0 +1,198 @@
+package com.ing.assessment.mortgage.repo;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.util.CsvUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Database backed repository, enabled with mortgage.rates.repository=jdbc.
+ * The whole rate table is kept in memory as a {@link MortgageRateSnapshot} (read-through). Once the snapshot is
+ * older than the refresh-ahead age it is reloaded in the background while requests keep using the current one;
+ * only a snapshot older than the TTL is reloaded on the request thread. A reload that finds the same rows keeps the
+ * current snapshot and its version, so caches keyed by the version stay valid until a rate changes. When the table is
+ * empty at startup it is seeded from the CSV file.
+ * The expired reload is guarded by a lock instead of synchronized, so a request on a virtual thread that waits for
+ * the database does not pin its carrier thread.
+ */
+@Component
+@ConditionalOnProperty(name = "mortgage.rates.repository", havingValue = "jdbc")
+@Slf4j
+public class JdbcMortgageRateRepository implements MortgageRateRepository {
+
+    private final MortgageRateJdbcStore store;
+    private final CsvUtil csvUtil;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final boolean seedFromCsv;
+    private final RateInterpolation interpolation;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mortgage-rate-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile CachedSnapshot cached;
+
+    public JdbcMortgageRateRepository(MortgageRateJdbcStore store,
+                                      CsvUtil csvUtil,
+                                      @Value("${mortgage.rates.jdbc.cache-ttl:5m}") Duration ttl,
+                                      @Value("${mortgage.rates.jdbc.refresh-ahead:4m}") Duration refreshAhead,
+                                      @Value("${mortgage.rates.jdbc.seed-from-csv:true}") boolean seedFromCsv,
+                                      @Value("${mortgage.rates.curve:none}") String curve) {
+        this.store = store;
+        this.csvUtil = csvUtil;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = Math.min(refreshAhead.toNanos(), ttlNanos);
+        this.seedFromCsv = seedFromCsv;
+        this.interpolation = RateInterpolation.fromValue(curve);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (seedFromCsv && store.count() == 0) {
+            importFromCsv();
+        } else {
+            load();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Replaces the table with the rates loaded from the CSV file and reloads the snapshot.
+     */
+    public void importFromCsv() {
+        List<MortgageRate> rates = csvUtil.getMortgageRateList();
+        store.replaceAll(rates);
+        log.info("Imported {} Mortgage Rates from CSV into the database", rates.size());
+        load();
+    }
+
+    @Override
+    public List<MortgageRate> findAll() {
+        return getSnapshot().getCurrentRates();
+    }
+
+    @Override
+    public List<MortgageRate> findAll(LocalDateTime asOf) {
+        return getSnapshot().getRates(asOf);
+    }
+
+    @Override
+    public Optional<MortgageRate> findByMaturityPeriod(Integer period) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return getSnapshot().findByMaturityPeriod(period);
+    }
+
+    @Override
+    public Optional<MortgageRate> findByMaturityPeriod(Integer period, LocalDateTime asOf) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return getSnapshot().findByMaturityPeriod(period, asOf);
+    }
+
+    @Override
+    public Optional<BigDecimal> findAnnuityFactor(Integer period) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return getSnapshot().findAnnuityFactor(period);
+    }
+
+    @Override
+    public Optional<BigDecimal> findAnnuityFactor(Integer period, LocalDateTime asOf) {
+        if (period == null) {
+            return Optional.empty();
+        }
+        return getSnapshot().findAnnuityFactor(period, asOf);
+    }
+
+    @Override
+    public boolean isInterpolated(Integer period) {
+        return period != null && getSnapshot().isInterpolated(period);
+    }
+
+    @Override
+    public MortgageRateSnapshot getSnapshot() {
+        CachedSnapshot current = cached;
+        long age = current == null ? Long.MAX_VALUE : System.nanoTime() - current.loadedAt;
+        if (age >= ttlNanos) {
+            return loadExpired(current);
+        }
+        if (age >= refreshAheadNanos && refreshing.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                try {
+                    load();
+                } catch (DataAccessException e) {
+                    log.error("Background refresh of Mortgage Rates failed, keeping the current rates: {}", e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return current.snapshot;
+    }
+
+    private MortgageRateSnapshot loadExpired(CachedSnapshot expired) {
+        reloadLock.lock();
+        try {
+            CachedSnapshot current = cached;
+            if (current != expired) {
+                return current.snapshot;
+            }
+            return load();
+        } catch (DataAccessException e) {
+            if (expired == null) {
+                throw e;
+            }
+            log.error("Reload of expired Mortgage Rates failed, keeping the current rates: {}", e.getMessage());
+            return expired.snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private MortgageRateSnapshot load() {
+        long start = System.nanoTime();
+        List<MortgageRate> rates = store.findAll();
+        CachedSnapshot current = cached;
+        if (current != null && rates.equals(current.snapshot.getRates())) {
+            cached = new CachedSnapshot(current.snapshot, System.nanoTime());
+            log.debug("Mortgage Rates unchanged in the database, checked in {} ms", (System.nanoTime() - start) / 1_000_000);
+            return current.snapshot;
+        }
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(rates, version.incrementAndGet(), interpolation);
+        cached = new CachedSnapshot(snapshot, System.nanoTime());
+        log.debug("Loaded {} Mortgage Rates from the database in {} ms", snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+
+    private record CachedSnapshot(MortgageRateSnapshot snapshot, long loadedAt) {
+    }
+}
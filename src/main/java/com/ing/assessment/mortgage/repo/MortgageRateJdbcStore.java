@@ -0,0 +1,84 @@
+package com.ing.assessment.mortgage.repo;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Reads and writes the mortgage_rate table. Statements are fixed SQL strings with parameters,
+ * so the driver (H2 QUERY_CACHE_SIZE) can reuse the prepared statements.
+ */
+@Component
+@ConditionalOnProperty(name = "mortgage.rates.repository", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class MortgageRateJdbcStore {
+    private static final String SELECT_ALL =
+            "SELECT maturity_period, interest_rate, last_update FROM mortgage_rate ORDER BY id";
+    private static final String COUNT = "SELECT COUNT(*) FROM mortgage_rate";
+    private static final String DELETE_ALL = "DELETE FROM mortgage_rate";
+    private static final String INSERT =
+            "INSERT INTO mortgage_rate (maturity_period, interest_rate, last_update) VALUES (?, ?, ?)";
+
+    private static final RowMapper<MortgageRate> ROW_MAPPER = (rs, rowNum) -> MortgageRate.builder()
+            .maturityPeriod(rs.getInt("maturity_period"))
+            .interestRate(normalize(rs.getBigDecimal("interest_rate")))
+            .lastUpdate(rs.getTimestamp("last_update").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void createSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/mortgage-rate-schema.sql"))
+                .execute(jdbcTemplate.getDataSource());
+    }
+
+    /**
+     * Loads all rows in insert order.
+     *
+     * @return
+     */
+    public List<MortgageRate> findAll() {
+        return jdbcTemplate.query(SELECT_ALL, ROW_MAPPER);
+    }
+
+    public int count() {
+        Integer count = jdbcTemplate.queryForObject(COUNT, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Replaces the whole table with the given rows in one transaction.
+     *
+     * @param rates
+     */
+    @Transactional
+    public void replaceAll(List<MortgageRate> rates) {
+        jdbcTemplate.update(DELETE_ALL);
+        jdbcTemplate.batchUpdate(INSERT, rates, rates.size(), (ps, rate) -> {
+            ps.setInt(1, rate.getMaturityPeriod());
+            ps.setBigDecimal(2, rate.getInterestRate());
+            ps.setTimestamp(3, Timestamp.valueOf(rate.getLastUpdate()));
+        });
+    }
+
+    /**
+     * Drops trailing zeros and the exponent notation of the DECFLOAT column (1E+1), so rates look the same as when
+     * read from the CSV.
+     */
+    private static BigDecimal normalize(BigDecimal rate) {
+        BigDecimal stripped = rate.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+}
@@ -2,6 +2,8 @@ package com.ing.assessment.mortgage.repo;
 
 import com.ing.assessment.mortgage.dto.MortgageRate;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,12 +12,20 @@ import java.util.Optional;
  */
 public interface MortgageRateRepository {
     /**
-     * Fetch all available mortgage rates
+     * Fetch the current rate of every maturity period
      *
      * @return
      */
     List<MortgageRate> findAll();
 
+    /**
+     * Fetch the rate of every maturity period that was in effect at the given time.
+     *
+     * @param asOf
+     * @return
+     */
+    List<MortgageRate> findAll(LocalDateTime asOf);
+
     /**
      * Finds a mortgage rate by the specified maturity period.
      *
@@ -23,4 +33,47 @@ public interface MortgageRateRepository {
      * @return
      */
     Optional<MortgageRate> findByMaturityPeriod(Integer period);
+
+    /**
+     * Finds the mortgage rate of the specified maturity period that was in effect at the given time.
+     *
+     * @param period
+     * @param asOf
+     * @return
+     */
+    Optional<MortgageRate> findByMaturityPeriod(Integer period, LocalDateTime asOf);
+
+    /**
+     * Finds the precomputed annuity factor for the specified maturity period.
+     * Empty when no factor is available, e.g. for a zero interest rate.
+     *
+     * @param period
+     * @return
+     */
+    Optional<BigDecimal> findAnnuityFactor(Integer period);
+
+    /**
+     * Finds the precomputed annuity factor of the rate that was in effect at the given time.
+     *
+     * @param period
+     * @param asOf
+     * @return
+     */
+    Optional<BigDecimal> findAnnuityFactor(Integer period, LocalDateTime asOf);
+
+    /**
+     * Whether the current rate of the specified maturity period is interpolated from the rate curve,
+     * see mortgage.rates.curve, instead of listed.
+     *
+     * @param period
+     * @return
+     */
+    boolean isInterpolated(Integer period);
+
+    /**
+     * Returns the current snapshot of all rates.
+     *
+     * @return
+     */
+    MortgageRateSnapshot getSnapshot();
 }
@@ -0,0 +1,420 @@
+package com.ing.assessment.mortgage.repo;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_MATURITY_PERIOD;
+
+/**
+ * Immutable view of the loaded mortgage rates, indexed by maturity period.
+ * The index is an open-addressing hash table on the primitive maturity period, so a lookup
+ * takes constant time and does not allocate: the Optional results are created when the snapshot is built.
+ * A maturity period can be listed more than once: every row is a version of its rate, in effect from its lastUpdate.
+ * The versions are kept per maturity period in arrays sorted by lastUpdate, with their annuity factors, so a lookup
+ * "as of" a point in time is a binary search that does not allocate either. The current rate is the newest version;
+ * when two rows have the same lastUpdate, the first row wins. A row without lastUpdate is in effect from the start.
+ * With a {@link RateInterpolation}, the current rates are also spread over a dense curve of every year from 1 to the
+ * longest listed period when the snapshot is built. A lookup within the curve is then a single array read, and
+ * periods that are not listed get an interpolated rate. Lookups as of a point in time only use listed rates.
+ * A new snapshot with a higher version is built on every (re)load and published as a whole,
+ * so a reader always sees one consistent set of rates.
+ */
+public final class MortgageRateSnapshot {
+    public static final MortgageRateSnapshot EMPTY = of(Collections.emptyList());
+
+    private final List<MortgageRate> rates;
+    private final List<MortgageRate> currentRates;
+    private final List<MortgageRate> currentRatesByPeriod;
+    private final int[] sortedPeriods;
+    private final long version;
+    private final Instant loadedAt;
+    private final int mask;
+    private final int[] keys;
+    private final Optional<MortgageRate>[] rateSlots;
+    private final Optional<BigDecimal>[] annuityFactorSlots;
+    private final RateHistory[] historySlots;
+    private final RateCurve curve;
+
+    private MortgageRateSnapshot(List<MortgageRate> rates, long version, RateInterpolation interpolation) {
+        this.rates = Collections.unmodifiableList(rates);
+        this.version = version;
+        this.loadedAt = Instant.now();
+
+        Map<Integer, List<MortgageRate>> versions = new LinkedHashMap<>();
+        for (MortgageRate rate : rates) {
+            if (rate.getMaturityPeriod() != null) {
+                versions.computeIfAbsent(rate.getMaturityPeriod(), period -> new ArrayList<>()).add(rate);
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(1, versions.size()) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new int[capacity];
+        this.rateSlots = optionals(capacity);
+        this.annuityFactorSlots = optionals(capacity);
+        this.historySlots = new RateHistory[capacity];
+
+        List<MortgageRate> current = new ArrayList<>(versions.size());
+        for (Map.Entry<Integer, List<MortgageRate>> entry : versions.entrySet()) {
+            RateHistory history = RateHistory.of(entry.getValue());
+            put(entry.getKey(), history);
+            current.add(history.rates[history.rates.length - 1].get());
+        }
+        this.currentRates = Collections.unmodifiableList(current);
+        List<MortgageRate> byPeriod = new ArrayList<>(current);
+        byPeriod.sort(Comparator.comparing(MortgageRate::getMaturityPeriod));
+        this.currentRatesByPeriod = Collections.unmodifiableList(byPeriod);
+        this.sortedPeriods = byPeriod.stream().mapToInt(MortgageRate::getMaturityPeriod).toArray();
+        this.curve = interpolation == RateInterpolation.NONE ? null : RateCurve.of(this, interpolation);
+    }
+
+    /**
+     * Builds a snapshot and its index from the given rows.
+     *
+     * @param rates
+     * @return
+     */
+    public static MortgageRateSnapshot of(List<MortgageRate> rates) {
+        return of(rates, 0);
+    }
+
+    /**
+     * Builds a snapshot with the given version and its index from the given rows.
+     *
+     * @param rates
+     * @param version
+     * @return
+     */
+    public static MortgageRateSnapshot of(List<MortgageRate> rates, long version) {
+        return of(rates, version, RateInterpolation.NONE);
+    }
+
+    /**
+     * Builds a snapshot with the given version, its index and the rate curve of the given interpolation.
+     *
+     * @param rates
+     * @param version
+     * @param interpolation
+     * @return
+     */
+    public static MortgageRateSnapshot of(List<MortgageRate> rates, long version, RateInterpolation interpolation) {
+        return new MortgageRateSnapshot(rates, version, interpolation);
+    }
+
+    private void put(int period, RateHistory history) {
+        int slot = slot(period);
+        while (rateSlots[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        int latest = history.rates.length - 1;
+        keys[slot] = period;
+        rateSlots[slot] = history.rates[latest];
+        annuityFactorSlots[slot] = history.annuityFactors[latest];
+        historySlots[slot] = history;
+    }
+
+    /**
+     * Zero rates get no factor, they are calculated without one to keep the existing rounding.
+     */
+    private static Optional<BigDecimal> annuityFactor(MortgageRate rate) {
+        if (rate.getInterestRate() == null || rate.getInterestRate().compareTo(BigDecimal.ZERO) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(rate.getInterestRate(), rate.getMaturityPeriod()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Optional<T>[] optionals(int size) {
+        return new Optional[size];
+    }
+
+    private int find(int period) {
+        int slot = slot(period);
+        while (rateSlots[slot] != null) {
+            if (keys[slot] == period) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int period) {
+        int hash = period * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns all rows in load order, including the older versions of each rate.
+     *
+     * @return
+     */
+    public List<MortgageRate> getRates() {
+        return rates;
+    }
+
+    /**
+     * Returns the current rate of every maturity period, in the order the periods were first listed.
+     * The list is built once per snapshot.
+     *
+     * @return
+     */
+    public List<MortgageRate> getCurrentRates() {
+        return currentRates;
+    }
+
+    /**
+     * Returns the current rate of every maturity period, sorted by maturity period. The list is built once per snapshot.
+     *
+     * @return
+     */
+    public List<MortgageRate> getCurrentRatesByMaturityPeriod() {
+        return currentRatesByPeriod;
+    }
+
+    /**
+     * Returns the position in {@link #getCurrentRatesByMaturityPeriod()} of the first maturity period that is equal
+     * to or longer than the given one, the size of the list when there is none.
+     *
+     * @param period
+     * @return
+     */
+    public int indexOfMaturityPeriod(int period) {
+        int index = Arrays.binarySearch(sortedPeriods, period);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the rate of every maturity period that was in effect at the given time, in the order of
+     * {@link #getCurrentRates()}. Periods without a rate at that time are left out.
+     *
+     * @param asOf
+     * @return
+     */
+    public List<MortgageRate> getRates(LocalDateTime asOf) {
+        List<MortgageRate> result = new ArrayList<>(currentRates.size());
+        for (MortgageRate rate : currentRates) {
+            findByMaturityPeriod(rate.getMaturityPeriod(), asOf).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    public Optional<MortgageRate> findByMaturityPeriod(int period) {
+        if (curve != null && curve.covers(period)) {
+            return curve.rates[period - 1];
+        }
+        int slot = find(period);
+        return slot < 0 ? Optional.empty() : rateSlots[slot];
+    }
+
+    public Optional<BigDecimal> findAnnuityFactor(int period) {
+        if (curve != null && curve.covers(period)) {
+            return curve.annuityFactors[period - 1];
+        }
+        int slot = find(period);
+        return slot < 0 ? Optional.empty() : annuityFactorSlots[slot];
+    }
+
+    /**
+     * Whether the current rate of a maturity period comes from the rate curve instead of a listed row.
+     *
+     * @param period
+     * @return
+     */
+    public boolean isInterpolated(int period) {
+        return curve != null && curve.covers(period) && curve.interpolated[period - 1];
+    }
+
+    /**
+     * Finds the rate of a maturity period that was in effect at the given time: the newest version with a lastUpdate
+     * at or before asOf. Without asOf the current rate is returned.
+     *
+     * @param period
+     * @param asOf
+     * @return
+     */
+    public Optional<MortgageRate> findByMaturityPeriod(int period, LocalDateTime asOf) {
+        if (asOf == null) {
+            return findByMaturityPeriod(period);
+        }
+        int slot = find(period);
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        RateHistory history = historySlots[slot];
+        int index = history.indexAsOf(asOf);
+        return index < 0 ? Optional.empty() : history.rates[index];
+    }
+
+    /**
+     * Finds the annuity factor of the rate that was in effect at the given time, see
+     * {@link #findByMaturityPeriod(int, LocalDateTime)}.
+     *
+     * @param period
+     * @param asOf
+     * @return
+     */
+    public Optional<BigDecimal> findAnnuityFactor(int period, LocalDateTime asOf) {
+        if (asOf == null) {
+            return findAnnuityFactor(period);
+        }
+        int slot = find(period);
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        RateHistory history = historySlots[slot];
+        int index = history.indexAsOf(asOf);
+        return index < 0 ? Optional.empty() : history.annuityFactors[index];
+    }
+
+    public int size() {
+        return rates.size();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Current rates by year, index 0 is year 1. Listed years share the Optionals of the index, the others hold
+     * interpolated rates with the newer lastUpdate of their neighbours. Periods above MAX_MATURITY_PERIOD, which only
+     * the database can still hold, are left out and only found through the index.
+     */
+    private static final class RateCurve {
+        private final Optional<MortgageRate>[] rates;
+        private final Optional<BigDecimal>[] annuityFactors;
+        private final boolean[] interpolated;
+
+        private RateCurve(int years) {
+            this.rates = optionals(years);
+            this.annuityFactors = optionals(years);
+            this.interpolated = new boolean[years];
+        }
+
+        private static RateCurve of(MortgageRateSnapshot snapshot, RateInterpolation interpolation) {
+            List<MortgageRate> points = new ArrayList<>();
+            for (MortgageRate rate : snapshot.currentRates) {
+                if (rate.getMaturityPeriod() >= 1 && rate.getMaturityPeriod() <= MAX_MATURITY_PERIOD
+                        && rate.getInterestRate() != null) {
+                    points.add(rate);
+                }
+            }
+            if (points.isEmpty()) {
+                return null;
+            }
+            points.sort(Comparator.comparing(MortgageRate::getMaturityPeriod));
+
+            int[] periods = new int[points.size()];
+            double[] listed = new double[points.size()];
+            for (int k = 0; k < periods.length; k++) {
+                periods[k] = points.get(k).getMaturityPeriod();
+                listed[k] = points.get(k).getInterestRate().doubleValue();
+            }
+            double[] values = interpolation.curve(periods, listed);
+
+            RateCurve curve = new RateCurve(values.length);
+            int next = 0;
+            for (int year = 1; year <= values.length; year++) {
+                if (year == periods[next]) {
+                    int slot = snapshot.find(year);
+                    curve.rates[year - 1] = snapshot.rateSlots[slot];
+                    curve.annuityFactors[year - 1] = snapshot.annuityFactorSlots[slot];
+                    next++;
+                    continue;
+                }
+                MortgageRate previous = next == 0 ? points.get(0) : points.get(next - 1);
+                MortgageRate following = points.get(next);
+                MortgageRate rate = new MortgageRate(year,
+                        BigDecimal.valueOf(values[year - 1]).setScale(RateInterpolation.RATE_SCALE, RoundingMode.HALF_UP),
+                        newer(previous.getLastUpdate(), following.getLastUpdate()));
+                curve.rates[year - 1] = Optional.of(rate);
+                curve.annuityFactors[year - 1] = annuityFactor(rate);
+                curve.interpolated[year - 1] = true;
+            }
+            return curve;
+        }
+
+        private static LocalDateTime newer(LocalDateTime a, LocalDateTime b) {
+            if (a == null || b == null) {
+                return a == null ? b : a;
+            }
+            return a.isAfter(b) ? a : b;
+        }
+
+        private boolean covers(int period) {
+            return period >= 1 && period <= rates.length;
+        }
+    }
+
+    /**
+     * The versions of one maturity period, sorted by the time they take effect.
+     * Rows are appended in load order; they are only sorted when the file lists them out of order.
+     */
+    private static final class RateHistory {
+        private static final Comparator<MortgageRate> BY_EFFECTIVE_FROM = Comparator.comparing(RateHistory::effectiveFrom);
+
+        private final LocalDateTime[] effectiveFrom;
+        private final Optional<MortgageRate>[] rates;
+        private final Optional<BigDecimal>[] annuityFactors;
+
+        private RateHistory(List<MortgageRate> versions) {
+            int size = versions.size();
+            this.effectiveFrom = new LocalDateTime[size];
+            this.rates = optionals(size);
+            this.annuityFactors = optionals(size);
+            for (int i = 0; i < size; i++) {
+                MortgageRate rate = versions.get(i);
+                effectiveFrom[i] = effectiveFrom(rate);
+                rates[i] = Optional.of(rate);
+                annuityFactors[i] = annuityFactor(rate);
+            }
+        }
+
+        private static RateHistory of(List<MortgageRate> rows) {
+            List<MortgageRate> versions = rows;
+            for (int i = 1; i < rows.size(); i++) {
+                if (BY_EFFECTIVE_FROM.compare(rows.get(i - 1), rows.get(i)) > 0) {
+                    versions = new ArrayList<>(rows);
+                    versions.sort(BY_EFFECTIVE_FROM);
+                    break;
+                }
+            }
+            List<MortgageRate> distinct = new ArrayList<>(versions.size());
+            for (MortgageRate rate : versions) {
+                if (distinct.isEmpty() || effectiveFrom(distinct.get(distinct.size() - 1)).compareTo(effectiveFrom(rate)) != 0) {
+                    distinct.add(rate);
+                }
+            }
+            return new RateHistory(distinct);
+        }
+
+        private static LocalDateTime effectiveFrom(MortgageRate rate) {
+            return rate.getLastUpdate() == null ? LocalDateTime.MIN : rate.getLastUpdate();
+        }
+
+        /**
+         * Index of the newest version in effect at asOf, or -1 when the first version is newer.
+         */
+        private int indexAsOf(LocalDateTime asOf) {
+            int index = Arrays.binarySearch(effectiveFrom, asOf);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ing.assessment.mortgage.repo;
+
+import java.util.Locale;
+
+/**
+ * How rates of maturity periods that are not listed are derived from the listed ones, set with mortgage.rates.curve.
+ * The curve runs over every year from 1 to the longest listed period; years below the shortest listed period get its
+ * rate. Interpolation is done in double precision, the rates are rounded to {@link #RATE_SCALE} decimals.
+ */
+public enum RateInterpolation {
+    /**
+     * Only listed maturity periods have a rate.
+     */
+    NONE {
+        @Override
+        double[] curve(int[] periods, double[] rates) {
+            return new double[0];
+        }
+    },
+    /**
+     * Straight lines between neighbouring listed periods.
+     */
+    LINEAR {
+        @Override
+        double[] curve(int[] periods, double[] rates) {
+            double[] curve = flatStart(periods, rates);
+            for (int k = 0; k < periods.length - 1; k++) {
+                double slope = (rates[k + 1] - rates[k]) / (periods[k + 1] - periods[k]);
+                for (int year = periods[k] + 1; year < periods[k + 1]; year++) {
+                    curve[year - 1] = rates[k] + slope * (year - periods[k]);
+                }
+            }
+            return curve;
+        }
+    },
+    /**
+     * Piecewise cubic Hermite curve with Fritsch-Butland slopes: smooth, and monotone between listed periods, so it
+     * never overshoots the rates of its neighbours.
+     */
+    MONOTONE_CUBIC {
+        @Override
+        double[] curve(int[] periods, double[] rates) {
+            double[] curve = flatStart(periods, rates);
+            int n = periods.length;
+            if (n < 2) {
+                return curve;
+            }
+            double[] widths = new double[n - 1];
+            double[] secants = new double[n - 1];
+            for (int k = 0; k < n - 1; k++) {
+                widths[k] = periods[k + 1] - periods[k];
+                secants[k] = (rates[k + 1] - rates[k]) / widths[k];
+            }
+            double[] slopes = new double[n];
+            slopes[0] = secants[0];
+            slopes[n - 1] = secants[n - 2];
+            for (int k = 1; k < n - 1; k++) {
+                if (secants[k - 1] * secants[k] > 0) {
+                    double w1 = 2 * widths[k] + widths[k - 1];
+                    double w2 = widths[k] + 2 * widths[k - 1];
+                    slopes[k] = (w1 + w2) / (w1 / secants[k - 1] + w2 / secants[k]);
+                }
+            }
+            for (int k = 0; k < n - 1; k++) {
+                for (int year = periods[k] + 1; year < periods[k + 1]; year++) {
+                    double t = (year - periods[k]) / widths[k];
+                    double t2 = t * t;
+                    double t3 = t2 * t;
+                    curve[year - 1] = (2 * t3 - 3 * t2 + 1) * rates[k]
+                            + (t3 - 2 * t2 + t) * widths[k] * slopes[k]
+                            + (-2 * t3 + 3 * t2) * rates[k + 1]
+                            + (t3 - t2) * widths[k] * slopes[k + 1];
+                }
+            }
+            return curve;
+        }
+    };
+
+    public static final int RATE_SCALE = 6;
+
+    /**
+     * Calculates the rate of every year from 1 to the last listed period.
+     *
+     * @param periods listed maturity periods, ascending and at least 1
+     * @param rates   their rates
+     * @return the rates by year, index 0 is year 1; listed years keep their rate
+     */
+    abstract double[] curve(int[] periods, double[] rates);
+
+    private static double[] flatStart(int[] periods, double[] rates) {
+        double[] curve = new double[periods[periods.length - 1]];
+        for (int year = 1; year < periods[0]; year++) {
+            curve[year - 1] = rates[0];
+        }
+        for (int k = 0; k < periods.length; k++) {
+            curve[periods[k] - 1] = rates[k];
+        }
+        return curve;
+    }
+
+    /**
+     * Parses the property value: none, linear or monotone-cubic. A blank value is none.
+     *
+     * @param value
+     * @return
+     */
+    public static RateInterpolation fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
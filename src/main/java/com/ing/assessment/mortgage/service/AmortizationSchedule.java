@@ -0,0 +1,77 @@
+package com.ing.assessment.mortgage.service;
+
+import com.ing.assessment.mortgage.dto.AmortizationRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MATH_CONTEXT;
+import static com.ing.assessment.mortgage.util.MortgageConstants.MONTHS_IN_YEAR;
+import static com.ing.assessment.mortgage.util.MortgageConstants.PERCENT_DIVISOR;
+
+/**
+ * Month by month amortization of a loan with a fixed monthly payment. Rows are calculated one at a time while
+ * iterating, from the balance left by the previous row, so a schedule holds no rows in memory.
+ * The interest of a month is the balance times the monthly rate, rounded to cents; the rest of the payment repays
+ * principal. The last payment is adjusted to repay the remaining balance exactly.
+ */
+public final class AmortizationSchedule implements Iterable<AmortizationRow> {
+    private final BigDecimal loanValue;
+    private final BigDecimal monthlyRate;
+    private final BigDecimal monthlyPayment;
+    private final int months;
+
+    /**
+     * @param loanValue
+     * @param annualRatePercent
+     * @param years
+     * @param monthlyPayment    payment for the loan, calculated like the mortgage check
+     */
+    public AmortizationSchedule(BigDecimal loanValue, BigDecimal annualRatePercent, int years, BigDecimal monthlyPayment) {
+        this.loanValue = loanValue.setScale(2, RoundingMode.HALF_UP);
+        this.monthlyRate = annualRatePercent
+                .divide(PERCENT_DIVISOR, MATH_CONTEXT)
+                .divide(MONTHS_IN_YEAR, MATH_CONTEXT);
+        this.monthlyPayment = monthlyPayment;
+        this.months = years * 12;
+    }
+
+    public BigDecimal getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    @Override
+    public Iterator<AmortizationRow> iterator() {
+        return new Iterator<>() {
+            private int month;
+            private BigDecimal balance = loanValue;
+
+            @Override
+            public boolean hasNext() {
+                return month < months;
+            }
+
+            @Override
+            public AmortizationRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                month++;
+                BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal principal = monthlyPayment.subtract(interest);
+                if (month == months || principal.compareTo(balance) > 0) {
+                    principal = balance;
+                }
+                BigDecimal payment = principal.add(interest);
+                balance = balance.subtract(principal);
+                return new AmortizationRow(month, payment, interest, principal, balance);
+            }
+        };
+    }
+}
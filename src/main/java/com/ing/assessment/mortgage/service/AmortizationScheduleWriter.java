@@ -0,0 +1,85 @@
+package com.ing.assessment.mortgage.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.assessment.mortgage.dto.AmortizationRow;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.STREAM_FLUSH_INTERVAL;
+
+/**
+ * Writes an {@link AmortizationSchedule} as a JSON array or as CSV, one row at a time while the schedule is
+ * iterated, so the rows are sent to the client as they are calculated.
+ */
+@Service
+public class AmortizationScheduleWriter {
+    public static final String CSV_HEADER = "month,payment,interest,principal,remainingBalance";
+
+    private final ObjectMapper objectMapper;
+
+    public AmortizationScheduleWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes the schedule as a JSON array of rows.
+     *
+     * @param schedule
+     * @param output
+     * @throws IOException
+     */
+    public void writeJson(AmortizationSchedule schedule, OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+            generator.writeStartArray();
+            for (AmortizationRow row : schedule) {
+                generator.writeObject(row);
+                if (row.getMonth() % STREAM_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes the schedule as CSV with a header line.
+     *
+     * @param schedule
+     * @param output
+     * @throws IOException
+     */
+    public void writeCsv(AmortizationSchedule schedule, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (AmortizationRow row : schedule) {
+            writer.write(toCsvLine(row));
+            if (row.getMonth() % STREAM_FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Formats one row as a CSV line of {@link #CSV_HEADER}, including the line separator. Used for the servlet and
+     * the reactive CSV output alike.
+     *
+     * @param row
+     * @return
+     */
+    public String toCsvLine(AmortizationRow row) {
+        return row.getMonth() + ","
+                + row.getPayment().toPlainString() + ","
+                + row.getInterest().toPlainString() + ","
+                + row.getPrincipal().toPlainString() + ","
+                + row.getRemainingBalance().toPlainString() + "\n";
+    }
+}
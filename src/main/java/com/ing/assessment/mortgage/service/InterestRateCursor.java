@@ -0,0 +1,59 @@
+package com.ing.assessment.mortgage.service;
+
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Page token of the interest rate list: the last returned maturity period and the filters of the first page.
+ * The next page starts after that maturity period in whatever snapshot is current, so a token stays valid when the
+ * rates are reloaded in between. A token that cannot be decoded, or is sent with other filters, is rejected.
+ */
+final class InterestRateCursor {
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final InvalidRequestException INVALID_CURSOR = new InvalidRequestException("Invalid cursor");
+    private static final InvalidRequestException FILTERS_CHANGED =
+            new InvalidRequestException("Cursor does not match the filters");
+
+    private InterestRateCursor() {
+    }
+
+    static String encode(int lastMaturityPeriod, InterestRateFilter filter) {
+        String token = VERSION + SEPARATOR + lastMaturityPeriod + SEPARATOR + filterKey(filter);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the last maturity period of the previous page.
+     */
+    static int decode(String cursor, InterestRateFilter filter) {
+        String token;
+        try {
+            token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw INVALID_CURSOR;
+        }
+        String[] parts = token.split("\\|", 3);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw INVALID_CURSOR;
+        }
+        if (!filterKey(filter).equals(parts[2])) {
+            throw FILTERS_CHANGED;
+        }
+        try {
+            return Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw INVALID_CURSOR;
+        }
+    }
+
+    private static String filterKey(InterestRateFilter filter) {
+        return Objects.toString(filter.getMinMaturity(), "") + SEPARATOR
+                + Objects.toString(filter.getMaxMaturity(), "") + SEPARATOR
+                + Objects.toString(filter.getUpdatedSince(), "");
+    }
+}
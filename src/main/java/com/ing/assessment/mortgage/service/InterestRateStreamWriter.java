@@ -0,0 +1,56 @@
+package com.ing.assessment.mortgage.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.STREAM_FLUSH_INTERVAL;
+
+/**
+ * Writes interest rates as newline-delimited JSON, one row at a time, so the rate table is sent without
+ * serializing it as a whole.
+ */
+@Service
+public class InterestRateStreamWriter {
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectWriter rateWriter;
+
+    public InterestRateStreamWriter(ObjectMapper objectMapper) {
+        this.rateWriter = objectMapper.writerFor(MortgageRate.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes one JSON line per rate.
+     *
+     * @param rates
+     * @param output
+     * @return number of written rates
+     * @throws IOException
+     */
+    public long writeNdjson(Stream<MortgageRate> rates, OutputStream output) throws IOException {
+        OutputStream out = new BufferedOutputStream(output);
+        long count = 0;
+        Iterator<MortgageRate> iterator = rates.iterator();
+        while (iterator.hasNext()) {
+            rateWriter.writeValue(out, iterator.next());
+            out.write(NEW_LINE);
+            if (++count % STREAM_FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ing.assessment.mortgage.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics.Outcome;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes mortgage check results by the request and the version of the rate snapshot they were computed with.
+ * Amounts are compared by value, so 150000 and 150000.00 share an entry. A reload publishes a snapshot with a higher
+ * version, so results of older rates are never served again; they are dropped when the new version is first seen.
+ * Concurrent checks of the same request wait for one computation instead of each computing it, and failed checks
+ * are not cached. Bounded by mortgage.check.cache.max-size, 0 turns the cache off.
+ * Checks in cents are keyed by their primitive amounts, apart from the requests with BigDecimal amounts.
+ */
+@Component
+public class MortgageCheckCache {
+    private final boolean enabled;
+    private final Cache<Object, Result> results;
+    private final AtomicLong latestVersion = new AtomicLong(Long.MIN_VALUE);
+
+    public MortgageCheckCache(@Value("${mortgage.check.cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.enabled = maxSize > 0;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, MortgageMetrics.CHECK_CACHE);
+        Gauge.builder(MortgageMetrics.CHECK_CACHE_HIT_RATIO_GAUGE, results, cache -> cache.stats().hitRate())
+                .description("Share of mortgage checks answered from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result of the request for the given snapshot version, computing it when absent.
+     *
+     * @param version
+     * @param request
+     * @param check
+     * @return
+     */
+    Result get(long version, MortgageCheckRequest request, Supplier<Result> check) {
+        if (!enabled) {
+            return check.get();
+        }
+        return get(version, Key.of(version, request), check);
+    }
+
+    /**
+     * Returns the cached result of the request in cents for the given snapshot version, computing it when absent.
+     *
+     * @param version
+     * @param request
+     * @param check
+     * @return
+     */
+    Result get(long version, MortgageCheckCents request, Supplier<Result> check) {
+        if (!enabled) {
+            return check.get();
+        }
+        return get(version, new CentsKey(version, request), check);
+    }
+
+    private Result get(long version, Object key, Supplier<Result> check) {
+        long latest = latestVersion.get();
+        if (version > latest && latestVersion.compareAndSet(latest, version)) {
+            results.invalidateAll();
+        }
+        return results.get(key, ignored -> check.get());
+    }
+
+    long size() {
+        results.cleanUp();
+        return results.estimatedSize();
+    }
+
+    /**
+     * A check result with its outcome, so cached checks are recorded like computed ones.
+     */
+    record Result(MortgageCheckResponse response, Outcome outcome) {
+    }
+
+    private record Key(long version, BigDecimal income, Integer maturityPeriod, BigDecimal loanValue,
+                       BigDecimal homeValue, LocalDateTime asOf) {
+
+        static Key of(long version, MortgageCheckRequest request) {
+            return new Key(version, normalize(request.getIncome()), request.getMaturityPeriod(),
+                    normalize(request.getLoanValue()), normalize(request.getHomeValue()), request.getAsOf());
+        }
+
+        private static BigDecimal normalize(BigDecimal value) {
+            return value == null ? null : value.stripTrailingZeros();
+        }
+    }
+
+    private record CentsKey(long version, MortgageCheckCents request) {
+    }
+}
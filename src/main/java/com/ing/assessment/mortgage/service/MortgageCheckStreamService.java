@@ -0,0 +1,172 @@
+package com.ing.assessment.mortgage.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.ErrorResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_STREAM_LINE_LENGTH;
+import static com.ing.assessment.mortgage.util.MortgageConstants.STREAM_FLUSH_INTERVAL;
+
+/**
+ * Scores newline-delimited JSON mortgage check requests and writes one NDJSON result per request.
+ * Requests are read, checked and written one at a time, so memory use does not depend on the input size; a line
+ * longer than {@link com.ing.assessment.mortgage.util.MortgageConstants#MAX_STREAM_LINE_LENGTH} characters is not
+ * kept but skipped to its end and answered with an error result.
+ * Writes block when the client reads slowly, which in turn stops reading the input (back-pressure).
+ */
+@Service
+@Slf4j
+public class MortgageCheckStreamService {
+    private static final byte NEW_LINE = '\n';
+    private static final int READ_BUFFER_CHARS = 8 * 1024;
+    private static final String LINE_TOO_LONG = "Request line exceeds " + MAX_STREAM_LINE_LENGTH + " characters";
+
+    private final MortgageService mortgageService;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+
+    public MortgageCheckStreamService(MortgageService mortgageService, ObjectMapper objectMapper) {
+        this.mortgageService = mortgageService;
+        this.requestReader = objectMapper.readerFor(MortgageCheckRequest.class);
+        this.resultWriter = objectMapper.writerFor(MortgageCheckBatchItem.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Reads NDJSON requests from the input and writes NDJSON results to the output in the same order.
+     * Blank lines are skipped, a line that is not valid JSON or too long gets an error result.
+     *
+     * @param input
+     * @param output
+     * @return number of processed rows
+     * @throws IOException
+     */
+    public long process(InputStream input, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        long index = 0;
+        LineReader lines = new LineReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        OutputStream out = new BufferedOutputStream(output);
+
+        LineStatus status;
+        while ((status = lines.next()) != LineStatus.END_OF_INPUT) {
+            if (status == LineStatus.TOO_LONG) {
+                resultWriter.writeValue(out, errorItem(index, LINE_TOO_LONG));
+            } else {
+                String line = lines.line();
+                if (line.isBlank()) {
+                    continue;
+                }
+                resultWriter.writeValue(out, checkLine(index, line));
+            }
+            out.write(NEW_LINE);
+            if (++index % STREAM_FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Processed {} mortgage check rows in {} ms ({} rows/s)", index, elapsedMillis, index * 1000L / elapsedMillis);
+        return index;
+    }
+
+    /**
+     * Checks one NDJSON request line, a line that is not valid JSON gets an error result.
+     *
+     * @param index
+     * @param line
+     * @return
+     */
+    public MortgageCheckBatchItem checkLine(long index, String line) {
+        MortgageCheckRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            return errorItem(index, "Malformed request");
+        }
+        return mortgageService.checkMortgageItem(index, request);
+    }
+
+    private static MortgageCheckBatchItem errorItem(long index, String message) {
+        return new MortgageCheckBatchItem(index, null,
+                new ErrorResponse(message, HttpStatus.BAD_REQUEST.value(), System.currentTimeMillis()));
+    }
+
+    private enum LineStatus { READ, TOO_LONG, END_OF_INPUT }
+
+    /**
+     * Splits the input into lines without their line feed. The input is read in blocks into a reused buffer that is
+     * scanned for line feeds, so a line costs one bulk read per block instead of a locked read per character.
+     * At most MAX_STREAM_LINE_LENGTH characters of a line are kept, the rest of a longer line is read and dropped.
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final char[] buffer = new char[READ_BUFFER_CHARS];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+
+        private LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        LineStatus next() throws IOException {
+            line.setLength(0);
+            boolean tooLong = false;
+            while (position < limit || fill()) {
+                int end = position;
+                while (end < limit && buffer[end] != NEW_LINE) {
+                    end++;
+                }
+                tooLong |= append(position, end);
+                if (end < limit) {
+                    position = end + 1;
+                    return tooLong ? LineStatus.TOO_LONG : LineStatus.READ;
+                }
+                position = limit;
+            }
+            if (tooLong) {
+                return LineStatus.TOO_LONG;
+            }
+            return line.length() > 0 ? LineStatus.READ : LineStatus.END_OF_INPUT;
+        }
+
+        String line() {
+            return line.toString();
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(0, read);
+            return read > 0;
+        }
+
+        /**
+         * Appends the characters up to the length limit and returns whether some were dropped.
+         */
+        private boolean append(int from, int to) {
+            int room = MAX_STREAM_LINE_LENGTH - line.length();
+            line.append(buffer, from, Math.min(room, to - from));
+            return to - from > room;
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.ing.assessment.mortgage.service;
 
+import com.ing.assessment.mortgage.dto.AmortizationScheduleRequest;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanRequest;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
 import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
 import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
 import com.ing.assessment.mortgage.dto.MortgageRate;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service class to manage mortgage-related operations
@@ -18,13 +27,85 @@ public interface MortgageService {
      */
     List<MortgageRate> getAllRates();
 
+    /**
+     * Fetch the mortgage interest rates that were in effect at the given time, or the current rates without asOf.
+     *
+     * @param asOf
+     * @return
+     */
+    List<MortgageRate> getAllRates(LocalDateTime asOf);
+
+    /**
+     * Fetch one page of the current interest rates, sorted by maturity period. Without cursor the first page is
+     * returned, otherwise the page after the one that returned the cursor.
+     *
+     * @param filter
+     * @param cursor
+     * @param limit
+     * @return
+     */
+    InterestRatePage getInterestRatePage(InterestRateFilter filter, String cursor, int limit);
+
+    /**
+     * Stream the current interest rates matching the filter, sorted by maturity period. The rates are filtered
+     * while the stream is consumed.
+     *
+     * @param filter
+     * @return
+     */
+    Stream<MortgageRate> streamInterestRates(InterestRateFilter filter);
+
     /**
      * Checks whether a mortgage request is feasible and calculates monthly costs.
+     * With asOf on the request, the rate that was in effect at that time is used.
      *
      * @param request
      * @return
      */
     MortgageCheckResponse checkMortgage(MortgageCheckRequest request);
 
-    ;
-}
\ No newline at end of file
+    /**
+     * Same check as {@link #checkMortgage(MortgageCheckRequest)} for a request with amounts in cents, the feasibility
+     * is decided on the primitive amounts.
+     *
+     * @param request
+     * @return
+     */
+    MortgageCheckResponse checkMortgage(MortgageCheckCents request);
+
+    /**
+     * Checks a batch of mortgage requests. Each request is validated and checked on its own,
+     * results are returned in request order with an error per failed item.
+     *
+     * @param requests
+     * @return
+     */
+    List<MortgageCheckBatchItem> checkMortgages(List<MortgageCheckRequest> requests);
+
+    /**
+     * Validates and checks a single request of a batch or stream, failures are reported on the item.
+     *
+     * @param index
+     * @param request
+     * @return
+     */
+    MortgageCheckBatchItem checkMortgageItem(long index, MortgageCheckRequest request);
+
+    /**
+     * Returns the amortization schedule of a loan, with the rate and monthly payment of the mortgage check.
+     * The rows are calculated while the schedule is iterated.
+     *
+     * @param request
+     * @return
+     */
+    AmortizationSchedule getAmortizationSchedule(AmortizationScheduleRequest request);
+
+    /**
+     * Calculates the largest loan that passes the mortgage check for the given income, home value and maturity
+     * period, and optionally a maximum monthly payment, with its monthly costs.
+     *
+     * @param request
+     * @return
+     */
+    MaxLoanResponse getMaxLoan(MaxLoanRequest request);
+}
\ No newline at end of file
@@ -1,33 +1,178 @@
 package com.ing.assessment.mortgage.service;
 
+import com.ing.assessment.mortgage.dto.AmortizationScheduleRequest;
+import com.ing.assessment.mortgage.dto.ErrorResponse;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanRequest;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
 import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
 import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
 import com.ing.assessment.mortgage.dto.MortgageRate;
 import com.ing.assessment.mortgage.exception.DataNotAvailableException;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics.Outcome;
 import com.ing.assessment.mortgage.repo.MortgageRateRepository;
-import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import com.ing.assessment.mortgage.repo.MortgageRateSnapshot;
+import com.ing.assessment.mortgage.util.PaymentEngine;
+import com.ing.assessment.mortgage.util.ValidationErrors;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.ing.assessment.mortgage.util.MortgageConstants.BATCH_PARALLEL_THRESHOLD;
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_BATCH_SIZE;
 import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_INCOME_MULTIPLIER;
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_RATE_PAGE_SIZE;
+import static com.ing.assessment.mortgage.util.MortgageConstants.RATE_SOURCE_INTERPOLATED;
+import static com.ing.assessment.mortgage.util.MortgageConstants.RATE_SOURCE_QUOTED;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MortgageServiceImpl implements MortgageService {
+    private static final BigDecimal CENT = new BigDecimal("0.01");
+    private static final BigDecimal HALF_CENT = new BigDecimal("0.005");
+    private static final long MAX_INCOME_MULTIPLIER_VALUE = MAX_INCOME_MULTIPLIER.longValueExact();
+
     private final MortgageRateRepository mortgageRateRepository;
-    private final MonthlyPaymentCalculationUtil monthlyPaymentCalculationUtil;
+    private final PaymentEngine paymentEngine;
+    private final Validator validator;
+    private final MortgageMetrics mortgageMetrics;
+    private final MortgageCheckCache mortgageCheckCache;
 
 
     public List<MortgageRate> getAllRates() {
-        return mortgageRateRepository.findAll();
+        long start = System.nanoTime();
+        try {
+            return mortgageRateRepository.findAll();
+        } finally {
+            mortgageMetrics.recordAllRates(System.nanoTime() - start);
+        }
+    }
+
+    public List<MortgageRate> getAllRates(LocalDateTime asOf) {
+        if (asOf == null) {
+            return getAllRates();
+        }
+        long start = System.nanoTime();
+        try {
+            return mortgageRateRepository.findAll(asOf);
+        } finally {
+            mortgageMetrics.recordAllRates(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Keyset pagination on maturity period: a page starts after the last period of the previous one in the current
+     * snapshot, found with a binary search, so cursors stay valid when the rates are reloaded.
+     */
+    public InterestRatePage getInterestRatePage(InterestRateFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_RATE_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_RATE_PAGE_SIZE);
+        }
+        long start = System.nanoTime();
+        try {
+            MortgageRateSnapshot snapshot = mortgageRateRepository.getSnapshot();
+            List<MortgageRate> rates = snapshot.getCurrentRatesByMaturityPeriod();
+            long firstPeriod = filter.getMinMaturity() == null ? Integer.MIN_VALUE : filter.getMinMaturity();
+            if (cursor != null && !cursor.isEmpty()) {
+                firstPeriod = Math.max(firstPeriod, InterestRateCursor.decode(cursor, filter) + 1L);
+            }
+            int from = firstPeriod > Integer.MAX_VALUE ? rates.size() : snapshot.indexOfMaturityPeriod((int) firstPeriod);
+
+            List<MortgageRate> page = new ArrayList<>(Math.min(limit, rates.size()));
+            String nextCursor = null;
+            for (int i = from; i < rates.size(); i++) {
+                MortgageRate rate = rates.get(i);
+                if (isAfterMaxMaturity(rate, filter)) {
+                    break;
+                }
+                if (!isUpdatedSince(rate, filter)) {
+                    continue;
+                }
+                if (page.size() == limit) {
+                    nextCursor = InterestRateCursor.encode(page.get(limit - 1).getMaturityPeriod(), filter);
+                    break;
+                }
+                page.add(rate);
+            }
+            return new InterestRatePage(page, nextCursor);
+        } finally {
+            mortgageMetrics.recordAllRates(System.nanoTime() - start);
+        }
     }
 
+    public Stream<MortgageRate> streamInterestRates(InterestRateFilter filter) {
+        MortgageRateSnapshot snapshot = mortgageRateRepository.getSnapshot();
+        List<MortgageRate> rates = snapshot.getCurrentRatesByMaturityPeriod();
+        int from = filter.getMinMaturity() == null ? 0 : snapshot.indexOfMaturityPeriod(filter.getMinMaturity());
+        return rates.subList(from, rates.size()).stream()
+                .takeWhile(rate -> !isAfterMaxMaturity(rate, filter))
+                .filter(rate -> isUpdatedSince(rate, filter));
+    }
+
+    private static boolean isAfterMaxMaturity(MortgageRate rate, InterestRateFilter filter) {
+        return filter.getMaxMaturity() != null && rate.getMaturityPeriod() > filter.getMaxMaturity();
+    }
+
+    private static boolean isUpdatedSince(MortgageRate rate, InterestRateFilter filter) {
+        return filter.getUpdatedSince() == null
+                || (rate.getLastUpdate() != null && !rate.getLastUpdate().isBefore(filter.getUpdatedSince()));
+    }
+
+    /**
+     * Results are memoized per rate snapshot version by {@link MortgageCheckCache}, cached checks are timed and
+     * tagged with their outcome like computed ones. A check reads one snapshot for its rate, annuity factor, rate
+     * source and cache key, so a reload in between cannot mix rates of two versions into one result.
+     */
     public MortgageCheckResponse checkMortgage(MortgageCheckRequest request) {
+        return timedCheck(request.getMaturityPeriod(),
+                snapshot -> mortgageCheckCache.get(snapshot.getVersion(), request, () -> evaluate(snapshot, request)));
+    }
+
+    /**
+     * Amounts in cents are at most 17 digits, so four times the income does not overflow a long.
+     */
+    public MortgageCheckResponse checkMortgage(MortgageCheckCents request) {
+        return timedCheck(request.maturityPeriod(),
+                snapshot -> mortgageCheckCache.get(snapshot.getVersion(), request, () -> evaluate(snapshot, request)));
+    }
+
+    private MortgageCheckResponse timedCheck(Integer maturityPeriod,
+                                             Function<MortgageRateSnapshot, MortgageCheckCache.Result> check) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            MortgageCheckCache.Result result = check.apply(mortgageRateRepository.getSnapshot());
+            outcome = result.outcome();
+            return result.response();
+        } catch (DataNotAvailableException ex) {
+            outcome = Outcome.NO_RATE;
+            throw ex;
+        } finally {
+            mortgageMetrics.recordCheck(maturityPeriod, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private MortgageCheckCache.Result evaluate(MortgageRateSnapshot snapshot, MortgageCheckRequest request) {
         boolean isIncomeFeasible = request.getLoanValue()
                 .compareTo(request.getIncome().multiply(MAX_INCOME_MULTIPLIER)) <= 0;
 
@@ -35,18 +180,180 @@ public class MortgageServiceImpl implements MortgageService {
                 .compareTo(request.getHomeValue()) <= 0;
 
         if (!isIncomeFeasible || !isValueFeasible) {
-            return new MortgageCheckResponse(false, BigDecimal.ZERO);
+            return new MortgageCheckCache.Result(new MortgageCheckResponse(false, BigDecimal.ZERO),
+                    isIncomeFeasible ? Outcome.INFEASIBLE_VALUE : Outcome.INFEASIBLE_INCOME);
+        }
+        MortgageRate rate = findRate(snapshot, request.getMaturityPeriod(), request.getAsOf());
+
+        BigDecimal monthlyCost = calculateMonthlyPayment(snapshot, request.getMaturityPeriod(), rate, request.getLoanValue(), request.getAsOf());
+
+        return new MortgageCheckCache.Result(
+                new MortgageCheckResponse(true, monthlyCost, rateSource(snapshot, request.getMaturityPeriod(), request.getAsOf())),
+                Outcome.FEASIBLE);
+    }
+
+    private MortgageCheckCache.Result evaluate(MortgageRateSnapshot snapshot, MortgageCheckCents request) {
+        boolean isIncomeFeasible = request.loanValueCents() <= request.incomeCents() * MAX_INCOME_MULTIPLIER_VALUE;
+
+        boolean isValueFeasible = request.loanValueCents() <= request.homeValueCents();
+
+        if (!isIncomeFeasible || !isValueFeasible) {
+            return new MortgageCheckCache.Result(new MortgageCheckResponse(false, BigDecimal.ZERO),
+                    isIncomeFeasible ? Outcome.INFEASIBLE_VALUE : Outcome.INFEASIBLE_INCOME);
         }
-        MortgageRate rate = mortgageRateRepository.findByMaturityPeriod(request.getMaturityPeriod())
-                .orElseThrow(() -> new DataNotAvailableException("No interest rate found for maturity period: " + request.getMaturityPeriod()));
+        MortgageRate rate = findRate(snapshot, request.maturityPeriod());
 
-        BigDecimal monthlyCost = monthlyPaymentCalculationUtil.calculateMonthlyPayment(
-                request.getLoanValue(),
-                rate.getInterestRate(),
-                request.getMaturityPeriod()
-        );
+        BigDecimal monthlyCost = calculateMonthlyPayment(snapshot, request.maturityPeriod(), rate, BigDecimal.valueOf(request.loanValueCents(), 2));
+
+        return new MortgageCheckCache.Result(
+                new MortgageCheckResponse(true, monthlyCost, rateSource(snapshot, request.maturityPeriod(), null)),
+                Outcome.FEASIBLE);
+    }
+
+    public AmortizationSchedule getAmortizationSchedule(AmortizationScheduleRequest request) {
+        MortgageRateSnapshot snapshot = mortgageRateRepository.getSnapshot();
+        MortgageRate rate = findRate(snapshot, request.getMaturityPeriod());
+        BigDecimal monthlyPayment = calculateMonthlyPayment(snapshot, request.getMaturityPeriod(), rate, request.getLoanValue());
+        return new AmortizationSchedule(request.getLoanValue(), rate.getInterestRate(), request.getMaturityPeriod(), monthlyPayment);
+    }
+
+    /**
+     * The largest loan passing the checks of {@link #checkMortgage} is the lower of the income and home value
+     * limits, both cut to whole cents so the loan never exceeds them by a fraction of a cent. A maximum monthly
+     * payment M adds the limit payment(loan) <= M: as the payment is the loan times the annuity factor rounded half up
+     * to cents, that holds for every loan below (M + 0.005) / factor.
+     */
+    public MaxLoanResponse getMaxLoan(MaxLoanRequest request) {
+        MortgageRateSnapshot snapshot = mortgageRateRepository.getSnapshot();
+        MortgageRate rate = findRate(snapshot, request.getMaturityPeriod());
+
+        BigDecimal maxLoan = centsDown(request.getIncome().multiply(MAX_INCOME_MULTIPLIER));
+        String limitedBy = "income";
+        BigDecimal homeValueLimit = centsDown(request.getHomeValue());
+        if (homeValueLimit.compareTo(maxLoan) < 0) {
+            maxLoan = homeValueLimit;
+            limitedBy = "home-value";
+        }
+        if (request.getMaxMonthlyPayment() != null) {
+            BigDecimal paymentLimit = maxLoanForPayment(snapshot, request.getMaturityPeriod(), rate, request.getMaxMonthlyPayment());
+            if (paymentLimit.compareTo(maxLoan) < 0) {
+                maxLoan = paymentLimit;
+                limitedBy = "monthly-payment";
+            }
+        }
+
+        BigDecimal monthlyCost = calculateMonthlyPayment(snapshot, request.getMaturityPeriod(), rate, maxLoan);
+        return new MaxLoanResponse(maxLoan, monthlyCost, limitedBy, rateSource(snapshot, request.getMaturityPeriod(), null));
+    }
+
+    private static BigDecimal centsDown(BigDecimal amount) {
+        return amount.scale() > 2 ? amount.setScale(2, RoundingMode.DOWN) : amount;
+    }
+
+    private BigDecimal maxLoanForPayment(MortgageRateSnapshot snapshot, Integer maturityPeriod, MortgageRate rate,
+                                         BigDecimal maxMonthlyPayment) {
+        BigDecimal paymentBound = maxMonthlyPayment.setScale(2, RoundingMode.DOWN).add(HALF_CENT);
+        BigDecimal loan = findAnnuityFactor(snapshot, maturityPeriod, null)
+                .map(factor -> paymentBound.divide(factor, 2, RoundingMode.DOWN))
+                .orElseGet(() -> paymentBound.multiply(BigDecimal.valueOf(maturityPeriod * 12L)).setScale(2, RoundingMode.DOWN));
+//        A loan exactly on the bound rounds up to the next cent, step back until the payment fits
+        while (loan.signum() > 0 && calculateMonthlyPayment(snapshot, maturityPeriod, rate, loan).compareTo(maxMonthlyPayment) > 0) {
+            loan = loan.subtract(CENT);
+        }
+        return loan.max(BigDecimal.ZERO);
+    }
+
+    private MortgageRate findRate(MortgageRateSnapshot snapshot, Integer maturityPeriod) {
+        return findRate(snapshot, maturityPeriod, null);
+    }
+
+    /**
+     * Historical lookups go through the same index as live ones, a binary search over the versions of one period.
+     */
+    private MortgageRate findRate(MortgageRateSnapshot snapshot, Integer maturityPeriod, LocalDateTime asOf) {
+        Optional<MortgageRate> rate;
+        if (maturityPeriod == null) {
+            rate = Optional.empty();
+        } else {
+            rate = asOf == null
+                    ? snapshot.findByMaturityPeriod(maturityPeriod)
+                    : snapshot.findByMaturityPeriod(maturityPeriod, asOf);
+        }
+        return rate.orElseThrow(() -> {
+            mortgageMetrics.rateLookupMiss(maturityPeriod);
+            return new DataNotAvailableException(asOf == null
+                    ? "No interest rate found for maturity period: " + maturityPeriod
+                    : "No interest rate found for maturity period: " + maturityPeriod + " as of " + asOf);
+        });
+    }
+
+    /**
+     * Only current rates are interpolated, lookups as of a point in time use listed rates.
+     */
+    private static String rateSource(MortgageRateSnapshot snapshot, Integer maturityPeriod, LocalDateTime asOf) {
+        return asOf == null && maturityPeriod != null && snapshot.isInterpolated(maturityPeriod)
+                ? RATE_SOURCE_INTERPOLATED
+                : RATE_SOURCE_QUOTED;
+    }
+
+    private static Optional<BigDecimal> findAnnuityFactor(MortgageRateSnapshot snapshot, Integer maturityPeriod, LocalDateTime asOf) {
+        if (maturityPeriod == null) {
+            return Optional.empty();
+        }
+        return asOf == null
+                ? snapshot.findAnnuityFactor(maturityPeriod)
+                : snapshot.findAnnuityFactor(maturityPeriod, asOf);
+    }
+
+    private BigDecimal calculateMonthlyPayment(MortgageRateSnapshot snapshot, Integer maturityPeriod, MortgageRate rate,
+                                               BigDecimal loanValue) {
+        return calculateMonthlyPayment(snapshot, maturityPeriod, rate, loanValue, null);
+    }
+
+    private BigDecimal calculateMonthlyPayment(MortgageRateSnapshot snapshot, Integer maturityPeriod, MortgageRate rate,
+                                               BigDecimal loanValue, LocalDateTime asOf) {
+        return findAnnuityFactor(snapshot, maturityPeriod, asOf)
+                .map(factor -> paymentEngine.calculateMonthlyPayment(loanValue, factor))
+                .orElseGet(() -> paymentEngine.calculateMonthlyPayment(loanValue, rate.getInterestRate(), maturityPeriod));
+    }
+
+    public List<MortgageCheckBatchItem> checkMortgages(List<MortgageCheckRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one request");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch cannot contain more than " + MAX_BATCH_SIZE + " requests");
+        }
+        IntStream indexes = IntStream.range(0, requests.size());
+        if (requests.size() >= BATCH_PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        return indexes
+                .mapToObj(index -> checkMortgageItem(index, requests.get(index)))
+                .toList();
+    }
+
+    public MortgageCheckBatchItem checkMortgageItem(long index, MortgageCheckRequest request) {
+        if (request == null) {
+            return errorItem(index, "Request is required", HttpStatus.BAD_REQUEST);
+        }
+        Set<ConstraintViolation<MortgageCheckRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return errorItem(index, ValidationErrors.firstMessage(violations), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new MortgageCheckBatchItem(index, checkMortgage(request), null);
+        } catch (DataNotAvailableException ex) {
+            return errorItem(index, ex.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (Exception ex) {
+            log.error("Unexpected error in batch item {}: {}", index, ex.getMessage(), ex);
+            return errorItem(index, "An unexpected error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 
-        return new MortgageCheckResponse(true, monthlyCost);
+    private MortgageCheckBatchItem errorItem(long index, String message, HttpStatus status) {
+        return new MortgageCheckBatchItem(index, null,
+                new ErrorResponse(message, status.value(), System.currentTimeMillis()));
     }
 
 }
\ No newline at end of file
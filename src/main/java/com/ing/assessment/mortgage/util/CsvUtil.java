@@ -2,74 +2,112 @@ package com.ing.assessment.mortgage.util;
 
 import com.ing.assessment.mortgage.dto.MortgageRate;
 import com.ing.assessment.mortgage.exception.CsvLoadException;
+import com.ing.assessment.mortgage.repo.MortgageRateSnapshot;
+import com.ing.assessment.mortgage.repo.RateInterpolation;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_MATURITY_PERIOD;
 
 /**
  * Utility class to load mortgage rate data from a CSV file mortgage-rates.csv.
+ * The file is read from the classpath, or from mortgage.rates.file when that is set, in which case
+ * it can be reloaded at runtime. Every successful load is published as a new snapshot with one atomic swap.
+ * The file is parsed by {@link RateFileLoader}; rows that cannot be parsed are left out and kept in the quarantine
+ * report of the last load.
  */
 @Component
 @Slf4j
 public class CsvUtil {
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-    private List<MortgageRate> mortgageRateList = new ArrayList<>();
+    private static final int QUARANTINE_LOG_ROWS = 20;
+    private final AtomicReference<MortgageRateSnapshot> mortgageRateSnapshot = new AtomicReference<>(MortgageRateSnapshot.EMPTY);
+    private volatile RateFileLoader.QuarantineReport quarantineReport = RateFileLoader.QuarantineReport.EMPTY;
+
+    @Value("${mortgage.rates.file:}")
+    private String ratesFile;
+
+    @Value("${mortgage.rates.curve:none}")
+    private String rateCurve;
+
+    @Value("${mortgage.rates.max-maturity-period:" + MAX_MATURITY_PERIOD + "}")
+    private int maxMaturityPeriod = MAX_MATURITY_PERIOD;
 
     @PostConstruct
     public void init() {
-        this.mortgageRateList = Collections.unmodifiableList(loadMortgageRateData());
-        log.info("Loaded {} Mortgage Rates from CSV", mortgageRateList.size());
+        publish(loadMortgageRateData());
+        log.info("Loaded {} Mortgage Rates from CSV", getMortgageRateSnapshot().size());
     }
 
-    private List<MortgageRate> loadMortgageRateData() {
-        List<MortgageRate> interestRatesList = new ArrayList<>();
-
-        try (InputStream is = new ClassPathResource("mortgage-rates.csv").getInputStream();
-             Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
-             CSVParser parser = new CSVParser(reader, CSVFormat.Builder.create()
-                     .setHeader("Maturity Period", "Interest Rate", "Last Update")
-                     .setSkipHeaderRecord(true)
-                     .setIgnoreSurroundingSpaces(true)
-                     .build())) {
-
-            parser.stream()
-                    .forEach(record -> {
-                        try {
-                            Integer maturityPeriod = Integer.parseInt(record.get("Maturity Period").trim());
-                            BigDecimal interestRate = new BigDecimal(record.get("Interest Rate").trim());
-                            LocalDateTime localDateTime = LocalDateTime.parse(record.get("Last Update").trim(), DATE_FORMATTER);
-
-                            interestRatesList.add(MortgageRate.builder().
-                                    interestRate(interestRate).
-                                    maturityPeriod(maturityPeriod).
-                                    lastUpdate(localDateTime).
-                                    build());
-                        } catch (Exception e) {
-                            throw new IllegalArgumentException("Error parsing CSV row: " + String.join(",", record), e);
-                        }
-                    });
+    /**
+     * Re-reads the rate file and publishes it as a new snapshot. When the file cannot be read or has no valid rows,
+     * the current snapshot is kept.
+     *
+     * @return true when a new snapshot was published
+     */
+    public boolean reload() {
+        try {
+            List<MortgageRate> rates = loadMortgageRateData();
+            if (rates.isEmpty()) {
+                log.error("Mortgage Rate CSV has no valid rows, keeping {} loaded rates", getMortgageRateSnapshot().size());
+                return false;
+            }
+            publish(rates);
+            log.info("Reloaded {} Mortgage Rates from CSV, snapshot version {}", rates.size(), getMortgageRateSnapshot().getVersion());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Error reloading Mortgage Rate CSV, keeping {} loaded rates: {}", getMortgageRateSnapshot().size(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void publish(List<MortgageRate> rates) {
+        mortgageRateSnapshot.updateAndGet(current -> MortgageRateSnapshot.of(rates, current.getVersion() + 1,
+                RateInterpolation.fromValue(rateCurve)));
+    }
 
+    private List<MortgageRate> loadMortgageRateData() {
+        RateFileLoader.Result result;
+        try {
+            Optional<Path> path = getRatesFile();
+            result = path.isPresent()
+                    ? RateFileLoader.load(path.get(), maxMaturityPeriod)
+                    : RateFileLoader.load(new ClassPathResource("mortgage-rates.csv").getContentAsByteArray(), maxMaturityPeriod);
         } catch (IOException e) {
             log.error("Error loading Mortgage Rate CSV", e);
             throw new CsvLoadException("Failed to load Mortgage Rate data", e);
         }
 
-        return interestRatesList;
+        RateFileLoader.QuarantineReport quarantine = result.quarantine();
+        quarantineReport = quarantine;
+        log.info("Parsed {} Mortgage Rate rows in {} ms ({} rows/s), {} quarantined",
+                result.rates().size(), result.nanos() / 1_000_000, result.rowsPerSecond(), quarantine.count());
+        if (quarantine.count() > 0) {
+            quarantine.rows().stream()
+                    .limit(QUARANTINE_LOG_ROWS)
+                    .forEach(row -> log.warn("Quarantined Mortgage Rate CSV line {}: {} ({})", row.line(), row.row(), row.reason()));
+        }
+        return result.rates();
+    }
+
+    /**
+     * Returns the external rate file location, empty when rates are read from the classpath.
+     *
+     * @return
+     */
+    public Optional<Path> getRatesFile() {
+        if (ratesFile == null || ratesFile.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(Path.of(ratesFile.trim()));
     }
 
     /**
@@ -78,7 +116,25 @@ public class CsvUtil {
      * @return
      */
     public List<MortgageRate> getMortgageRateList() {
-        return mortgageRateList;
+        return getMortgageRateSnapshot().getRates();
+    }
+
+    /**
+     * Returns the loaded mortgage rates with their maturity period index and annuity factors.
+     *
+     * @return
+     */
+    public MortgageRateSnapshot getMortgageRateSnapshot() {
+        return mortgageRateSnapshot.get();
+    }
+
+    /**
+     * Returns the rows of the last read rate file that could not be parsed.
+     *
+     * @return
+     */
+    public RateFileLoader.QuarantineReport getQuarantineReport() {
+        return quarantineReport;
     }
 
 
@@ -0,0 +1,91 @@
+package com.ing.assessment.mortgage.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment engine in primitive double arithmetic, selected with mortgage.payment.engine=double.
+ * The payment in cents is computed with a known worst-case relative error; when the result is closer than that
+ * to a half cent, where HALF_UP rounding could go either way, it is recalculated with the exact
+ * {@link MonthlyPaymentCalculationUtil}. The results are therefore identical to the BigDecimal engine.
+ * <p>
+ * From a precomputed annuity factor the only error is the double rounding of the inputs and two multiplications,
+ * so almost every payment is served from the fast path. From the rate the factor is computed with log1p/expm1,
+ * and the error bound also covers the 10 digit rounding of the BigDecimal formula it has to reproduce, which makes
+ * the fallback more frequent for very large loans.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "mortgage.payment.engine", havingValue = "double")
+@RequiredArgsConstructor
+public class DoublePaymentEngine implements PaymentEngine {
+    /**
+     * Relative error of principal * factor * 100 in double: four roundings, doubled for margin.
+     */
+    static final double FACTOR_RELATIVE_ERROR = 8 * 0x1p-53;
+    /**
+     * Relative error of the 10 digit BigDecimal annuity factor (monthly rate, power, numerator, division),
+     * a term that grows as (1 + i)^n approaches 1 is added per call.
+     */
+    static final double RATE_RELATIVE_ERROR = 2.6e-9;
+    static final double RATE_CANCELLATION_ERROR = 5.2e-10;
+    /**
+     * Above this many cents a double no longer has enough fraction bits to decide the rounding.
+     */
+    static final double MAX_CENTS = 0x1p50;
+    private static final double ABSOLUTE_ERROR = 0x1p-40;
+    private static final double MONTHLY_RATE_DIVISOR = 1200;
+
+    private final MonthlyPaymentCalculationUtil exactEngine;
+
+    @Override
+    public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal annualRatePercent, int years) {
+        if (principal.signum() <= 0 || annualRatePercent.signum() <= 0 || years <= 0) {
+            return exactEngine.calculateMonthlyPayment(principal, annualRatePercent, years);
+        }
+
+//        M = P * i / (1 - (1 + i)^-n), with (1 + i)^-n = exp(-n * log1p(i))
+        double monthlyRate = annualRatePercent.doubleValue() / MONTHLY_RATE_DIVISOR;
+        double denominator = -Math.expm1(-(years * 12) * Math.log1p(monthlyRate));
+        double cents = principal.doubleValue() * (monthlyRate / denominator) * 100;
+        double relativeError = RATE_RELATIVE_ERROR + RATE_CANCELLATION_ERROR / denominator;
+
+        long rounded = roundHalfUp(cents, relativeError);
+        return rounded < 0
+                ? exactEngine.calculateMonthlyPayment(principal, annualRatePercent, years)
+                : BigDecimal.valueOf(rounded, 2);
+    }
+
+    @Override
+    public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal annuityFactor) {
+        if (principal.signum() <= 0) {
+            return exactEngine.calculateMonthlyPayment(principal, annuityFactor);
+        }
+
+        double cents = principal.doubleValue() * annuityFactor.doubleValue() * 100;
+
+        long rounded = roundHalfUp(cents, FACTOR_RELATIVE_ERROR);
+        return rounded < 0
+                ? exactEngine.calculateMonthlyPayment(principal, annuityFactor)
+                : BigDecimal.valueOf(rounded, 2);
+    }
+
+    /**
+     * Rounds a positive amount of cents half up, or returns -1 when the error bound does not allow to decide.
+     */
+    static long roundHalfUp(double cents, double relativeError) {
+        if (!(cents < MAX_CENTS)) {
+            return -1;
+        }
+        double whole = Math.floor(cents);
+        double fraction = cents - whole;
+        if (Math.abs(fraction - 0.5) <= cents * relativeError + ABSOLUTE_ERROR) {
+            return -1;
+        }
+        return (long) whole + (fraction > 0.5 ? 1 : 0);
+    }
+}
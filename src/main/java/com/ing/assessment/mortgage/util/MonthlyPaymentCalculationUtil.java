@@ -10,9 +10,10 @@ import static com.ing.assessment.mortgage.util.MortgageConstants.*;
 /**
  * Utility class to calculate monthly mortgage payments using the standard mortgage formula available on wikipedia:
  * M = P [ i(1 + i)^n ] / [ (1 + i)^n – 1 ]
+ * This is the exact payment engine, and the reference for {@link DoublePaymentEngine}.
  */
 @Component
-public class MonthlyPaymentCalculationUtil {
+public class MonthlyPaymentCalculationUtil implements PaymentEngine {
     /**
      * Calculates the monthly payment for a given loan amount, annual interest rate, and loan term.
      *
@@ -21,6 +22,7 @@ public class MonthlyPaymentCalculationUtil {
      * @param years
      * @return
      */
+    @Override
     public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal annualRatePercent, int years) {
         if (principal.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
@@ -31,6 +33,39 @@ public class MonthlyPaymentCalculationUtil {
             return principal.divide(BigDecimal.valueOf(totalMonths), 2, RoundingMode.HALF_UP);
         }
 
+        return calculateMonthlyPayment(principal, calculateAnnuityFactor(annualRatePercent, years));
+    }
+
+    /**
+     * Calculates the monthly payment from a precomputed annuity factor, see {@link #calculateAnnuityFactor}.
+     * Gives the same result as {@link #calculateMonthlyPayment(BigDecimal, BigDecimal, int)} for a non-zero rate.
+     *
+     * @param principal
+     * @param annuityFactor
+     * @return
+     */
+    @Override
+    public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal annuityFactor) {
+        if (principal.compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+
+//        M = P * (Numerator / Denominator)
+        return principal
+                .multiply(annuityFactor)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates the annuity factor i(1 + i)^n / ((1 + i)^n – 1) for a non-zero annual interest rate and loan term.
+     * The factor only depends on the rate row, so it can be computed once when the rates are loaded.
+     *
+     * @param annualRatePercent
+     * @param years
+     * @return
+     */
+    public static BigDecimal calculateAnnuityFactor(BigDecimal annualRatePercent, int years) {
+        int totalMonths = years * 12;
         BigDecimal monthlyRate = annualRatePercent
                 .divide(PERCENT_DIVISOR, MATH_CONTEXT)
                 .divide(MONTHS_IN_YEAR, MATH_CONTEXT);
@@ -46,10 +81,7 @@ public class MonthlyPaymentCalculationUtil {
 //         Denominator: (1 + i)^n - 1
         BigDecimal denominator = multiplier.subtract(BigDecimal.ONE, MATH_CONTEXT);
 
-//         M = P * (Numerator / Denominator)
-        return principal
-                .multiply(numerator.divide(denominator, MATH_CONTEXT))
-                .setScale(2, RoundingMode.HALF_UP);
+        return numerator.divide(denominator, MATH_CONTEXT);
     }
 
 }
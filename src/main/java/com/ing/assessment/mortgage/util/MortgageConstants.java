@@ -10,4 +10,18 @@ public final class MortgageConstants {
     public static final BigDecimal PERCENT_DIVISOR = BigDecimal.valueOf(100);
     public static final BigDecimal MONTHS_IN_YEAR = BigDecimal.valueOf(12);
     public static final MathContext MATH_CONTEXT = new MathContext(10, RoundingMode.HALF_UP);
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int BATCH_PARALLEL_THRESHOLD = 32;
+    public static final int STREAM_FLUSH_INTERVAL = 256;
+    public static final int MAX_STREAM_LINE_LENGTH = 16 * 1024;
+    public static final int MAX_DECODED_CHECK_BODY_BYTES = 4 * 1024;
+    public static final int DEFAULT_RATE_PAGE_SIZE = 100;
+    public static final int MAX_RATE_PAGE_SIZE = 1000;
+    public static final long RATE_FILE_SETTLE_MILLIS = 500;
+    public static final int RATE_FILE_CHUNK_BYTES = 8 * 1024 * 1024;
+    public static final int MAX_QUARANTINED_ROWS = 1000;
+    public static final int MAX_TAGGED_MATURITY_PERIOD = 50;
+    public static final int MAX_MATURITY_PERIOD = 100;
+    public static final String RATE_SOURCE_QUOTED = "quoted";
+    public static final String RATE_SOURCE_INTERPOLATED = "interpolated";
 }
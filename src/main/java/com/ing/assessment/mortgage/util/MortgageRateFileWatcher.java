@@ -0,0 +1,108 @@
+package com.ing.assessment.mortgage.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.RATE_FILE_SETTLE_MILLIS;
+
+/**
+ * Watches the external mortgage rate file (mortgage.rates.file) and reloads it on a background thread
+ * when it changes. Reload count and duration are published as the mortgage.rates.reload timer, tagged by outcome.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MortgageRateFileWatcher {
+    public static final String RELOAD_TIMER = "mortgage.rates.reload";
+
+    private final CsvUtil csvUtil;
+    private final MeterRegistry meterRegistry;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    @PostConstruct
+    public void start() throws IOException {
+        Optional<Path> ratesFile = csvUtil.getRatesFile();
+        if (ratesFile.isEmpty()) {
+            log.info("No external Mortgage Rate file configured, rates are not reloaded");
+            return;
+        }
+        Path file = ratesFile.get().toAbsolutePath();
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watcherThread = new Thread(() -> watch(file.getFileName()), "mortgage-rate-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        log.info("Watching Mortgage Rate file {} for changes", file);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch(Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = isChanged(key, fileName);
+                if (changed) {
+                    awaitSettled(fileName);
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Mortgage Rate file watcher stopped");
+        }
+    }
+
+    /**
+     * Waits until the file has not changed for a short while, so a file that is still being written is not read.
+     */
+    private void awaitSettled(Path fileName) throws InterruptedException {
+        WatchKey key;
+        while ((key = watchService.poll(RATE_FILE_SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+            isChanged(key, fileName);
+        }
+    }
+
+    private boolean isChanged(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    void reload() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean reloaded = csvUtil.reload();
+        sample.stop(meterRegistry.timer(RELOAD_TIMER, "outcome", reloaded ? "success" : "failure"));
+    }
+}
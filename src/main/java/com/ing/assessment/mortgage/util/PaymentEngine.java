@@ -0,0 +1,31 @@
+package com.ing.assessment.mortgage.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Calculates monthly annuity payments, rounded HALF_UP to 2 decimals.
+ * {@link MonthlyPaymentCalculationUtil} is the exact BigDecimal engine; mortgage.payment.engine=double selects
+ * {@link DoublePaymentEngine}, which gives the same results.
+ */
+public interface PaymentEngine {
+
+    /**
+     * Calculates the monthly payment for a given loan amount, annual interest rate, and loan term.
+     *
+     * @param principal
+     * @param annualRatePercent
+     * @param years
+     * @return
+     */
+    BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal annualRatePercent, int years);
+
+    /**
+     * Calculates the monthly payment from an annuity factor precomputed with
+     * {@link MonthlyPaymentCalculationUtil#calculateAnnuityFactor}.
+     *
+     * @param principal
+     * @param annuityFactor
+     * @return
+     */
+    BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal annuityFactor);
+}
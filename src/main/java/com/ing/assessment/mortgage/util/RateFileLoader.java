@@ -0,0 +1,444 @@
+package com.ing.assessment.mortgage.util;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_MATURITY_PERIOD;
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_QUARANTINED_ROWS;
+import static com.ing.assessment.mortgage.util.MortgageConstants.RATE_FILE_CHUNK_BYTES;
+
+/**
+ * Parses rate files of any size: "Maturity Period,Interest Rate,Last Update" with dates as dd-MM-yyyy HH:mm:ss.
+ * A file is memory-mapped and split into chunks on line boundaries, the chunks are parsed in parallel on the
+ * common fork-join pool and joined in file order, so the rows keep their order. Fields are parsed straight from
+ * the bytes: numbers without an intermediate String, and dates with a per-chunk cache, as rate files repeat the
+ * same timestamp on many rows. A row that cannot be parsed is quarantined with its line number and the reason,
+ * instead of failing the load; so is a row with a maturity period above the maximum, by default
+ * {@value MortgageConstants#MAX_MATURITY_PERIOD} years. The first line is the header, empty lines are skipped.
+ */
+public final class RateFileLoader {
+    private static final int SCAN_WINDOW = 4096;
+    private static final int MAX_REPORTED_ROW_LENGTH = 200;
+
+    private RateFileLoader() {
+    }
+
+    /**
+     * Loads the rates from a file.
+     *
+     * @param file
+     * @return
+     * @throws IOException when the file cannot be read
+     */
+    public static Result load(Path file) throws IOException {
+        return load(file, MAX_MATURITY_PERIOD);
+    }
+
+    /**
+     * Loads the rates from a file, rows with a longer maturity period than maxMaturityPeriod are quarantined.
+     *
+     * @param file
+     * @param maxMaturityPeriod
+     * @return
+     * @throws IOException when the file cannot be read
+     */
+    public static Result load(Path file, int maxMaturityPeriod) throws IOException {
+        return load(file, RATE_FILE_CHUNK_BYTES, maxMaturityPeriod);
+    }
+
+    static Result load(Path file, int chunkBytes, int maxMaturityPeriod) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(channel, chunkBytes);
+            try {
+                List<ChunkResult> results = chunks.parallelStream()
+                        .map(chunk -> parse(map(channel, chunk), chunk[0] == 0, maxMaturityPeriod))
+                        .toList();
+                return merge(results, start);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Loads the rates from the content of a file, e.g. a classpath resource.
+     *
+     * @param content
+     * @return
+     */
+    public static Result load(byte[] content) {
+        return load(content, MAX_MATURITY_PERIOD);
+    }
+
+    /**
+     * Loads the rates from the content of a file, rows with a longer maturity period than maxMaturityPeriod are
+     * quarantined.
+     *
+     * @param content
+     * @param maxMaturityPeriod
+     * @return
+     */
+    public static Result load(byte[] content, int maxMaturityPeriod) {
+        return load(content, RATE_FILE_CHUNK_BYTES, maxMaturityPeriod);
+    }
+
+    static Result load(byte[] content, int chunkBytes, int maxMaturityPeriod) {
+        long start = System.nanoTime();
+        List<long[]> chunks = split(content, chunkBytes);
+        List<ChunkResult> results = chunks.parallelStream()
+                .map(chunk -> parse(ByteBuffer.wrap(content, (int) chunk[0], (int) (chunk[1] - chunk[0])).slice(), chunk[0] == 0,
+                        maxMaturityPeriod))
+                .toList();
+        return merge(results, start);
+    }
+
+    /**
+     * Splits the file into chunks of about chunkBytes that end right after a line feed, or at the end of the file.
+     */
+    private static List<long[]> split(FileChannel channel, int chunkBytes) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + chunkBytes, size);
+            if (end < size) {
+                long scan = end - 1;
+                end = size;
+                int read;
+                while ((read = channel.read(window.clear(), scan)) > 0) {
+                    int newline = indexOf(window, read);
+                    if (newline >= 0) {
+                        end = scan + newline + 1;
+                        break;
+                    }
+                    scan += read;
+                }
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long at offset " + start);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int indexOf(ByteBuffer window, int read) {
+        for (int i = 0; i < read; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<long[]> split(byte[] content, int chunkBytes) {
+        List<long[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < content.length) {
+            int end = (int) Math.min((long) start + chunkBytes, content.length);
+            while (end < content.length && content[end - 1] != '\n') {
+                end++;
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long[] chunk) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ChunkResult parse(ByteBuffer buffer, boolean firstChunk, int maxMaturityPeriod) {
+        ChunkParser parser = new ChunkParser(buffer, maxMaturityPeriod);
+        int limit = buffer.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int eol = pos;
+            while (eol < limit && buffer.get(eol) != '\n') {
+                eol++;
+            }
+            int end = eol > pos && buffer.get(eol - 1) == '\r' ? eol - 1 : eol;
+            parser.lines++;
+            if (!(firstChunk && parser.lines == 1) && end > pos) {
+                parser.parseRow(pos, end);
+            }
+            pos = eol + 1;
+        }
+        return parser.result();
+    }
+
+    private static Result merge(List<ChunkResult> results, long start) {
+        int rows = 0;
+        for (ChunkResult result : results) {
+            rows += result.rates.size();
+        }
+        List<MortgageRate> rates = new ArrayList<>(rows);
+        List<QuarantinedRow> quarantined = new ArrayList<>();
+        long quarantinedCount = 0;
+        long lineOffset = 0;
+        for (ChunkResult result : results) {
+            rates.addAll(result.rates);
+            for (QuarantinedRow row : result.quarantined) {
+                if (quarantined.size() < MAX_QUARANTINED_ROWS) {
+                    quarantined.add(new QuarantinedRow(lineOffset + row.line(), row.row(), row.reason()));
+                }
+            }
+            quarantinedCount += result.quarantinedCount;
+            lineOffset += result.lines;
+        }
+        return new Result(rates, new QuarantineReport(quarantinedCount, quarantined), System.nanoTime() - start);
+    }
+
+    /**
+     * Parses the rows of one chunk. Not thread safe, every chunk gets its own parser.
+     */
+    private static final class ChunkParser {
+        private static final int DATE_LENGTH = 19;
+        private static final int MAX_LONG_DIGITS = 18;
+
+        private final ByteBuffer buffer;
+        private final int maxMaturityPeriod;
+        private final List<MortgageRate> rates;
+        private final List<QuarantinedRow> quarantined = new ArrayList<>();
+        private final byte[] lastDate = new byte[DATE_LENGTH];
+        private LocalDateTime lastParsedDate;
+        private long quarantinedCount;
+        private long lines;
+
+        private ChunkParser(ByteBuffer buffer, int maxMaturityPeriod) {
+            this.buffer = buffer;
+            this.maxMaturityPeriod = maxMaturityPeriod;
+            this.rates = new ArrayList<>(buffer.limit() / 32 + 1);
+        }
+
+        private void parseRow(int from, int to) {
+            int first = indexOf(',', from, to);
+            int second = first < 0 ? -1 : indexOf(',', first + 1, to);
+            if (second < 0 || indexOf(',', second + 1, to) >= 0) {
+                quarantine(from, to, "Expected 3 fields");
+                return;
+            }
+            try {
+                int maturityPeriod = parseInt(first(from, first), last(from, first));
+                if (maturityPeriod > maxMaturityPeriod) {
+                    throw new RowException("Maturity period above " + maxMaturityPeriod + " years");
+                }
+                BigDecimal interestRate = parseDecimal(first(first + 1, second), last(first + 1, second));
+                LocalDateTime lastUpdate = parseDate(first(second + 1, to), last(second + 1, to));
+                rates.add(new MortgageRate(maturityPeriod, interestRate, lastUpdate));
+            } catch (RowException | NumberFormatException | DateTimeException e) {
+                quarantine(from, to, e.getMessage());
+            }
+        }
+
+        private int indexOf(char c, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Start of a field without surrounding spaces and quotes.
+         */
+        private int first(int from, int to) {
+            while (from < to && buffer.get(from) == ' ') {
+                from++;
+            }
+            return from < to && buffer.get(from) == '"' ? from + 1 : from;
+        }
+
+        /**
+         * End of a field without surrounding spaces and quotes.
+         */
+        private int last(int from, int to) {
+            while (to > from && buffer.get(to - 1) == ' ') {
+                to--;
+            }
+            return to > from && buffer.get(to - 1) == '"' ? to - 1 : to;
+        }
+
+        private int parseInt(int from, int to) throws RowException {
+            boolean negative = from < to && buffer.get(from) == '-';
+            if (from < to && (negative || buffer.get(from) == '+')) {
+                from++;
+            }
+            if (from >= to) {
+                throw new RowException("Missing maturity period");
+            }
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new RowException("Invalid maturity period");
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw new RowException("Invalid maturity period");
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw new RowException("Invalid maturity period");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Parses [sign] digits [. digits] into the same BigDecimal as new BigDecimal(String), including its scale.
+         * Longer numbers and exponents are rare and left to the BigDecimal parser.
+         */
+        private BigDecimal parseDecimal(int from, int to) throws RowException {
+            int i = from;
+            boolean negative = i < to && buffer.get(i) == '-';
+            if (i < to && (negative || buffer.get(i) == '+')) {
+                i++;
+            }
+            long unscaled = 0;
+            int digits = 0;
+            int scale = -1;
+            for (; i < to; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                    continue;
+                }
+                int digit = b - '0';
+                if (digit < 0 || digit > 9 || digits == MAX_LONG_DIGITS) {
+                    return new BigDecimal(ascii(from, to));
+                }
+                unscaled = unscaled * 10 + digit;
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            }
+            if (digits == 0) {
+                throw new RowException("Invalid interest rate");
+            }
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+
+        /**
+         * Parses dd-MM-yyyy HH:mm:ss, reusing the previous result for the same timestamp.
+         */
+        private LocalDateTime parseDate(int from, int to) throws RowException {
+            if (to - from != DATE_LENGTH) {
+                throw new RowException("Invalid last update");
+            }
+            if (lastParsedDate != null && sameAsLastDate(from)) {
+                return lastParsedDate;
+            }
+            if (buffer.get(from + 2) != '-' || buffer.get(from + 5) != '-' || buffer.get(from + 10) != ' '
+                    || buffer.get(from + 13) != ':' || buffer.get(from + 16) != ':') {
+                throw new RowException("Invalid last update");
+            }
+            LocalDateTime date = LocalDateTime.of(
+                    digits(from + 6, 4), digits(from + 3, 2), digits(from, 2),
+                    digits(from + 11, 2), digits(from + 14, 2), digits(from + 17, 2));
+            for (int i = 0; i < DATE_LENGTH; i++) {
+                lastDate[i] = buffer.get(from + i);
+            }
+            lastParsedDate = date;
+            return date;
+        }
+
+        private boolean sameAsLastDate(int from) {
+            for (int i = 0; i < DATE_LENGTH; i++) {
+                if (buffer.get(from + i) != lastDate[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int digits(int from, int count) throws RowException {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new RowException("Invalid last update");
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private String ascii(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(from + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void quarantine(int from, int to, String reason) {
+            quarantinedCount++;
+            if (quarantined.size() < MAX_QUARANTINED_ROWS) {
+                String row = ascii(from, Math.min(to, from + MAX_REPORTED_ROW_LENGTH));
+                quarantined.add(new QuarantinedRow(lines, row, reason));
+            }
+        }
+
+        private ChunkResult result() {
+            return new ChunkResult(rates, quarantined, quarantinedCount, lines);
+        }
+    }
+
+    /**
+     * Stackless, thrown for every bad row of a bad file.
+     */
+    private static final class RowException extends Exception {
+        private RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private record ChunkResult(List<MortgageRate> rates, List<QuarantinedRow> quarantined, long quarantinedCount, long lines) {
+    }
+
+    /**
+     * Parsed rates in file order, the quarantined rows and the load time.
+     */
+    public record Result(List<MortgageRate> rates, QuarantineReport quarantine, long nanos) {
+        public long rowsPerSecond() {
+            long rows = rates.size() + quarantine.count();
+            return nanos == 0 ? rows : rows * 1_000_000_000L / nanos;
+        }
+    }
+
+    /**
+     * Rows that could not be parsed. Only the first {@code MAX_QUARANTINED_ROWS} are kept, count has them all.
+     */
+    public record QuarantineReport(long count, List<QuarantinedRow> rows) {
+        public static final QuarantineReport EMPTY = new QuarantineReport(0, List.of());
+    }
+
+    /**
+     * A row that could not be parsed, with its 1-based line number in the file.
+     */
+    public record QuarantinedRow(long line, String row, String reason) {
+    }
+}
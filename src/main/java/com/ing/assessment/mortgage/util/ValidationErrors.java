@@ -0,0 +1,81 @@
+package com.ing.assessment.mortgage.util;
+
+import jakarta.validation.ConstraintViolation;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Picks the validation error that is reported for a request. Validators return their violations as a set, so the
+ * first one of the set can differ from run to run when several constraints fail; the error of the first field in
+ * declaration order of the validated class is reported instead, the order in which the inline checks of
+ * {@link com.ing.assessment.mortgage.dto.MortgageCheckCents} run.
+ */
+public final class ValidationErrors {
+    private static final ClassValue<List<String>> FIELDS = new ClassValue<>() {
+        @Override
+        protected List<String> computeValue(Class<?> type) {
+            List<String> fields = new ArrayList<>();
+            for (Class<?> declaring = type; declaring != null && declaring != Object.class; declaring = declaring.getSuperclass()) {
+                fields.addAll(0, Arrays.stream(declaring.getDeclaredFields())
+                        .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                        .map(Field::getName)
+                        .toList());
+            }
+            return List.copyOf(fields);
+        }
+    };
+
+    private ValidationErrors() {
+    }
+
+    /**
+     * Message of the violation of the first field, violations of the same field are ordered by message.
+     *
+     * @param violations
+     * @return
+     */
+    public static <T> String firstMessage(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .min(Comparator.comparingInt((ConstraintViolation<T> violation) ->
+                                position(violation.getRootBeanClass(), violation.getPropertyPath().toString()))
+                        .thenComparing(violation -> violation.getPropertyPath().toString())
+                        .thenComparing(ConstraintViolation::getMessage))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+    }
+
+    /**
+     * The first error of the binding result: binding failures before validation errors, then class level errors
+     * before field errors and fields in declaration order.
+     *
+     * @param bindingResult
+     * @return
+     */
+    public static ObjectError firstError(BindingResult bindingResult) {
+        Class<?> type = bindingResult.getTarget() == null ? Object.class : bindingResult.getTarget().getClass();
+        return bindingResult.getAllErrors().stream()
+                .min(Comparator.comparing((ObjectError error) -> !(error instanceof FieldError fieldError && fieldError.isBindingFailure()))
+                        .thenComparingInt(error -> error instanceof FieldError fieldError ? position(type, fieldError.getField()) : -1)
+                        .thenComparing(error -> error instanceof FieldError fieldError ? fieldError.getField() : "")
+                        .thenComparing(error -> String.valueOf(error.getDefaultMessage())))
+                .orElseThrow();
+    }
+
+    private static int position(Class<?> type, String path) {
+        int end = 0;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+            end++;
+        }
+        int position = FIELDS.get(type).indexOf(path.substring(0, end));
+        return position < 0 ? Integer.MAX_VALUE : position;
+    }
+}
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS mortgage_rate (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    maturity_period INT           NOT NULL,
+    interest_rate   DECFLOAT      NOT NULL,
+    last_update     TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_mortgage_rate_maturity_period ON mortgage_rate (maturity_period);
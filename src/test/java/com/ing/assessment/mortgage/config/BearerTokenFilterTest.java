@@ -7,14 +7,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,8 +25,8 @@ class BearerTokenFilterTest {
 
     private static final String VALID_TOKEN = "unit-test-token";
 
-    @InjectMocks
-    private BearerTokenFilter filter = new BearerTokenFilter(VALID_TOKEN);
+    private final BearerTokenFilter filter = new BearerTokenFilter(new TokenAuthenticator(
+            List.of(new OpaqueTokenVerifier(VALID_TOKEN, List.of())), Duration.ofMinutes(5), 100));
 
     @Mock
     private HttpServletRequest request;
@@ -60,6 +62,32 @@ class BearerTokenFilterTest {
         assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
     }
 
+    @Test
+    @DisplayName("Valid token is authenticated on a new SecurityContext")
+    void validTokenUsesNewContext() throws Exception {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
+
+        filter.doFilterInternal(request, response, chain);
+
+        assertNotSame(previous, SecurityContextHolder.getContext());
+        assertNull(previous.getAuthentication());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Requests with the same token share one Authentication")
+    void sameTokenSharesAuthentication() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
+
+        filter.doFilterInternal(request, response, chain);
+        Authentication first = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, chain);
+
+        assertSame(first, SecurityContextHolder.getContext().getAuthentication());
+    }
+
     @Test
     @DisplayName("Missing authorization header returns 401")
     void missingHeaderReturns401() throws Exception {
@@ -0,0 +1,80 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.WebFilterChain;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BearerTokenWebFilterTest {
+
+    private static final String VALID_TOKEN = "unit-test-token";
+
+    private final BearerTokenWebFilter filter = new BearerTokenWebFilter(new TokenAuthenticator(
+            List.of(new OpaqueTokenVerifier(VALID_TOKEN, List.of())), Duration.ofMinutes(5), 100));
+
+    private final AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+    private final WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .doOnNext(authentication::set)
+            .then();
+
+    @Test
+    @DisplayName("Valid token authenticates the rest of the chain")
+    void testValidToken() {
+        MockServerWebExchange exchange = exchange("Bearer " + VALID_TOKEN);
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(exchange.getResponse().getStatusCode());
+        assertNotNull(authentication.get());
+        assertEquals("apiUser", authentication.get().getPrincipal());
+        assertTrue(authentication.get().getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("Missing authorization header returns 401")
+    void missingHeaderReturns401() {
+        assertUnauthorized(exchange(null));
+    }
+
+    @Test
+    @DisplayName("Invalid token returns 401")
+    void invalidTokenReturns401() {
+        assertUnauthorized(exchange("Bearer hghgfhgfhhg"));
+    }
+
+    @Test
+    @DisplayName("Authorization header without 'Bearer ' prefix returns 401")
+    void headerWithoutBearerPrefix() {
+        assertUnauthorized(exchange("Token " + VALID_TOKEN));
+    }
+
+    private void assertUnauthorized(MockServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals("{\"error\":\"Invalid or missing Bearer token\"}", exchange.getResponse().getBodyAsString().block());
+        assertNull(authentication.get());
+    }
+
+    private static MockServerWebExchange exchange(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/interest-rates");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ing.assessment.mortgage.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinaryFormatConfigTest {
+
+    private final BinaryFormatConfig config = new BinaryFormatConfig();
+
+    @Test
+    @DisplayName("CBOR and Smile converters keep the JSON settings and encode the same payload")
+    void binaryConvertersUseJsonSettings() throws Exception {
+        MortgageRate rate = new MortgageRate(10, new BigDecimal("3.450"), LocalDateTime.of(2025, 11, 1, 11, 30));
+        ObjectMapper cbor = config.cborHttpMessageConverter(jsonBuilder()).getObjectMapper();
+        ObjectMapper smile = config.smileHttpMessageConverter(jsonBuilder()).getObjectMapper();
+        ObjectMapper json = jsonBuilder().build();
+
+        JsonNode expected = json.readTree(json.writeValueAsBytes(rate));
+        JsonNode fromCbor = cbor.readTree(cbor.writeValueAsBytes(rate));
+        JsonNode fromSmile = smile.readTree(smile.writeValueAsBytes(rate));
+
+        assertEquals("2025-11-01T11:30:00", fromCbor.get("lastUpdate").textValue());
+        assertEquals(0, new BigDecimal("3.450").compareTo(fromCbor.get("interestRate").decimalValue()));
+        assertEquals(expected.get("lastUpdate"), fromSmile.get("lastUpdate"));
+        assertEquals(rate, cbor.readValue(cbor.writeValueAsBytes(rate), MortgageRate.class));
+        assertEquals(rate, smile.readValue(smile.writeValueAsBytes(rate), MortgageRate.class));
+    }
+
+    private static Jackson2ObjectMapperBuilder jsonBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
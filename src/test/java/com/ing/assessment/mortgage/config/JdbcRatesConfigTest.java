@@ -0,0 +1,67 @@
+package com.ing.assessment.mortgage.config;
+
+import com.ing.assessment.mortgage.repo.JdbcMortgageRateRepository;
+import com.ing.assessment.mortgage.repo.MortgageRateJdbcStore;
+import com.ing.assessment.mortgage.repo.MortgageRateRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthContributorRegistry;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("DataSource only in jdbc mode")
+class JdbcRatesConfigTest {
+
+    @Nested
+    @SpringBootTest
+    @DisplayName("csv mode")
+    class CsvMode {
+
+        @Autowired
+        private ApplicationContext applicationContext;
+
+        @Autowired
+        private HealthContributorRegistry healthContributors;
+
+        @Test
+        @DisplayName("Starts without DataSource, transaction manager or database health check")
+        void noDataSource() {
+            assertEquals(0, applicationContext.getBeanNamesForType(DataSource.class).length);
+            assertEquals(0, applicationContext.getBeanNamesForType(PlatformTransactionManager.class).length);
+            assertNull(healthContributors.getContributor("db"));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "mortgage.rates.repository=jdbc")
+    @DisplayName("jdbc mode")
+    class JdbcMode {
+
+        @Autowired
+        private ApplicationContext applicationContext;
+
+        @Autowired
+        private HealthContributorRegistry healthContributors;
+
+        @Test
+        @DisplayName("Reads rates through a transactional store with a database health check")
+        void dataSource() {
+            assertNotNull(applicationContext.getBean(DataSource.class));
+            assertInstanceOf(JdbcMortgageRateRepository.class, applicationContext.getBean(MortgageRateRepository.class));
+            assertTrue(AopUtils.isAopProxy(applicationContext.getBean(MortgageRateJdbcStore.class)));
+            assertNotNull(healthContributors.getContributor("db"));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ing.assessment.mortgage.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenVerifierTest {
+    private static final String ISSUER = "https://issuer.example.com";
+
+    @TempDir
+    static Path tempDir;
+
+    private static RSAKey signingKey;
+    private static RSAKey otherKey;
+    private static JwtTokenVerifier verifier;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        otherKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        Path jwksFile = tempDir.resolve("jwks.json");
+        Files.writeString(jwksFile, new JWKSet(signingKey.toPublicJWK()).toString());
+        verifier = new JwtTokenVerifier(jwksFile, ISSUER);
+    }
+
+    @Test
+    @DisplayName("Signed token is verified for its subject and expiry")
+    void validToken() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        TokenVerifier.VerifiedToken verified = verifier.verify(token(signingKey, ISSUER, expiresAt)).orElseThrow();
+
+        assertEquals("alice", verified.principal());
+        assertEquals(expiresAt.getEpochSecond(), verified.expiresAt().getEpochSecond());
+    }
+
+    @Test
+    @DisplayName("Token signed with an unknown key is rejected")
+    void wrongSignature() throws Exception {
+        assertTrue(verifier.verify(token(otherKey, ISSUER, Instant.now().plusSeconds(600))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Expired token is rejected")
+    void expiredToken() throws Exception {
+        assertTrue(verifier.verify(token(signingKey, ISSUER, Instant.now().minusSeconds(600))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Token of another issuer is rejected")
+    void wrongIssuer() throws Exception {
+        assertTrue(verifier.verify(token(signingKey, "https://other.example.com", Instant.now().plusSeconds(600))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Opaque token is not a JWT")
+    void opaqueToken() {
+        assertTrue(verifier.verify("secret-token").isEmpty());
+    }
+
+    private static String token(RSAKey key, String issuer, Instant expiresAt) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .subject("alice")
+                        .issuer(issuer)
+                        .expirationTime(Date.from(expiresAt))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
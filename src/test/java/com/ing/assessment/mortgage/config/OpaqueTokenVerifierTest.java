@@ -0,0 +1,42 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpaqueTokenVerifierTest {
+
+    private final OpaqueTokenVerifier verifier = new OpaqueTokenVerifier("legacy-token",
+            List.of("reporting:" + HexFormat.of().formatHex(TokenAuthenticator.sha256("reporting-token"))));
+
+    @Test
+    @DisplayName("Legacy token is verified for apiUser")
+    void legacyToken() {
+        assertEquals(OpaqueTokenVerifier.LEGACY_PRINCIPAL, verifier.verify("legacy-token").orElseThrow().principal());
+    }
+
+    @Test
+    @DisplayName("Hashed token is verified for its principal without expiry")
+    void hashedToken() {
+        TokenVerifier.VerifiedToken verified = verifier.verify("reporting-token").orElseThrow();
+
+        assertEquals("reporting", verified.principal());
+        assertNull(verified.expiresAt());
+    }
+
+    @Test
+    @DisplayName("Unknown token is rejected")
+    void unknownToken() {
+        assertTrue(verifier.verify("reporting-token2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Token without principal is a configuration error")
+    void invalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new OpaqueTokenVerifier("", List.of("abcdef")));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ing.assessment.mortgage.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.any;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimiter(0.5, 1, 100, nanos::get));
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Requests over the limit get 429 with Retry-After and do not reach the chain")
+    void rejectsOverLimit() throws Exception {
+        authenticate("partner");
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilterInternal(new MockHttpServletRequest(), admitted, chain);
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilterInternal(new MockHttpServletRequest(), rejected, chain);
+
+        assertEquals(200, admitted.getStatus());
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals("{\"error\":\"Too many requests\"}", rejected.getContentAsString());
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Unauthenticated requests are passed on")
+    void passesUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilterInternal(request, response, chain);
+        filter.doFilterInternal(request, response, chain);
+
+        verify(chain, times(2)).doFilter(request, response);
+        verifyNoMoreInteractions(chain);
+    }
+
+    private static void authenticate(String principal) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        SecurityContextHolder.setContext(context);
+    }
+}
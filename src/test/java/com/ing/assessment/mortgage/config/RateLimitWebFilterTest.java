@@ -0,0 +1,64 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitWebFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final RateLimitWebFilter filter = new RateLimitWebFilter(new RateLimiter(0.5, 1, 100, nanos::get));
+    private final AtomicInteger passed = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> Mono.fromRunnable(passed::incrementAndGet);
+
+    @Test
+    @DisplayName("Requests over the limit get 429 with Retry-After and do not reach the chain")
+    void rejectsOverLimit() {
+        MockServerWebExchange admitted = exchange();
+        filter.filter(admitted, chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("partner")))
+                .block();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        MockServerWebExchange rejected = exchange();
+        filter.filter(rejected, chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("partner")))
+                .block();
+
+        assertNull(admitted.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("2", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals("{\"error\":\"Too many requests\"}", rejected.getResponse().getBodyAsString().block());
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    @DisplayName("Unauthenticated requests are passed on")
+    void passesUnauthenticated() {
+        filter.filter(exchange(), chain).block();
+        filter.filter(exchange(), chain).block();
+
+        assertEquals(2, passed.get());
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(String principal) {
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of());
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/interest-rates"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(123_456_789L);
+
+    @Test
+    @DisplayName("A full bucket admits a burst, then one request per interval")
+    void burstThenRefill() {
+        RateLimiter limiter = new RateLimiter(10, 3, 100, nanos::get);
+
+        assertEquals(0, limiter.tryAcquire("partner"));
+        assertEquals(0, limiter.tryAcquire("partner"));
+        assertEquals(0, limiter.tryAcquire("partner"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("partner"));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(60), limiter.tryAcquire("partner"));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+        assertEquals(0, limiter.tryAcquire("partner"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("partner"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("partner"));
+        }
+        assertEquals(Map.of("partner", new RateLimiter.Counts(7, 3)), limiter.getCounts());
+    }
+
+    @Test
+    @DisplayName("Every principal has its own bucket")
+    void bucketPerPrincipal() {
+        RateLimiter limiter = new RateLimiter(1, 1, 100, nanos::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        assertEquals(Map.of("a", new RateLimiter.Counts(1, 1), "b", new RateLimiter.Counts(1, 0)), limiter.getCounts());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests never admit more than the burst")
+    void concurrentAdmission() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, 1000, 100, nanos::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> admitted = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                admitted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("partner") == 0) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> future : admitted) {
+                total += future.get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(1000, total);
+            assertEquals(new RateLimiter.Counts(1000, 7000), limiter.getCounts().get("partner"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A rate of 0 admits everything")
+    void disabled() {
+        RateLimiter limiter = new RateLimiter(0, 1, 100, nanos::get);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("partner"));
+        }
+        assertEquals(Map.of(), limiter.getCounts());
+    }
+}
@@ -0,0 +1,66 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "api.bearer.token=reactive-test-token"})
+@DisplayName("Requests served on the reactive runtime")
+class ReactiveModeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext applicationContext;
+
+    @Test
+    @DisplayName("The reactive runtime runs on Netty")
+    void runsOnNetty() {
+        assertInstanceOf(NettyWebServer.class, applicationContext.getWebServer());
+    }
+
+    @Test
+    @DisplayName("Requests are authenticated by bearer token")
+    void requestsAreAuthenticated() {
+        assertEquals(HttpStatus.OK, getInterestRates("reactive-test-token").getStatusCode());
+        ResponseEntity<String> unauthorized = getInterestRates("wrong-token");
+        assertEquals(HttpStatus.UNAUTHORIZED, unauthorized.getStatusCode());
+        assertEquals("{\"error\":\"Invalid or missing Bearer token\"}", unauthorized.getBody());
+    }
+
+    @Test
+    @DisplayName("Errors are mapped as on the servlet runtime")
+    void errorsAreMapped() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("reactive-test-token");
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = restTemplate.exchange("/api/mortgage-check", HttpMethod.POST,
+                new HttpEntity<>("{\"income\":60000,\"maturityPeriod\":7,\"loanValue\":100000,\"homeValue\":200000}",
+                        headers), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"status\":404"));
+    }
+
+    private ResponseEntity<String> getInterestRates(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange("/api/interest-rates", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenAuthenticatorTest {
+    private static final Instant NOW = Instant.parse("2025-12-01T12:00:00Z");
+
+    @Mock
+    private TokenVerifier jwtVerifier;
+
+    @Mock
+    private TokenVerifier opaqueVerifier;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private TokenAuthenticator tokenAuthenticator;
+
+    @BeforeEach
+    void setup() {
+        tokenAuthenticator = new TokenAuthenticator(List.of(jwtVerifier, opaqueVerifier), Duration.ofMinutes(5), 100,
+                nanos::get, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Verified tokens are cached")
+    void verifiedTokenIsCached() {
+        when(jwtVerifier.verify("token")).thenReturn(Optional.of(new TokenVerifier.VerifiedToken("alice", null)));
+
+        Authentication first = tokenAuthenticator.authenticate("token").orElseThrow();
+        Authentication second = tokenAuthenticator.authenticate("token").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("alice", first.getPrincipal());
+        assertTrue(first.isAuthenticated());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        verify(jwtVerifier, times(1)).verify("token");
+        verifyNoInteractions(opaqueVerifier);
+    }
+
+    @Test
+    @DisplayName("The shared Authentication cannot be changed")
+    void authenticationIsImmutable() {
+        when(jwtVerifier.verify("token")).thenReturn(Optional.of(new TokenVerifier.VerifiedToken("alice", null)));
+
+        Authentication authentication = tokenAuthenticator.authenticate("token").orElseThrow();
+
+        assertThrows(UnsupportedOperationException.class, () -> authentication.setAuthenticated(false));
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((AbstractAuthenticationToken) authentication).setDetails("details"));
+        assertTrue(authentication.isAuthenticated());
+        assertNull(authentication.getDetails());
+    }
+
+    @Test
+    @DisplayName("Cached tokens are verified again after the TTL")
+    void cachedTokenExpiresAfterTtl() {
+        when(jwtVerifier.verify("token")).thenReturn(Optional.of(new TokenVerifier.VerifiedToken("alice", null)));
+
+        tokenAuthenticator.authenticate("token");
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        tokenAuthenticator.authenticate("token");
+
+        verify(jwtVerifier, times(2)).verify("token");
+    }
+
+    @Test
+    @DisplayName("Cached tokens are verified again once the token expires")
+    void cachedTokenExpiresWithToken() {
+        when(jwtVerifier.verify("token")).thenReturn(Optional.of(
+                new TokenVerifier.VerifiedToken("alice", NOW.plusSeconds(30))));
+
+        tokenAuthenticator.authenticate("token");
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        tokenAuthenticator.authenticate("token");
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        tokenAuthenticator.authenticate("token");
+
+        verify(jwtVerifier, times(2)).verify("token");
+    }
+
+    @Test
+    @DisplayName("The next verifier is tried when a verifier rejects the token")
+    void fallsBackToNextVerifier() {
+        when(jwtVerifier.verify("opaque")).thenReturn(Optional.empty());
+        when(opaqueVerifier.verify("opaque")).thenReturn(Optional.of(new TokenVerifier.VerifiedToken("apiUser", null)));
+
+        assertEquals("apiUser", tokenAuthenticator.authenticate("opaque").orElseThrow().getPrincipal());
+    }
+
+    @Test
+    @DisplayName("Rejected tokens are not cached")
+    void rejectedTokenIsNotCached() {
+        when(jwtVerifier.verify("bad")).thenReturn(Optional.empty());
+        when(opaqueVerifier.verify("bad")).thenReturn(Optional.empty());
+
+        assertTrue(tokenAuthenticator.authenticate("bad").isEmpty());
+        assertTrue(tokenAuthenticator.authenticate("bad").isEmpty());
+
+        verify(jwtVerifier, times(2)).verify("bad");
+    }
+
+    @Test
+    @DisplayName("Different tokens of one principal share the Authentication")
+    void authenticationIsSharedPerPrincipal() {
+        when(jwtVerifier.verify(anyString())).thenReturn(Optional.of(new TokenVerifier.VerifiedToken("alice", null)));
+
+        assertSame(tokenAuthenticator.authenticate("first").orElseThrow(),
+                tokenAuthenticator.authenticate("second").orElseThrow());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ing.assessment.mortgage.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "api.bearer.token=virtual-test-token"})
+@EnabledForJreRange(min = JRE.JAVA_21)
+@DisplayName("Requests served on virtual threads")
+class VirtualThreadModeTest {
+
+    private static final int REQUESTS = 64;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @DisplayName("Tomcat is configured with virtual threads")
+    void tomcatUsesVirtualThreads() {
+        assertFalse(applicationContext.getBeansOfType(TomcatVirtualThreadsWebServerFactoryCustomizer.class).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests are authenticated per request")
+    void concurrentRequestsAreAuthenticatedPerRequest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<HttpStatusCode>> authorized = new ArrayList<>();
+            List<Future<HttpStatusCode>> unauthorized = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                authorized.add(executor.submit(() -> getInterestRates("virtual-test-token")));
+                unauthorized.add(executor.submit(() -> getInterestRates("wrong-token")));
+            }
+
+            for (int i = 0; i < REQUESTS; i++) {
+                assertEquals(HttpStatus.OK, authorized.get(i).get());
+                assertEquals(HttpStatus.UNAUTHORIZED, unauthorized.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpStatusCode getInterestRates(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange("/api/interest-rates", HttpMethod.GET, new HttpEntity<>(headers), byte[].class)
+                .getStatusCode();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class InterestRatesResponseCacheTest {
+
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final InterestRatesResponseCache cache = new InterestRatesResponseCache(Jackson2ObjectMapperBuilder.json().build(),
+            new MappingJackson2CborHttpMessageConverter(cborMapper),
+            new MappingJackson2SmileHttpMessageConverter(smileMapper));
+
+    @Test
+    @DisplayName("Entry is reused for the same rate list and rebuilt for a new one")
+    void rebuildsOnlyWhenRatesChange() {
+        List<MortgageRate> rates = List.of(new MortgageRate(1, BigDecimal.TEN, LocalDateTime.of(2025, 11, 1, 11, 30)));
+        List<MortgageRate> reloaded = List.of(new MortgageRate(1, BigDecimal.ONE, LocalDateTime.of(2025, 12, 1, 11, 30)));
+
+        InterestRatesResponseCache.Entry entry = cache.get(rates);
+
+        assertSame(entry, cache.get(rates));
+        InterestRatesResponseCache.Entry reloadedEntry = cache.get(reloaded);
+        assertNotSame(entry, reloadedEntry);
+        assertNotEquals(entry.getEtag(), reloadedEntry.getEtag());
+    }
+
+    @Test
+    @DisplayName("CBOR and Smile encodings decode to the same rates, with their own ETags")
+    void binaryEncodings() throws Exception {
+        List<MortgageRate> rates = List.of(
+                new MortgageRate(1, new BigDecimal("15.10"), LocalDateTime.of(2025, 11, 1, 11, 30)),
+                new MortgageRate(30, new BigDecimal("3.255"), LocalDateTime.of(2025, 12, 1, 21, 30)));
+
+        InterestRatesResponseCache.Entry entry = cache.get(rates);
+
+        assertEquals(rates, cborMapper.readValue(entry.getCbor(), new TypeReference<List<MortgageRate>>() {
+        }));
+        assertEquals(rates, smileMapper.readValue(entry.getSmile(), new TypeReference<List<MortgageRate>>() {
+        }));
+        assertEquals(4, Set.of(entry.getEtag(), entry.getGzipEtag(), entry.getCborEtag(), entry.getSmileEtag()).size());
+    }
+
+    @Test
+    @DisplayName("Binary encodings are serialized on first use, once per entry")
+    void binaryEncodingsAreLazy() throws Exception {
+        ObjectMapper cbor = spy(cborMapper);
+        ObjectMapper smile = spy(smileMapper);
+        InterestRatesResponseCache lazyCache = new InterestRatesResponseCache(Jackson2ObjectMapperBuilder.json().build(),
+                new MappingJackson2CborHttpMessageConverter(cbor), new MappingJackson2SmileHttpMessageConverter(smile));
+        List<MortgageRate> rates = List.of(new MortgageRate(1, BigDecimal.TEN, LocalDateTime.of(2025, 11, 1, 11, 30)));
+
+        InterestRatesResponseCache.Entry entry = lazyCache.get(rates);
+        verify(cbor, never()).writeValueAsBytes(any());
+
+        assertSame(entry.getCbor(), lazyCache.get(rates).getCbor());
+        entry.getCborEtag();
+        verify(cbor, times(1)).writeValueAsBytes(rates);
+        verify(smile, never()).writeValueAsBytes(any());
+    }
+
+    @Test
+    @DisplayName("Last modified is the newest lastUpdate")
+    void lastModifiedIsNewestUpdate() {
+        LocalDateTime newest = LocalDateTime.of(2025, 12, 1, 21, 30);
+        List<MortgageRate> rates = List.of(
+                new MortgageRate(1, BigDecimal.TEN, LocalDateTime.of(2025, 11, 1, 11, 30)),
+                new MortgageRate(2, BigDecimal.TEN, newest),
+                new MortgageRate(5, BigDecimal.TEN, null));
+
+        assertEquals(newest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), cache.get(rates).getLastModified());
+        assertEquals(-1L, cache.get(Collections.emptyList()).getLastModified());
+    }
+
+    @Test
+    @DisplayName("Same content gives the same strong ETag")
+    void sameContentSameEtag() {
+        LocalDateTime update = LocalDateTime.of(2025, 11, 1, 11, 30);
+        String etag = cache.get(List.of(new MortgageRate(1, BigDecimal.TEN, update))).getEtag();
+
+        assertEquals(etag, cache.get(List.of(new MortgageRate(1, BigDecimal.TEN, update))).getEtag());
+        assertEquals('"', etag.charAt(0));
+    }
+}
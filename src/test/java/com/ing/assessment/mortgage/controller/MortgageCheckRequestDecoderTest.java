@@ -0,0 +1,101 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MortgageCheckRequestDecoderTest {
+
+    private final MortgageCheckRequestDecoder decoder = new MortgageCheckRequestDecoder(new ObjectMapper().getFactory());
+
+    @Test
+    @DisplayName("Amounts are decoded into cents, in any field order and with unused nulls")
+    void decodesCents() {
+        MortgageCheckCents cents = decode("{\"homeValue\":200000.5,\"loanValue\":150000.25,\"asOf\":null,"
+                + "\"maturityPeriod\":15,\"income\":-0.00}");
+
+        assertEquals(new MortgageCheckCents(0, 15, 15_000_025, 20_000_050), cents);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0", "12, 1200", "12.3, 1230", "12.34, 1234", "12.3400, 1234", "-12.34, -1234",
+            "999999999999999.99, 99999999999999999"})
+    @DisplayName("Numbers with at most two significant decimals are converted exactly")
+    void toCents(String number, long cents) {
+        assertEquals(cents, MortgageCheckRequestDecoder.toCents(number.toCharArray(), 0, number.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"income\":60000.001,\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":6E4,\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":1000000000000000,\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":\"60000\",\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":60000,\"maturityPeriod\":15.0,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":60000,\"maturityPeriod\":9999999999,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":60000,\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000,\"asOf\":\"2025-06-01T00:00:00\"}",
+            "{\"income\":60000,\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000,\"note\":1}",
+            "{\"income\":[60000],\"maturityPeriod\":15,\"loanValue\":150000,\"homeValue\":200000}",
+            "{\"income\":60000,\"maturityPeriod\":",
+            "[]",
+            "null",
+            ""})
+    @DisplayName("Bodies that data binding may read differently are left to data binding")
+    void notDecoded(String body) {
+        assertNull(decode(body));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "{\"maturityPeriod\":0,\"loanValue\":null}|Income is required",
+            "{\"income\":-0.01,\"maturityPeriod\":0}|Income cannot be negative",
+            "{\"income\":1,\"loanValue\":-1}|Maturity period is required",
+            "{\"income\":1,\"maturityPeriod\":0}|Maturity period must be at least 1 year",
+            "{\"income\":1,\"maturityPeriod\":1,\"loanValue\":null,\"homeValue\":0}|Loan value is required",
+            "{\"income\":1,\"maturityPeriod\":1,\"loanValue\":-1,\"homeValue\":0}|Loan value cannot be negative",
+            "{\"income\":1,\"maturityPeriod\":1,\"loanValue\":1}|Home value is required",
+            "{\"income\":1,\"maturityPeriod\":1,\"loanValue\":1,\"homeValue\":-5}|Home value cannot be negative"})
+    @DisplayName("The validation rules of MortgageCheckRequest apply with the same messages")
+    void validates(String body, String message) {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class, () -> decode(body));
+
+        assertEquals(message, ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("A later null clears an earlier value, as with data binding")
+    void lastValueWins() {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> decode("{\"income\":1,\"maturityPeriod\":1,\"loanValue\":1,\"homeValue\":1,\"homeValue\":null}"));
+
+        assertEquals("Home value is required", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Only UTF-8 JSON is decoded")
+    void utf8JsonOnly() {
+        assertTrue(MortgageCheckArgumentResolver.isUtf8Json("application/json"));
+        assertTrue(MortgageCheckArgumentResolver.isUtf8Json("application/json;charset=UTF-8"));
+        assertFalse(MortgageCheckArgumentResolver.isUtf8Json("application/json;charset=ISO-8859-1"));
+        assertFalse(MortgageCheckArgumentResolver.isUtf8Json("application/cbor"));
+        assertFalse(MortgageCheckArgumentResolver.isUtf8Json("application/json;charset=nope"));
+        assertFalse(MortgageCheckArgumentResolver.isUtf8Json(null));
+    }
+
+    private MortgageCheckCents decode(String body) {
+        return decoder.decode(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,33 +1,69 @@
 package com.ing.assessment.mortgage.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.ErrorResponse;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
 import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
 import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
 import com.ing.assessment.mortgage.dto.MortgageRate;
 import com.ing.assessment.mortgage.exception.DataNotAvailableException;
 import com.ing.assessment.mortgage.exception.GlobalExceptionHandler;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+import com.ing.assessment.mortgage.exception.SampledErrorLog;
+import com.ing.assessment.mortgage.service.AmortizationSchedule;
+import com.ing.assessment.mortgage.service.AmortizationScheduleWriter;
+import com.ing.assessment.mortgage.service.InterestRateStreamWriter;
+import com.ing.assessment.mortgage.service.MortgageCheckStreamService;
 import com.ing.assessment.mortgage.service.MortgageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_DECODED_CHECK_BODY_BYTES;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,9 +73,40 @@ class MortgageControllerTest {
     @Mock
     private MortgageService mortgageService;
 
+    @Mock
+    private MortgageCheckStreamService mortgageCheckStreamService;
+
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Spy
+    private InterestRatesResponseCache interestRatesResponseCache =
+            new InterestRatesResponseCache(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build(),
+                    new MappingJackson2CborHttpMessageConverter(cborMapper),
+                    new MappingJackson2SmileHttpMessageConverter(smileMapper));
+
+    @Spy
+    private AmortizationScheduleWriter amortizationScheduleWriter =
+            new AmortizationScheduleWriter(Jackson2ObjectMapperBuilder.json().build());
+
+    @Spy
+    private InterestRateStreamWriter interestRateStreamWriter =
+            new InterestRateStreamWriter(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build());
+
     @InjectMocks
     private MortgageController controller;
 
+    private final SampledErrorLog sampledErrorLog = new SampledErrorLog(Duration.ofMinutes(1));
+
     private MockMvc mockMvc;
 
     private final ObjectMapper mapper = new ObjectMapper();
@@ -47,7 +114,11 @@ class MortgageControllerTest {
     @BeforeEach
     void setup() {
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(sampledErrorLog))
+                .setCustomArgumentResolvers(new MortgageCheckArgumentResolver(mapper.getFactory(), () -> List.of(
+                        new MappingJackson2HttpMessageConverter(),
+                        new MappingJackson2CborHttpMessageConverter(cborMapper),
+                        new MappingJackson2SmileHttpMessageConverter(smileMapper))))
                 .build();
     }
 
@@ -76,6 +147,103 @@ class MortgageControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("GET /api/interest-rates sets a strong ETag and Last-Modified")
+    void getInterestRatesSetsEtag() throws Exception {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(1)
+                .lastUpdate(LocalDateTime.of(2025, 11, 1, 11, 30)).build();
+        when(mortgageService.getAllRates()).thenReturn(List.of(rate));
+
+        mockMvc.perform(get("/api/interest-rates"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$[0].lastUpdate").value("2025-11-01T11:30:00"));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates returns 304 when If-None-Match matches")
+    void getInterestRatesNotModified() throws Exception {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(1).lastUpdate(LocalDateTime.now()).build();
+        List<MortgageRate> rates = List.of(rate);
+        when(mortgageService.getAllRates()).thenReturn(rates);
+        String etag = interestRatesResponseCache.get(rates).getEtag();
+
+        mockMvc.perform(get("/api/interest-rates").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/interest-rates").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates returns the cached CBOR and Smile encodings when accepted")
+    void getInterestRatesBinary() throws Exception {
+        MortgageRate rate = MortgageRate.builder().interestRate(new BigDecimal("3.45")).maturityPeriod(10)
+                .lastUpdate(LocalDateTime.of(2025, 11, 1, 11, 30)).build();
+        List<MortgageRate> rates = List.of(rate);
+        when(mortgageService.getAllRates()).thenReturn(rates);
+
+        byte[] cbor = mockMvc.perform(get("/api/interest-rates")
+                        .header(HttpHeaders.ACCEPT, "application/cbor")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, interestRatesResponseCache.get(rates).getCborEtag()))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/interest-rates").header(HttpHeaders.ACCEPT, "application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode fromCbor = cborMapper.readTree(cbor).get(0);
+        assertEquals(10, fromCbor.get("maturityPeriod").intValue());
+        assertEquals(new BigDecimal("3.45"), fromCbor.get("interestRate").decimalValue());
+        assertEquals("2025-11-01T11:30:00", fromCbor.get("lastUpdate").textValue());
+        assertEquals(fromCbor, smileMapper.readTree(smile).get(0));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates returns the gzip variant when accepted")
+    void getInterestRatesGzip() throws Exception {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(1).lastUpdate(LocalDateTime.now()).build();
+        when(mortgageService.getAllRates()).thenReturn(List.of(rate));
+
+        byte[] body = mockMvc.perform(get("/api/interest-rates").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes());
+        assertTrue(json.contains("\"maturityPeriod\":1"));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates?asOf returns the rates in effect at that time")
+    void getInterestRatesAsOf() throws Exception {
+        LocalDateTime asOf = LocalDateTime.of(2025, 11, 15, 0, 0);
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.ONE).maturityPeriod(1)
+                .lastUpdate(LocalDateTime.of(2025, 11, 1, 11, 30)).build();
+        when(mortgageService.getAllRates(asOf)).thenReturn(List.of(rate));
+
+        mockMvc.perform(get("/api/interest-rates").param("asOf", "2025-11-15T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"")))
+                .andExpect(jsonPath("$[0].interestRate").value(1))
+                .andExpect(jsonPath("$[0].lastUpdate").value("2025-11-01T11:30:00"));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates with an invalid asOf -> 400")
+    void getInterestRatesInvalidAsOf() throws Exception {
+        mockMvc.perform(get("/api/interest-rates").param("asOf", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for parameter asOf"));
+    }
+
     @Test
     @DisplayName("POST /api/mortgage-check when mortgage is feasible")
     void testMortgageCheck() throws Exception {
@@ -85,7 +253,7 @@ class MortgageControllerTest {
         request.setLoanValue(BigDecimal.valueOf(150000));
         request.setHomeValue(BigDecimal.valueOf(200000));
         MortgageCheckResponse response = new MortgageCheckResponse(true, BigDecimal.valueOf(1111.55));
-        when(mortgageService.checkMortgage(any(MortgageCheckRequest.class))).thenReturn(response);
+        when(mortgageService.checkMortgage(new MortgageCheckCents(6_000_000, 15, 15_000_000, 20_000_000))).thenReturn(response);
 
         mockMvc.perform(post("/api/mortgage-check")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -95,6 +263,103 @@ class MortgageControllerTest {
                 .andExpect(jsonPath("$.monthlyCosts").value(1111.55));
     }
 
+    @Test
+    @DisplayName("POST /api/mortgage-check reads amounts with more than two decimals as MortgageCheckRequest")
+    void testMortgageCheckSubCentAmounts() throws Exception {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(60000));
+        request.setMaturityPeriod(15);
+        request.setLoanValue(new BigDecimal("150000.125"));
+        request.setHomeValue(BigDecimal.valueOf(200000));
+        when(mortgageService.checkMortgage(request)).thenReturn(new MortgageCheckResponse(true, new BigDecimal("1111.55")));
+
+        mockMvc.perform(post("/api/mortgage-check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyCosts").value(1111.55));
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check with a body over the decode limit is read as MortgageCheckRequest")
+    void testMortgageCheckLargeBody() throws Exception {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(60000));
+        request.setMaturityPeriod(15);
+        request.setLoanValue(BigDecimal.valueOf(150000));
+        request.setHomeValue(BigDecimal.valueOf(200000));
+        when(mortgageService.checkMortgage(request)).thenReturn(new MortgageCheckResponse(true, new BigDecimal("1111.55")));
+        String body = " ".repeat(MAX_DECODED_CHECK_BODY_BYTES) + mapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/mortgage-check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyCosts").value(1111.55));
+        mockMvc.perform(post("/api/mortgage-check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .with(MortgageControllerTest::withoutContentLength))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyCosts").value(1111.55));
+        verify(mortgageService, times(2)).checkMortgage(request);
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check with malformed JSON is a bad request")
+    void testMortgageCheckMalformed() throws Exception {
+        mockMvc.perform(post("/api/mortgage-check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"income\":60000,\"maturityPeriod\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Malformed request")));
+        assertEquals(Map.of("HttpMessageNotReadableException", 1L), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check reads and writes CBOR")
+    void testMortgageCheckCbor() throws Exception {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(60000));
+        request.setMaturityPeriod(15);
+        request.setLoanValue(BigDecimal.valueOf(150000));
+        request.setHomeValue(BigDecimal.valueOf(200000));
+        when(mortgageService.checkMortgage(request)).thenReturn(new MortgageCheckResponse(true, new BigDecimal("1111.55")));
+
+        byte[] body = mockMvc.perform(post("/api/mortgage-check")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode response = cborMapper.readTree(body);
+        assertTrue(response.get("feasible").booleanValue());
+        assertEquals(new BigDecimal("1111.55"), response.get("monthlyCosts").decimalValue());
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check returns the validation error as Smile when Smile is accepted")
+    void testMortgageCheckSmileError() throws Exception {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(60000));
+        request.setMaturityPeriod(15);
+        request.setHomeValue(BigDecimal.valueOf(200000));
+
+        byte[] body = mockMvc.perform(post("/api/mortgage-check")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ErrorResponse error = smileMapper.readValue(body, ErrorResponse.class);
+        assertEquals(400, error.getStatus());
+        assertEquals("Loan value is required", error.getMessage());
+    }
+
     @Test
     @DisplayName("POST /api/mortgage-check when mortgage is not feasible")
     void testMortgageCheckNotFeasible() throws Exception {
@@ -104,7 +369,7 @@ class MortgageControllerTest {
         request.setLoanValue(BigDecimal.valueOf(150000));
         request.setHomeValue(BigDecimal.valueOf(200000));
         MortgageCheckResponse response = new MortgageCheckResponse(false, BigDecimal.valueOf(0));
-        when(mortgageService.checkMortgage(any(MortgageCheckRequest.class))).thenReturn(response);
+        when(mortgageService.checkMortgage(any(MortgageCheckCents.class))).thenReturn(response);
 
         mockMvc.perform(post("/api/mortgage-check")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -123,7 +388,7 @@ class MortgageControllerTest {
         request.setMaturityPeriod(15);
         request.setLoanValue(BigDecimal.valueOf(150000));
         request.setHomeValue(BigDecimal.valueOf(200000));
-        when(mortgageService.checkMortgage(any(MortgageCheckRequest.class))).
+        when(mortgageService.checkMortgage(any(MortgageCheckCents.class))).
                 thenThrow(new DataNotAvailableException("No data for MaturityPeriod"));
 
         mockMvc.perform(post("/api/mortgage-check")
@@ -270,5 +535,208 @@ class MortgageControllerTest {
                 .andExpect(jsonPath("$.message", containsString("Home value cannot be negative")));
     }
 
+    @Test
+    @DisplayName("POST /api/mortgage-check/batch returns results per item")
+    void testMortgageCheckBatch() throws Exception {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(60000));
+        request.setMaturityPeriod(15);
+        request.setLoanValue(BigDecimal.valueOf(150000));
+        request.setHomeValue(BigDecimal.valueOf(200000));
+        List<MortgageCheckBatchItem> items = List.of(
+                new MortgageCheckBatchItem(0, new MortgageCheckResponse(true, BigDecimal.valueOf(1111.55)), null),
+                new MortgageCheckBatchItem(1, null, new ErrorResponse("Income is required", 400, 0L)));
+        when(mortgageService.checkMortgages(any())).thenReturn(items);
+
+        mockMvc.perform(post("/api/mortgage-check/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(request, new MortgageCheckRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].result.feasible").value(true))
+                .andExpect(jsonPath("$[0].result.monthlyCosts").value(1111.55))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error.status").value(400))
+                .andExpect(jsonPath("$[1].error.message").value("Income is required"));
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check/batch with empty batch -> 400")
+    void testMortgageCheckBatchEmpty() throws Exception {
+        when(mortgageService.checkMortgages(any())).thenThrow(new InvalidRequestException("Batch must contain at least one request"));
+
+        mockMvc.perform(post("/api/mortgage-check/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.message", containsString("at least one request")));
+    }
 
+    @Test
+    @DisplayName("POST /api/mortgage-check/stream streams NDJSON results")
+    void testMortgageCheckStream() throws Exception {
+        when(mortgageCheckStreamService.process(any(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class)
+                    .write("{\"index\":0,\"result\":{\"feasible\":true,\"monthlyCosts\":1.0}}\n".getBytes());
+            return 1L;
+        });
+
+        mockMvc.perform(post("/api/mortgage-check/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"income\":1,\"maturityPeriod\":1,\"loanValue\":1,\"homeValue\":1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"index\":0")));
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule streams a JSON array of rows")
+    void testAmortizationScheduleJson() throws Exception {
+        when(mortgageService.getAmortizationSchedule(any())).thenReturn(
+                new AmortizationSchedule(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1, BigDecimal.valueOf(1000)));
+
+        mockMvc.perform(post("/api/amortization-schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maturityPeriod\":1,\"loanValue\":12000}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(12)))
+                .andExpect(jsonPath("$[0].month").value(1))
+                .andExpect(jsonPath("$[0].principal").value(1000))
+                .andExpect(jsonPath("$[11].remainingBalance").value(0));
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule streams CSV when text/csv is accepted")
+    void testAmortizationScheduleCsv() throws Exception {
+        when(mortgageService.getAmortizationSchedule(any())).thenReturn(
+                new AmortizationSchedule(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1, BigDecimal.valueOf(1000)));
+
+        mockMvc.perform(post("/api/amortization-schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept("text/csv")
+                        .content("{\"maturityPeriod\":1,\"loanValue\":12000}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("month,payment,interest,principal,remainingBalance\n1,1000.00,0.00,1000.00,11000.00\n")))
+                .andExpect(content().string(containsString("\n12,1000.00,0.00,1000.00,0.00\n")));
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule without a rate -> 404")
+    void testAmortizationScheduleNoRate() throws Exception {
+        when(mortgageService.getAmortizationSchedule(any()))
+                .thenThrow(new DataNotAvailableException("No interest rate found for maturity period: 7"));
+
+        mockMvc.perform(post("/api/amortization-schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maturityPeriod\":7,\"loanValue\":12000}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)));
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule without a loan value -> 400")
+    void testAmortizationScheduleInvalid() throws Exception {
+        mockMvc.perform(post("/api/amortization-schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maturityPeriod\":7}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Loan value is required")));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates/page binds filters, cursor and limit")
+    void testGetInterestRatePage() throws Exception {
+        MortgageRate rate = new MortgageRate(10, BigDecimal.valueOf(3.5), LocalDateTime.of(2025, 1, 1, 0, 0));
+        when(mortgageService.getInterestRatePage(any(), eq("abc"), eq(5)))
+                .thenReturn(new InterestRatePage(List.of(rate), "next"));
+
+        mockMvc.perform(get("/api/interest-rates/page")
+                        .param("minMaturity", "5")
+                        .param("updatedSince", "2024-01-01T00:00:00")
+                        .param("cursor", "abc")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates[0].maturityPeriod").value(10))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        ArgumentCaptor<InterestRateFilter> filter = ArgumentCaptor.forClass(InterestRateFilter.class);
+        verify(mortgageService).getInterestRatePage(filter.capture(), eq("abc"), eq(5));
+        assertEquals(5, filter.getValue().getMinMaturity());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), filter.getValue().getUpdatedSince());
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates/page with an invalid filter value -> 400")
+    void testGetInterestRatePageInvalidFilter() throws Exception {
+        mockMvc.perform(get("/api/interest-rates/page").param("maxMaturity", "ten"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for parameter maxMaturity"));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates/stream writes one JSON line per rate")
+    void testStreamInterestRates() throws Exception {
+        when(mortgageService.streamInterestRates(any())).thenReturn(Stream.of(
+                new MortgageRate(5, BigDecimal.valueOf(3.0), LocalDateTime.of(2025, 1, 1, 0, 0)),
+                new MortgageRate(10, BigDecimal.valueOf(3.5), LocalDateTime.of(2025, 1, 1, 0, 0))));
+
+        String body = mockMvc.perform(get("/api/interest-rates/stream").param("maxMaturity", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("{\"maturityPeriod\":5,\"interestRate\":3.0,\"lastUpdate\":\"2025-01-01T00:00:00\"}\n"
+                + "{\"maturityPeriod\":10,\"interestRate\":3.5,\"lastUpdate\":\"2025-01-01T00:00:00\"}\n", body);
+    }
+
+    @Test
+    @DisplayName("POST /api/max-loan returns the maximum loan and its monthly costs")
+    void testMaxLoan() throws Exception {
+        when(mortgageService.getMaxLoan(any())).thenReturn(
+                new MaxLoanResponse(BigDecimal.valueOf(200000), new BigDecimal("2121.31"), "income", "interpolated"));
+
+        mockMvc.perform(post("/api/max-loan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"income\":50000,\"maturityPeriod\":10,\"homeValue\":300000}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxLoanValue").value(200000))
+                .andExpect(jsonPath("$.monthlyCosts").value(2121.31))
+                .andExpect(jsonPath("$.limitedBy").value("income"))
+                .andExpect(jsonPath("$.rateSource").value("interpolated"));
+    }
+
+    @Test
+    @DisplayName("POST /api/max-loan with a negative maximum payment -> 400")
+    void testMaxLoanInvalid() throws Exception {
+        mockMvc.perform(post("/api/max-loan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"income\":50000,\"maturityPeriod\":10,\"homeValue\":300000,\"maxMonthlyPayment\":-1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Maximum monthly payment cannot be negative")));
+    }
+
+    /**
+     * Sends the request body like a chunked request, without Content-Length.
+     */
+    private static MockHttpServletRequest withoutContentLength(MockHttpServletRequest request) {
+        MockHttpServletRequest chunked = new MockHttpServletRequest(request.getServletContext(),
+                request.getMethod(), request.getRequestURI()) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContentType(request.getContentType());
+        chunked.setContent(request.getContentAsByteArray());
+        return chunked;
+    }
 }
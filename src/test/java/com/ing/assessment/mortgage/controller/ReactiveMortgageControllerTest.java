@@ -0,0 +1,392 @@
+package com.ing.assessment.mortgage.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ing.assessment.mortgage.dto.ErrorResponse;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.exception.DataNotAvailableException;
+import com.ing.assessment.mortgage.exception.GlobalExceptionHandler;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+import com.ing.assessment.mortgage.exception.SampledErrorLog;
+import com.ing.assessment.mortgage.service.AmortizationSchedule;
+import com.ing.assessment.mortgage.service.AmortizationScheduleWriter;
+import com.ing.assessment.mortgage.service.MortgageCheckStreamService;
+import com.ing.assessment.mortgage.service.MortgageService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveMortgageControllerTest {
+
+    @Mock
+    private MortgageService mortgageService;
+
+    @Mock
+    private MortgageCheckStreamService mortgageCheckStreamService;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final InterestRatesResponseCache interestRatesResponseCache = new InterestRatesResponseCache(mapper,
+            new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build()),
+            new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile().build()));
+
+    private final SampledErrorLog sampledErrorLog = new SampledErrorLog(Duration.ofMinutes(1));
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setup() {
+        ReactiveMortgageController controller = new ReactiveMortgageController(mortgageService,
+                mortgageCheckStreamService, interestRatesResponseCache, new AmortizationScheduleWriter(mapper), mapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), "csv");
+        webTestClient = WebTestClient.bindToController(controller)
+                .controllerAdvice(new GlobalExceptionHandler(sampledErrorLog))
+                .httpMessageCodecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(mapper)))
+                .build();
+    }
+
+    private static MortgageCheckRequest checkRequest() {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(60000));
+        request.setMaturityPeriod(15);
+        request.setLoanValue(BigDecimal.valueOf(150000));
+        request.setHomeValue(BigDecimal.valueOf(200000));
+        return request;
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates returns the cached JSON with a strong ETag")
+    void getInterestRates() {
+        MortgageRate rate = new MortgageRate(1, BigDecimal.TEN, LocalDateTime.of(2025, 11, 1, 11, 30));
+        when(mortgageService.getAllRates()).thenReturn(List.of(rate));
+
+        webTestClient.get().uri("/api/interest-rates")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, startsWith("\""))
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .expectBody()
+                .jsonPath("$[0].maturityPeriod").isEqualTo(1)
+                .jsonPath("$[0].lastUpdate").isEqualTo("2025-11-01T11:30:00");
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates returns 304 when If-None-Match matches")
+    void getInterestRatesNotModified() {
+        List<MortgageRate> rates = List.of(new MortgageRate(1, BigDecimal.TEN, LocalDateTime.now()));
+        when(mortgageService.getAllRates()).thenReturn(rates);
+        String etag = interestRatesResponseCache.get(rates).getEtag();
+
+        webTestClient.get().uri("/api/interest-rates").header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webTestClient.get().uri("/api/interest-rates").header(HttpHeaders.IF_NONE_MATCH, "\"other\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates returns the gzip variant when accepted")
+    void getInterestRatesGzip() {
+        List<MortgageRate> rates = List.of(new MortgageRate(1, BigDecimal.TEN, LocalDateTime.now()));
+        when(mortgageService.getAllRates()).thenReturn(rates);
+
+        webTestClient.get().uri("/api/interest-rates").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(byte[].class).isEqualTo(interestRatesResponseCache.get(rates).getGzipJson());
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates with an invalid asOf -> 400")
+    void getInterestRatesInvalidAsOf() {
+        webTestClient.get().uri("/api/interest-rates?asOf=yesterday")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Invalid value for parameter asOf");
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check decodes JSON into cents")
+    void testMortgageCheck() {
+        when(mortgageService.checkMortgage(new MortgageCheckCents(6_000_000, 15, 15_000_000, 20_000_000)))
+                .thenReturn(new MortgageCheckResponse(true, BigDecimal.valueOf(1111.55)));
+
+        webTestClient.post().uri("/api/mortgage-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(checkRequest())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.feasible").isEqualTo(true)
+                .jsonPath("$.monthlyCosts").isEqualTo(1111.55);
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check reads amounts with more than two decimals as MortgageCheckRequest")
+    void testMortgageCheckSubCentAmounts() {
+        MortgageCheckRequest request = checkRequest();
+        request.setLoanValue(new BigDecimal("150000.125"));
+        when(mortgageService.checkMortgage(request)).thenReturn(new MortgageCheckResponse(true, new BigDecimal("1111.55")));
+
+        webTestClient.post().uri("/api/mortgage-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.monthlyCosts").isEqualTo(1111.55);
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check when Income is null -> 400")
+    void testMortgageCheckInvalidInput() {
+        MortgageCheckRequest request = checkRequest();
+        request.setIncome(null);
+
+        webTestClient.post().uri("/api/mortgage-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").value(containsString("Income is required"));
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check failing several constraints reports the first field in request order")
+    void testMortgageCheckSeveralViolations() {
+        webTestClient.post().uri("/api/mortgage-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"maturityPeriod\":0,\"loanValue\":-1,\"homeValue\":-1,\"asOf\":\"2025-01-01T00:00:00\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(MortgageCheckRequest.INCOME_REQUIRED);
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check with malformed JSON is answered as on the servlet runtime")
+    void testMortgageCheckMalformed() {
+        webTestClient.post().uri("/api/mortgage-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"income\":60000,\"maturityPeriod\":")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Malformed request");
+        assertEquals(Map.of("ServerWebInputException", 1L), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check handles service exception -> 404")
+    void mortgageCheckThrows() {
+        when(mortgageService.checkMortgage(any(MortgageCheckCents.class)))
+                .thenThrow(new DataNotAvailableException("No data for MaturityPeriod"));
+
+        webTestClient.post().uri("/api/mortgage-check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(checkRequest())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").value(containsString("No data"));
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check/batch returns results per item and maps service errors")
+    void testMortgageCheckBatch() {
+        when(mortgageService.checkMortgages(any())).thenReturn(List.of(
+                new MortgageCheckBatchItem(0, new MortgageCheckResponse(true, BigDecimal.valueOf(1111.55)), null),
+                new MortgageCheckBatchItem(1, null, new ErrorResponse("Income is required", 400, 0L))));
+
+        webTestClient.post().uri("/api/mortgage-check/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(checkRequest(), new MortgageCheckRequest()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].result.monthlyCosts").isEqualTo(1111.55)
+                .jsonPath("$[1].error.message").isEqualTo("Income is required");
+
+        when(mortgageService.checkMortgages(any())).thenThrow(new InvalidRequestException("Batch must contain at least one request"));
+
+        webTestClient.post().uri("/api/mortgage-check/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").value(containsString("at least one request"));
+    }
+
+    @Test
+    @DisplayName("POST /api/mortgage-check/stream checks each non-blank line")
+    void testMortgageCheckStream() {
+        String line = "{\"income\":1,\"maturityPeriod\":1,\"loanValue\":1,\"homeValue\":1}";
+        when(mortgageCheckStreamService.checkLine(0, line)).thenReturn(
+                new MortgageCheckBatchItem(0, new MortgageCheckResponse(true, BigDecimal.ONE), null));
+
+        webTestClient.post().uri("/api/mortgage-check/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(line + "\n\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo("{\"index\":0,\"result\":{\"feasible\":true,\"monthlyCosts\":1}}\n");
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule streams a JSON array of rows")
+    void testAmortizationScheduleJson() {
+        when(mortgageService.getAmortizationSchedule(any())).thenReturn(
+                new AmortizationSchedule(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1, BigDecimal.valueOf(1000)));
+
+        webTestClient.post().uri("/api/amortization-schedule")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"maturityPeriod\":1,\"loanValue\":12000}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(12)
+                .jsonPath("$[0].principal").isEqualTo(1000)
+                .jsonPath("$[11].remainingBalance").isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule streams CSV when text/csv is accepted")
+    void testAmortizationScheduleCsv() {
+        when(mortgageService.getAmortizationSchedule(any())).thenReturn(
+                new AmortizationSchedule(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1, BigDecimal.valueOf(1000)));
+
+        webTestClient.post().uri("/api/amortization-schedule")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.parseMediaType("text/csv"))
+                .bodyValue("{\"maturityPeriod\":1,\"loanValue\":12000}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectBody(String.class).value(startsWith(
+                        "month,payment,interest,principal,remainingBalance\n1,1000.00,0.00,1000.00,11000.00\n"));
+    }
+
+    @Test
+    @DisplayName("POST /api/amortization-schedule without a loan value -> 400")
+    void testAmortizationScheduleInvalid() {
+        webTestClient.post().uri("/api/amortization-schedule")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"maturityPeriod\":7}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").value(containsString("Loan value is required"));
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates/page binds filters, cursor and limit")
+    void testGetInterestRatePage() {
+        MortgageRate rate = new MortgageRate(10, BigDecimal.valueOf(3.5), LocalDateTime.of(2025, 1, 1, 0, 0));
+        when(mortgageService.getInterestRatePage(any(), eq("abc"), eq(5)))
+                .thenReturn(new InterestRatePage(List.of(rate), "next"));
+
+        webTestClient.get().uri("/api/interest-rates/page?minMaturity=5&updatedSince=2024-01-01T00:00:00&cursor=abc&limit=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.rates[0].maturityPeriod").isEqualTo(10)
+                .jsonPath("$.nextCursor").isEqualTo("next");
+
+        ArgumentCaptor<InterestRateFilter> filter = ArgumentCaptor.forClass(InterestRateFilter.class);
+        verify(mortgageService).getInterestRatePage(filter.capture(), eq("abc"), eq(5));
+        assertEquals(5, filter.getValue().getMinMaturity());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), filter.getValue().getUpdatedSince());
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates/page with an invalid filter value -> 400")
+    void testGetInterestRatePageInvalidFilter() {
+        webTestClient.get().uri("/api/interest-rates/page?maxMaturity=ten")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Invalid value for parameter maxMaturity");
+    }
+
+    @Test
+    @DisplayName("GET /api/interest-rates/stream writes one JSON line per rate")
+    void testStreamInterestRates() {
+        when(mortgageService.streamInterestRates(any())).thenReturn(Stream.of(
+                new MortgageRate(5, BigDecimal.valueOf(3.0), LocalDateTime.of(2025, 1, 1, 0, 0)),
+                new MortgageRate(10, BigDecimal.valueOf(3.5), LocalDateTime.of(2025, 1, 1, 0, 0))));
+
+        webTestClient.get().uri("/api/interest-rates/stream?maxMaturity=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(
+                        "{\"maturityPeriod\":5,\"interestRate\":3.0,\"lastUpdate\":\"2025-01-01T00:00:00\"}\n"
+                                + "{\"maturityPeriod\":10,\"interestRate\":3.5,\"lastUpdate\":\"2025-01-01T00:00:00\"}\n");
+    }
+
+    @Test
+    @DisplayName("POST /api/max-loan returns the maximum loan and rejects a negative maximum payment")
+    void testMaxLoan() {
+        when(mortgageService.getMaxLoan(any())).thenReturn(
+                new MaxLoanResponse(BigDecimal.valueOf(200000), new BigDecimal("2121.31"), "income", "interpolated"));
+
+        webTestClient.post().uri("/api/max-loan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"income\":50000,\"maturityPeriod\":10,\"homeValue\":300000}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.maxLoanValue").isEqualTo(200000)
+                .jsonPath("$.limitedBy").isEqualTo("income");
+
+        webTestClient.post().uri("/api/max-loan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"income\":50000,\"maturityPeriod\":10,\"homeValue\":300000,\"maxMonthlyPayment\":-1}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").value(containsString("Maximum monthly payment cannot be negative"));
+    }
+}
@@ -1,23 +1,43 @@
 package com.ing.assessment.mortgage.exception;
 
 import com.ing.assessment.mortgage.dto.ErrorResponse;
-import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.SynthesizingMethodParameter;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GlobalExceptionHandlerTest {
 
-    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final SampledErrorLog sampledErrorLog = new SampledErrorLog(Duration.ofMinutes(1));
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(sampledErrorLog);
 
     @Test
     @DisplayName("Test CsvLoadException")
     void csvLoadException() {
         CsvLoadException ex = new CsvLoadException("csv fail", new RuntimeException("io"));
-        ResponseEntity<ErrorResponse> resp = handler.handleCsvLoadException(ex, mock(HttpServletRequest.class));
+        ResponseEntity<ErrorResponse> resp = handler.handleCsvLoadException(ex);
         assertEquals(500, resp.getStatusCodeValue());
         assertEquals("csv fail", resp.getBody().getMessage());
     }
@@ -26,17 +46,132 @@ class GlobalExceptionHandlerTest {
     @DisplayName("Test DataNotAvailableException")
     void dataNotAvailable() {
         DataNotAvailableException ex = new DataNotAvailableException("no data");
-        ResponseEntity<ErrorResponse> resp = handler.handleDataNotAvailableException(ex, mock(HttpServletRequest.class));
+        ResponseEntity<ErrorResponse> resp = handler.handleDataNotAvailableException(ex);
         assertEquals(404, resp.getStatusCodeValue());
         assertEquals("no data", resp.getBody().getMessage());
+        assertEquals(Map.of("DataNotAvailableException", 1L), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Domain exceptions have no stack trace and can be shared")
+    void domainExceptionsAreStackless() {
+        DataNotAvailableException notAvailable = new DataNotAvailableException("no data");
+        InvalidRequestException invalid = new InvalidRequestException("bad");
+        invalid.addSuppressed(new IllegalStateException());
+
+        assertEquals(0, notAvailable.getStackTrace().length);
+        assertEquals(0, invalid.getStackTrace().length);
+        assertEquals(0, invalid.getSuppressed().length);
+    }
+
+    @Test
+    @DisplayName("Test InvalidRequestException")
+    void invalidRequest() {
+        InvalidRequestException ex = new InvalidRequestException("bad batch");
+        ResponseEntity<ErrorResponse> resp = handler.handleInvalidRequestException(ex);
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("bad batch", resp.getBody().getMessage());
     }
 
     @Test
     @DisplayName("Test Generic exceptions")
     void genericException() {
         Exception ex = new RuntimeException("uh-oh");
-        ResponseEntity<ErrorResponse> resp = handler.handleGenericException(ex, mock(HttpServletRequest.class));
+        ResponseEntity<ErrorResponse> resp = handler.handleGenericException(ex);
         assertEquals(500, resp.getStatusCodeValue());
         assertEquals("An unexpected error occurred", resp.getBody().getMessage());
+        assertEquals(Map.of(), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Malformed bodies are answered with 400 and a shared response, and counted")
+    void malformedRequest() {
+        HttpMessageNotReadableException ex = new HttpMessageNotReadableException("JSON parse error",
+                new MockHttpInputMessage(new byte[0]));
+
+        ResponseEntity<ErrorResponse> resp = handler.handleMessageNotReadableException(ex);
+        ResponseEntity<ErrorResponse> again = handler.handleMessageNotReadableException(ex);
+
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("Malformed request", resp.getBody().getMessage());
+        assertEquals(0, resp.getBody().getTimestamp() % 1000);
+        assertTrue(resp.getBody() == again.getBody() || again.getBody().getTimestamp() > resp.getBody().getTimestamp());
+        assertEquals(Map.of("HttpMessageNotReadableException", 2L), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Spring web client errors are answered with their status and headers, and counted")
+    void clientErrorException() {
+        HttpMediaTypeNotSupportedException ex = new HttpMediaTypeNotSupportedException(MediaType.TEXT_PLAIN,
+                List.of(MediaType.APPLICATION_JSON));
+
+        ResponseEntity<ErrorResponse> resp = handler.handleClientErrorException(ex);
+
+        assertEquals(415, resp.getStatusCodeValue());
+        assertEquals("Unsupported Media Type", resp.getBody().getMessage());
+        assertEquals(List.of(MediaType.APPLICATION_JSON), resp.getHeaders().getAccept());
+        assertEquals(Map.of("HttpMediaTypeNotSupportedException", 1L), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Spring web exceptions with a 5xx status are unexpected errors")
+    void serverErrorException() {
+        ErrorResponseException ex = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE);
+
+        ResponseEntity<ErrorResponse> resp = handler.handleClientErrorException(ex);
+
+        assertEquals(500, resp.getStatusCodeValue());
+        assertEquals("An unexpected error occurred", resp.getBody().getMessage());
+        assertEquals(Map.of(), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Test WebExchangeBindException")
+    void webExchangeBindException() throws Exception {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "request");
+        bindingResult.addError(new FieldError("request", "income", "Income is required"));
+        WebExchangeBindException ex = new WebExchangeBindException(asOfParameter(), bindingResult);
+        ResponseEntity<ErrorResponse> resp = handler.handleWebExchangeBindException(ex);
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("Income is required", resp.getBody().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test ServerWebInputException for a parameter of the wrong type")
+    void serverWebInputTypeMismatch() throws Exception {
+        ServerWebInputException ex = new ServerWebInputException("bad asOf", asOfParameter(),
+                new TypeMismatchException("yesterday", LocalDateTime.class));
+        ResponseEntity<ErrorResponse> resp = handler.handleServerWebInputException(ex);
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("Invalid value for parameter asOf", resp.getBody().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test ServerWebInputException for a body that cannot be decoded")
+    void serverWebInputMalformed() {
+        ServerWebInputException ex = new ServerWebInputException("Failed to read HTTP message", null,
+                new DecodingException("JSON decoding error"));
+        ResponseEntity<ErrorResponse> resp = handler.handleServerWebInputException(ex);
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("Malformed request", resp.getBody().getMessage());
+        assertEquals(Map.of("ServerWebInputException", 1L), sampledErrorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Test other ServerWebInputExceptions")
+    void serverWebInputOther() {
+        ServerWebInputException ex = new ServerWebInputException("missing parameter");
+        ResponseEntity<ErrorResponse> resp = handler.handleServerWebInputException(ex);
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("Bad Request", resp.getBody().getMessage());
+        assertEquals(Map.of("ServerWebInputException", 1L), sampledErrorLog.getCounts());
+    }
+
+    private static MethodParameter asOfParameter() throws NoSuchMethodException {
+        return new SynthesizingMethodParameter(GlobalExceptionHandlerTest.class.getDeclaredMethod("rates", LocalDateTime.class), 0);
+    }
+
+    @SuppressWarnings("unused")
+    private void rates(@RequestParam("asOf") LocalDateTime asOf) {
     }
 }
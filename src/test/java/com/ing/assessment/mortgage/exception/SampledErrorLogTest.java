@@ -0,0 +1,43 @@
+package com.ing.assessment.mortgage.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampledErrorLogTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SampledErrorLog errorLog = new SampledErrorLog(Duration.ofSeconds(60), nanos::get);
+
+    @Test
+    @DisplayName("Failures are counted per exception type")
+    void countsPerType() {
+        for (int i = 0; i < 1000; i++) {
+            errorLog.record(new DataNotAvailableException("No interest rate found for maturity period: 7"));
+        }
+        errorLog.record(new InvalidRequestException("Invalid cursor"));
+
+        assertEquals(Map.of("DataNotAvailableException", 1000L, "InvalidRequestException", 1L), errorLog.getCounts());
+    }
+
+    @Test
+    @DisplayName("Counts start over when the interval has ended")
+    void resetsAfterInterval() {
+        errorLog.record(new DataNotAvailableException("no data"));
+        errorLog.record(new DataNotAvailableException("no data"));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        errorLog.record(new DataNotAvailableException("no data"));
+        assertEquals(Map.of("DataNotAvailableException", 3L), errorLog.getCounts());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        errorLog.record(new InvalidRequestException("Invalid cursor"));
+
+        assertEquals(Map.of("InvalidRequestException", 1L), errorLog.getCounts());
+    }
+}
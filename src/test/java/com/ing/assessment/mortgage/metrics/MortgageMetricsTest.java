@@ -0,0 +1,67 @@
+package com.ing.assessment.mortgage.metrics;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.repo.MortgageRateRepository;
+import com.ing.assessment.mortgage.repo.MortgageRateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MortgageMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MortgageMetrics mortgageMetrics;
+
+    @BeforeEach
+    void setup() {
+        MortgageRateRepository repository = mock(MortgageRateRepository.class);
+        when(repository.getSnapshot()).thenReturn(MortgageRateSnapshot.of(List.of(
+                new MortgageRate(1, BigDecimal.TEN, LocalDateTime.now()),
+                new MortgageRate(2, BigDecimal.ONE, LocalDateTime.now()))));
+        meterRegistry = new SimpleMeterRegistry();
+        mortgageMetrics = new MortgageMetrics(meterRegistry, repository);
+    }
+
+    @Test
+    @DisplayName("Checks are timed per maturity period and outcome")
+    void recordCheck() {
+        mortgageMetrics.recordCheck(10, MortgageMetrics.Outcome.FEASIBLE, 1_000);
+        mortgageMetrics.recordCheck(10, MortgageMetrics.Outcome.FEASIBLE, 1_000);
+        mortgageMetrics.recordCheck(10, MortgageMetrics.Outcome.INFEASIBLE_INCOME, 1_000);
+
+        assertEquals(2, meterRegistry.get(MortgageMetrics.CHECK_TIMER)
+                .tag("maturity.period", "10").tag("outcome", "feasible").timer().count());
+        assertEquals(1, meterRegistry.get(MortgageMetrics.CHECK_TIMER)
+                .tag("maturity.period", "10").tag("outcome", "infeasible-income").timer().count());
+    }
+
+    @Test
+    @DisplayName("Untagged maturity periods are grouped as other")
+    void otherMaturityPeriod() {
+        mortgageMetrics.recordCheck(5000, MortgageMetrics.Outcome.NO_RATE, 1_000);
+        mortgageMetrics.recordCheck(null, MortgageMetrics.Outcome.ERROR, 1_000);
+        mortgageMetrics.rateLookupMiss(5000);
+
+        assertEquals(1, meterRegistry.get(MortgageMetrics.CHECK_TIMER)
+                .tag("maturity.period", "other").tag("outcome", "no-rate").timer().count());
+        assertEquals(1, meterRegistry.get(MortgageMetrics.RATE_LOOKUP_MISS_COUNTER)
+                .tag("maturity.period", "other").counter().count());
+    }
+
+    @Test
+    @DisplayName("Gauges report the rate table size and snapshot age")
+    void gauges() {
+        assertEquals(2, meterRegistry.get(MortgageMetrics.RATE_TABLE_SIZE_GAUGE).gauge().value());
+        assertTrue(meterRegistry.get(MortgageMetrics.SNAPSHOT_AGE_GAUGE).gauge().value() >= 0);
+    }
+}
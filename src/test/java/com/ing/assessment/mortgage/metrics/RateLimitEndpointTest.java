@@ -0,0 +1,33 @@
+package com.ing.assessment.mortgage.metrics;
+
+import com.ing.assessment.mortgage.config.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitEndpointTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @InjectMocks
+    private RateLimitEndpoint endpoint;
+
+    @Test
+    @DisplayName("Endpoint returns the admitted and rejected requests per principal")
+    void ratelimit() {
+        Map<String, RateLimiter.Counts> counts = Map.of("partner", new RateLimiter.Counts(10, 2));
+        when(rateLimiter.getCounts()).thenReturn(counts);
+
+        assertSame(counts, endpoint.ratelimit());
+    }
+}
@@ -0,0 +1,35 @@
+package com.ing.assessment.mortgage.metrics;
+
+import com.ing.assessment.mortgage.util.CsvUtil;
+import com.ing.assessment.mortgage.util.RateFileLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateQuarantineEndpointTest {
+
+    @Mock
+    private CsvUtil csvUtil;
+
+    @InjectMocks
+    private RateQuarantineEndpoint endpoint;
+
+    @Test
+    @DisplayName("Endpoint returns the quarantine report of the last load")
+    void quarantine() {
+        RateFileLoader.QuarantineReport report = new RateFileLoader.QuarantineReport(1,
+                List.of(new RateFileLoader.QuarantinedRow(2, "1,abc,01-11-2025 11:30:00", "Invalid interest rate")));
+        when(csvUtil.getQuarantineReport()).thenReturn(report);
+
+        assertSame(report, endpoint.quarantine());
+    }
+}
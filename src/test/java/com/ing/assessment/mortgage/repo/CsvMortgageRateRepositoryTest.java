@@ -2,6 +2,7 @@ package com.ing.assessment.mortgage.repo;
 
 import com.ing.assessment.mortgage.dto.MortgageRate;
 import com.ing.assessment.mortgage.util.CsvUtil;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,7 +34,7 @@ class CsvMortgageRateRepositoryTest {
     @DisplayName("Test findAll method happy path")
     void testFindAll() {
         List<MortgageRate> rates = List.of(new MortgageRate(10, BigDecimal.TEN, LocalDateTime.now()));
-        when(csvUtil.getMortgageRateList()).thenReturn(rates);
+        when(csvUtil.getMortgageRateSnapshot()).thenReturn(MortgageRateSnapshot.of(rates));
 
         assertEquals(1, csvMortgageRateRepository.findAll().size());
     }
@@ -42,7 +43,7 @@ class CsvMortgageRateRepositoryTest {
     @DisplayName("Test findByMaturityPeriod when MaturityPeriod is present")
     void testFindByMaturityPeriod() {
         List<MortgageRate> rates = List.of(new MortgageRate(10, BigDecimal.TEN, LocalDateTime.now()));
-        when(csvUtil.getMortgageRateList()).thenReturn(rates);
+        when(csvUtil.getMortgageRateSnapshot()).thenReturn(MortgageRateSnapshot.of(rates));
 
         Optional<MortgageRate> rate = csvMortgageRateRepository.findByMaturityPeriod(10);
 
@@ -52,10 +53,37 @@ class CsvMortgageRateRepositoryTest {
     @Test
     @DisplayName("Test findByMaturityPeriod when MaturityPeriod is not present")
     void testFindByMaturityPeriodWhenNotPresent() {
-        when(csvUtil.getMortgageRateList()).thenReturn(new ArrayList<>());
+        when(csvUtil.getMortgageRateSnapshot()).thenReturn(MortgageRateSnapshot.of(new ArrayList<>()));
 
         Optional<MortgageRate> rate = csvMortgageRateRepository.findByMaturityPeriod(10);
 
         assertThat(rate).isNotPresent();
     }
+
+    @Test
+    @DisplayName("Test findAnnuityFactor returns the precomputed factor")
+    void testFindAnnuityFactor() {
+        List<MortgageRate> rates = List.of(new MortgageRate(10, BigDecimal.TEN, LocalDateTime.now()));
+        when(csvUtil.getMortgageRateSnapshot()).thenReturn(MortgageRateSnapshot.of(rates));
+
+        assertThat(csvMortgageRateRepository.findAnnuityFactor(10))
+                .contains(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.TEN, 10));
+        assertThat(csvMortgageRateRepository.findAnnuityFactor(5)).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Test lookups as of a time return the rate in effect at that time")
+    void testFindAsOf() {
+        LocalDateTime lastUpdate = LocalDateTime.of(2025, 12, 1, 13, 30);
+        MortgageRate old = new MortgageRate(10, BigDecimal.ONE, lastUpdate.minusMonths(1));
+        MortgageRate current = new MortgageRate(10, BigDecimal.TEN, lastUpdate);
+        when(csvUtil.getMortgageRateSnapshot()).thenReturn(MortgageRateSnapshot.of(List.of(old, current)));
+
+        assertEquals(List.of(current), csvMortgageRateRepository.findAll());
+        assertEquals(List.of(old), csvMortgageRateRepository.findAll(lastUpdate.minusDays(1)));
+        assertThat(csvMortgageRateRepository.findByMaturityPeriod(10, lastUpdate.minusDays(1))).contains(old);
+        assertThat(csvMortgageRateRepository.findByMaturityPeriod(null, lastUpdate)).isNotPresent();
+        assertThat(csvMortgageRateRepository.findAnnuityFactor(10, lastUpdate.minusDays(1)))
+                .contains(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.ONE, 10));
+    }
 }
@@ -0,0 +1,125 @@
+package com.ing.assessment.mortgage.repo;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.util.CsvUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcMortgageRateRepositoryTest {
+
+    private static final List<MortgageRate> RATES = List.of(new MortgageRate(10, BigDecimal.TEN, LocalDateTime.now()));
+
+    @Mock
+    private MortgageRateJdbcStore store;
+
+    @Mock
+    private CsvUtil csvUtil;
+
+    private JdbcMortgageRateRepository repository;
+
+    @AfterEach
+    void shutdown() {
+        if (repository != null) {
+            repository.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Empty table is seeded from the CSV rates")
+    void seedsEmptyTableFromCsv() {
+        when(store.count()).thenReturn(0);
+        when(csvUtil.getMortgageRateList()).thenReturn(RATES);
+        when(store.findAll()).thenReturn(RATES);
+        repository = new JdbcMortgageRateRepository(store, csvUtil, Duration.ofHours(1), Duration.ofHours(1), true, "none");
+
+        repository.init();
+
+        verify(store).replaceAll(RATES);
+        assertThat(repository.findByMaturityPeriod(10)).isPresent();
+        assertThat(repository.findAnnuityFactor(10)).isPresent();
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Warm lookups are served from memory")
+    void warmLookupsDoNotHitDatabase() {
+        when(store.count()).thenReturn(1);
+        when(store.findAll()).thenReturn(RATES);
+        repository = new JdbcMortgageRateRepository(store, csvUtil, Duration.ofHours(1), Duration.ofHours(1), true, "none");
+        repository.init();
+
+        for (int i = 0; i < 100; i++) {
+            repository.findByMaturityPeriod(10);
+        }
+
+        verify(store, times(1)).findAll();
+        verify(store, never()).replaceAll(RATES);
+    }
+
+    @Test
+    @DisplayName("Snapshot past the refresh-ahead age is reloaded in the background")
+    void refreshAhead() {
+        when(store.count()).thenReturn(1);
+        when(store.findAll()).thenReturn(RATES);
+        repository = new JdbcMortgageRateRepository(store, csvUtil, Duration.ofHours(1), Duration.ZERO, true, "none");
+        repository.init();
+
+        assertThat(repository.findByMaturityPeriod(10)).isPresent();
+
+        verify(store, timeout(2000).atLeast(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("A reload keeps the snapshot and its version while the rows are unchanged")
+    void unchangedReloadKeepsSnapshot() {
+        List<MortgageRate> changed = List.of(new MortgageRate(10, BigDecimal.ONE, LocalDateTime.now()));
+        when(store.findAll())
+                .thenReturn(RATES)
+                .thenReturn(List.copyOf(RATES))
+                .thenReturn(List.copyOf(RATES))
+                .thenReturn(changed);
+        repository = new JdbcMortgageRateRepository(store, csvUtil, Duration.ZERO, Duration.ZERO, false, "none");
+        repository.init();
+        MortgageRateSnapshot loaded = repository.getSnapshot();
+
+        MortgageRateSnapshot reloaded = repository.getSnapshot();
+
+        assertSame(loaded, reloaded);
+        assertTrue(repository.getSnapshot().getVersion() > loaded.getVersion());
+    }
+
+    @Test
+    @DisplayName("Expired snapshot is kept when the database is unavailable")
+    void expiredSnapshotKeptOnFailure() {
+        when(store.findAll())
+                .thenReturn(RATES)
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        repository = new JdbcMortgageRateRepository(store, csvUtil, Duration.ZERO, Duration.ZERO, false, "none");
+        repository.init();
+
+        assertThat(repository.findByMaturityPeriod(10)).isPresent();
+        verify(store, atLeast(2)).findAll();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ing.assessment.mortgage.repo;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MortgageRateJdbcStoreTest {
+
+    private EmbeddedDatabase database;
+    private MortgageRateJdbcStore store;
+
+    @BeforeEach
+    void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        store = new MortgageRateJdbcStore(new JdbcTemplate(database));
+        store.createSchema();
+    }
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("replaceAll stores rows that findAll returns in insert order")
+    void replaceAllAndFindAll() {
+        LocalDateTime lastUpdate = LocalDateTime.of(2025, 12, 2, 1, 30, 1);
+        store.replaceAll(List.of(
+                new MortgageRate(10, new BigDecimal("5.222222"), lastUpdate),
+                new MortgageRate(1, new BigDecimal("15.1"), lastUpdate),
+                new MortgageRate(15, new BigDecimal("6"), lastUpdate)));
+
+        List<MortgageRate> rates = store.findAll();
+
+        assertEquals(3, store.count());
+        assertEquals(List.of(10, 1, 15), rates.stream().map(MortgageRate::getMaturityPeriod).toList());
+        assertEquals(new BigDecimal("5.222222"), rates.get(0).getInterestRate());
+        assertEquals(new BigDecimal("15.1"), rates.get(1).getInterestRate());
+        assertEquals(new BigDecimal("6"), rates.get(2).getInterestRate());
+        assertEquals(lastUpdate, rates.get(0).getLastUpdate());
+    }
+
+    @Test
+    @DisplayName("replaceAll removes the previous rows")
+    void replaceAllReplaces() {
+        LocalDateTime lastUpdate = LocalDateTime.of(2025, 12, 2, 1, 30, 1);
+        store.replaceAll(List.of(new MortgageRate(10, BigDecimal.TEN, lastUpdate)));
+        store.replaceAll(List.of(new MortgageRate(20, BigDecimal.ONE, lastUpdate)));
+
+        assertEquals(1, store.count());
+        assertEquals(20, store.findAll().get(0).getMaturityPeriod());
+    }
+
+    @Test
+    @DisplayName("findAll returns rates with more decimals and digits than the CSV uses unrounded")
+    void findAllKeepsRatePrecision() {
+        LocalDateTime lastUpdate = LocalDateTime.of(2025, 12, 2, 1, 30, 1);
+        store.replaceAll(List.of(
+                new MortgageRate(10, new BigDecimal("4.1234567891"), lastUpdate),
+                new MortgageRate(20, new BigDecimal("1234.5"), lastUpdate)));
+
+        List<MortgageRate> rates = store.findAll();
+
+        assertEquals(new BigDecimal("4.1234567891"), rates.get(0).getInterestRate());
+        assertEquals(new BigDecimal("1234.5"), rates.get(1).getInterestRate());
+    }
+}
@@ -0,0 +1,218 @@
+package com.ing.assessment.mortgage.repo;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MortgageRateSnapshotTest {
+
+    private static final LocalDateTime JAN = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime MAR = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime JUN = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    @Test
+    @DisplayName("Lookup returns the first row when a maturity period is listed twice with the same lastUpdate")
+    void firstRowWins() {
+        LocalDateTime lastUpdate = LocalDateTime.now();
+        MortgageRate first = new MortgageRate(10, BigDecimal.TEN, lastUpdate);
+        MortgageRate second = new MortgageRate(10, BigDecimal.ONE, lastUpdate);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(first, second));
+
+        assertSame(first, snapshot.findByMaturityPeriod(10).orElseThrow());
+        assertSame(first, snapshot.findByMaturityPeriod(10, lastUpdate).orElseThrow());
+        assertEquals(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.TEN, 10),
+                snapshot.findAnnuityFactor(10).orElseThrow());
+        assertEquals(2, snapshot.getRates().size());
+        assertEquals(List.of(first), snapshot.getCurrentRates());
+    }
+
+    @Test
+    @DisplayName("Current rates sorted by maturity period, with the position of a maturity period")
+    void currentRatesByMaturityPeriod() {
+        MortgageRate twenty = new MortgageRate(20, BigDecimal.TEN, JAN);
+        MortgageRate five = new MortgageRate(5, BigDecimal.ONE, JAN);
+        MortgageRate ten = new MortgageRate(10, BigDecimal.ONE, JUN);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(twenty, five, ten));
+
+        assertEquals(List.of(five, ten, twenty), snapshot.getCurrentRatesByMaturityPeriod());
+        assertEquals(0, snapshot.indexOfMaturityPeriod(1));
+        assertEquals(1, snapshot.indexOfMaturityPeriod(10));
+        assertEquals(2, snapshot.indexOfMaturityPeriod(11));
+        assertEquals(3, snapshot.indexOfMaturityPeriod(21));
+    }
+
+    @Test
+    @DisplayName("The newest version of a rate is the current rate")
+    void newestVersionIsCurrent() {
+        MortgageRate jan = new MortgageRate(10, BigDecimal.ONE, JAN);
+        MortgageRate jun = new MortgageRate(10, BigDecimal.TEN, JUN);
+        MortgageRate five = new MortgageRate(5, BigDecimal.ONE, MAR);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(jun, five, jan));
+
+        assertSame(jun, snapshot.findByMaturityPeriod(10).orElseThrow());
+        assertEquals(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.TEN, 10),
+                snapshot.findAnnuityFactor(10).orElseThrow());
+        assertEquals(List.of(jun, five), snapshot.getCurrentRates());
+        assertSame(snapshot.getCurrentRates(), snapshot.getCurrentRates());
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    @DisplayName("Lookup as of a time returns the version in effect at that time")
+    void asOfLookup() {
+        MortgageRate jan = new MortgageRate(10, BigDecimal.ONE, JAN);
+        MortgageRate mar = new MortgageRate(10, BigDecimal.ZERO, MAR);
+        MortgageRate jun = new MortgageRate(10, BigDecimal.TEN, JUN);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(jan, mar, jun));
+
+        assertThat(snapshot.findByMaturityPeriod(10, JAN.minusSeconds(1))).isNotPresent();
+        assertSame(jan, snapshot.findByMaturityPeriod(10, JAN).orElseThrow());
+        assertSame(jan, snapshot.findByMaturityPeriod(10, MAR.minusSeconds(1)).orElseThrow());
+        assertSame(mar, snapshot.findByMaturityPeriod(10, MAR).orElseThrow());
+        assertSame(jun, snapshot.findByMaturityPeriod(10, JUN.plusYears(1)).orElseThrow());
+        assertSame(jun, snapshot.findByMaturityPeriod(10, null).orElseThrow());
+        assertThat(snapshot.findByMaturityPeriod(7, JUN)).isNotPresent();
+
+        assertEquals(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.ONE, 10),
+                snapshot.findAnnuityFactor(10, MAR.minusSeconds(1)).orElseThrow());
+        assertThat(snapshot.findAnnuityFactor(10, MAR)).isNotPresent();
+        assertThat(snapshot.findAnnuityFactor(10, JAN.minusSeconds(1))).isNotPresent();
+        assertSame(snapshot.findByMaturityPeriod(10, MAR), snapshot.findByMaturityPeriod(10, MAR.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Rates as of a time leave out maturity periods without a rate at that time")
+    void ratesAsOf() {
+        MortgageRate tenJan = new MortgageRate(10, BigDecimal.ONE, JAN);
+        MortgageRate fiveJun = new MortgageRate(5, BigDecimal.ONE, JUN);
+        MortgageRate tenJun = new MortgageRate(10, BigDecimal.TEN, JUN);
+        MortgageRate twenty = new MortgageRate(20, BigDecimal.ONE, null);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(tenJan, fiveJun, tenJun, twenty));
+
+        assertEquals(List.of(tenJan, twenty), snapshot.getRates(MAR));
+        assertEquals(List.of(tenJun, fiveJun, twenty), snapshot.getRates(JUN));
+        assertThat(snapshot.getRates(LocalDateTime.MIN)).containsExactly(twenty);
+    }
+
+    @Test
+    @DisplayName("Lookup of unknown maturity periods is empty")
+    void unknownPeriod() {
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(new MortgageRate(10, BigDecimal.TEN, LocalDateTime.now())));
+
+        assertThat(snapshot.findByMaturityPeriod(7)).isNotPresent();
+        assertThat(snapshot.findByMaturityPeriod(-10)).isNotPresent();
+        assertThat(snapshot.findAnnuityFactor(7)).isNotPresent();
+        assertThat(MortgageRateSnapshot.EMPTY.findByMaturityPeriod(10)).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Zero interest rate has no annuity factor")
+    void zeroRateHasNoAnnuityFactor() {
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(new MortgageRate(5, BigDecimal.ZERO, LocalDateTime.now())));
+
+        assertThat(snapshot.findByMaturityPeriod(5)).isPresent();
+        assertThat(snapshot.findAnnuityFactor(5)).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Index finds every row of a large rate table and reuses the lookup result")
+    void largeTable() {
+        List<MortgageRate> rates = new ArrayList<>();
+        for (int period = 1; period <= 5000; period++) {
+            rates.add(new MortgageRate(period * 7, BigDecimal.ZERO, LocalDateTime.now()));
+        }
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(rates);
+
+        for (int period = 1; period <= 5000; period++) {
+            assertEquals(period * 7, snapshot.findByMaturityPeriod(period * 7).orElseThrow().getMaturityPeriod());
+            assertThat(snapshot.findByMaturityPeriod(period * 7 + 1)).isNotPresent();
+        }
+        assertSame(snapshot.findByMaturityPeriod(70), snapshot.findByMaturityPeriod(70));
+    }
+
+    @Test
+    @DisplayName("Rate curve fills unlisted years and reuses the listed rates")
+    void rateCurve() {
+        MortgageRate five = new MortgageRate(5, new BigDecimal("5.1"), JAN);
+        MortgageRate ten = new MortgageRate(10, new BigDecimal("6.1"), MAR);
+        MortgageRate thirty = new MortgageRate(30, BigDecimal.ZERO, JUN);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(ten, five, thirty), 1, RateInterpolation.LINEAR);
+
+        assertSame(ten, snapshot.findByMaturityPeriod(10).orElseThrow());
+        assertThat(snapshot.isInterpolated(10)).isFalse();
+        MortgageRate seven = snapshot.findByMaturityPeriod(7).orElseThrow();
+        assertEquals(new MortgageRate(7, new BigDecimal("5.500000"), MAR), seven);
+        assertThat(snapshot.isInterpolated(7)).isTrue();
+        assertEquals(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(new BigDecimal("5.500000"), 7),
+                snapshot.findAnnuityFactor(7).orElseThrow());
+        assertEquals(new BigDecimal("5.100000"), snapshot.findByMaturityPeriod(1).orElseThrow().getInterestRate());
+        assertEquals(new BigDecimal("3.050000"), snapshot.findByMaturityPeriod(20).orElseThrow().getInterestRate());
+        assertSame(snapshot.findByMaturityPeriod(7), snapshot.findByMaturityPeriod(7));
+
+        assertThat(snapshot.findByMaturityPeriod(31)).isNotPresent();
+        assertThat(snapshot.findByMaturityPeriod(0)).isNotPresent();
+        assertThat(snapshot.isInterpolated(31)).isFalse();
+        assertThat(snapshot.findByMaturityPeriod(7, JUN)).isNotPresent();
+        assertEquals(List.of(ten, five, thirty), snapshot.getCurrentRates());
+    }
+
+    @Test
+    @DisplayName("Rate curve ends at the maximum maturity period")
+    void rateCurveIsBounded() {
+        MortgageRate ten = new MortgageRate(10, new BigDecimal("5"), JAN);
+        MortgageRate huge = new MortgageRate(300_000_000, new BigDecimal("6"), JAN);
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(ten, huge), 1, RateInterpolation.LINEAR);
+
+        assertThat(snapshot.isInterpolated(5)).isTrue();
+        assertThat(snapshot.findByMaturityPeriod(11)).isNotPresent();
+        assertSame(huge, snapshot.findByMaturityPeriod(300_000_000).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Without interpolation unlisted years have no rate")
+    void noRateCurve() {
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(List.of(
+                new MortgageRate(5, BigDecimal.ONE, JAN), new MortgageRate(10, BigDecimal.TEN, JAN)), 1, RateInterpolation.NONE);
+
+        assertThat(snapshot.findByMaturityPeriod(7)).isNotPresent();
+        assertThat(snapshot.isInterpolated(7)).isFalse();
+        assertThat(MortgageRateSnapshot.of(List.of(), 1, RateInterpolation.LINEAR).findByMaturityPeriod(1)).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Long histories are searched per maturity period")
+    void longHistory() {
+        List<MortgageRate> rates = new ArrayList<>();
+        for (int day = 0; day < 10_000; day++) {
+            rates.add(new MortgageRate(10, BigDecimal.valueOf(day), JAN.plusDays(day)));
+            rates.add(new MortgageRate(20, BigDecimal.valueOf(day, 2), JAN.plusDays(day)));
+        }
+
+        MortgageRateSnapshot snapshot = MortgageRateSnapshot.of(rates);
+
+        for (int day = 0; day < 10_000; day += 7) {
+            assertEquals(BigDecimal.valueOf(day), snapshot.findByMaturityPeriod(10, JAN.plusDays(day).plusHours(12)).orElseThrow().getInterestRate());
+            assertEquals(BigDecimal.valueOf(day, 2), snapshot.findByMaturityPeriod(20, JAN.plusDays(day)).orElseThrow().getInterestRate());
+        }
+        assertEquals(BigDecimal.valueOf(9_999), snapshot.findByMaturityPeriod(10).orElseThrow().getInterestRate());
+        assertEquals(2, snapshot.getCurrentRates().size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.ing.assessment.mortgage.repo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateInterpolationTest {
+
+    private static final int[] PERIODS = {2, 5, 10, 30};
+    private static final double[] RATES = {12.0, 5.0, 5.0, 9.0};
+
+    @Test
+    @DisplayName("Linear curve keeps listed rates, interpolates between them and starts flat")
+    void linear() {
+        double[] curve = RateInterpolation.LINEAR.curve(PERIODS, RATES);
+
+        assertEquals(30, curve.length);
+        assertEquals(12.0, curve[0]);
+        assertEquals(12.0, curve[1]);
+        assertEquals(12.0 - 7.0 / 3, curve[2], 1e-12);
+        assertEquals(5.0, curve[4]);
+        assertEquals(5.0, curve[6]);
+        assertEquals(5.0, curve[9]);
+        assertEquals(7.0, curve[19], 1e-12);
+        assertEquals(9.0, curve[29]);
+    }
+
+    @Test
+    @DisplayName("Monotone cubic curve keeps listed rates and stays between its neighbours")
+    void monotoneCubic() {
+        double[] curve = RateInterpolation.MONOTONE_CUBIC.curve(PERIODS, RATES);
+
+        assertEquals(30, curve.length);
+        for (int k = 0; k < PERIODS.length; k++) {
+            assertEquals(RATES[k], curve[PERIODS[k] - 1]);
+        }
+        for (int year = 6; year < 10; year++) {
+            assertEquals(5.0, curve[year - 1], 1e-12);
+        }
+        for (int year = 3; year < 5; year++) {
+            assertThat(curve[year - 1]).isBetween(5.0, 12.0).isLessThan(curve[year - 2]);
+        }
+        for (int year = 11; year < 30; year++) {
+            assertThat(curve[year - 1]).isBetween(5.0, 9.0).isGreaterThan(curve[year - 2]);
+        }
+    }
+
+    @Test
+    @DisplayName("Monotone cubic curve never overshoots on random points")
+    void monotoneCubicRandom() {
+        Random random = new Random(42);
+        for (int run = 0; run < 1000; run++) {
+            int[] periods = new int[2 + random.nextInt(6)];
+            double[] rates = new double[periods.length];
+            for (int k = 0; k < periods.length; k++) {
+                periods[k] = (k == 0 ? 0 : periods[k - 1]) + 1 + random.nextInt(8);
+                rates[k] = random.nextInt(1500) / 100.0;
+            }
+
+            double[] curve = RateInterpolation.MONOTONE_CUBIC.curve(periods, rates);
+
+            for (int k = 0; k < periods.length - 1; k++) {
+                double low = Math.min(rates[k], rates[k + 1]);
+                double high = Math.max(rates[k], rates[k + 1]);
+                for (int year = periods[k]; year < periods[k + 1]; year++) {
+                    assertThat(curve[year - 1]).isBetween(low - 1e-9, high + 1e-9);
+                    assertThat((curve[year] - curve[year - 1]) * (rates[k + 1] - rates[k])).isGreaterThanOrEqualTo(-1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A single listed period gives a flat curve")
+    void singlePoint() {
+        assertArrayEquals(new double[]{4.5, 4.5, 4.5}, RateInterpolation.MONOTONE_CUBIC.curve(new int[]{3}, new double[]{4.5}));
+        assertArrayEquals(new double[]{4.5, 4.5, 4.5}, RateInterpolation.LINEAR.curve(new int[]{3}, new double[]{4.5}));
+    }
+
+    @Test
+    @DisplayName("Property values are parsed case insensitive, blank is none")
+    void fromValue() {
+        assertEquals(RateInterpolation.NONE, RateInterpolation.fromValue(null));
+        assertEquals(RateInterpolation.NONE, RateInterpolation.fromValue(" "));
+        assertEquals(RateInterpolation.LINEAR, RateInterpolation.fromValue("Linear"));
+        assertEquals(RateInterpolation.MONOTONE_CUBIC, RateInterpolation.fromValue("monotone-cubic"));
+        assertThrows(IllegalArgumentException.class, () -> RateInterpolation.fromValue("spline"));
+    }
+}
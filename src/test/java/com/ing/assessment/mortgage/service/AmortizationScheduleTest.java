@@ -0,0 +1,69 @@
+package com.ing.assessment.mortgage.service;
+
+import com.ing.assessment.mortgage.dto.AmortizationRow;
+import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationScheduleTest {
+
+    @Test
+    @DisplayName("Schedule repays the loan over the maturity period")
+    void repaysLoan() {
+        BigDecimal loan = BigDecimal.valueOf(10000);
+        BigDecimal payment = new MonthlyPaymentCalculationUtil().calculateMonthlyPayment(loan, BigDecimal.valueOf(5), 10);
+        AmortizationSchedule schedule = new AmortizationSchedule(loan, BigDecimal.valueOf(5), 10, payment);
+
+        List<AmortizationRow> rows = new ArrayList<>();
+        schedule.forEach(rows::add);
+
+        assertEquals(120, rows.size());
+        assertEquals(new AmortizationRow(1, new BigDecimal("106.07"), new BigDecimal("41.67"),
+                new BigDecimal("64.40"), new BigDecimal("9935.60")), rows.get(0));
+        BigDecimal repaid = rows.stream().map(AmortizationRow::getPrincipal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, loan.compareTo(repaid));
+        assertEquals(0, rows.get(119).getRemainingBalance().signum());
+        for (AmortizationRow row : rows.subList(0, 119)) {
+            assertEquals(payment, row.getPayment());
+            assertEquals(row.getPayment(), row.getInterest().add(row.getPrincipal()));
+        }
+    }
+
+    @Test
+    @DisplayName("Zero rate schedule has no interest")
+    void zeroRate() {
+        AmortizationSchedule schedule = new AmortizationSchedule(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1,
+                new BigDecimal("1000.00"));
+
+        for (AmortizationRow row : schedule) {
+            assertEquals(0, row.getInterest().signum());
+            assertEquals(new BigDecimal("1000.00"), row.getPrincipal());
+        }
+    }
+
+    @Test
+    @DisplayName("Each iteration starts a new schedule and ends after the last month")
+    void iteratesLazily() {
+        AmortizationSchedule schedule = new AmortizationSchedule(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1,
+                new BigDecimal("1000.00"));
+
+        Iterator<AmortizationRow> first = schedule.iterator();
+        first.next();
+        assertEquals(1, schedule.iterator().next().getMonth());
+
+        Iterator<AmortizationRow> rows = schedule.iterator();
+        for (int month = 0; month < 12; month++) {
+            rows.next();
+        }
+        assertFalse(rows.hasNext());
+        assertThrows(NoSuchElementException.class, rows::next);
+    }
+}
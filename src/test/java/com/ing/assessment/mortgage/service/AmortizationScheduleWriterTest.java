@@ -0,0 +1,59 @@
+package com.ing.assessment.mortgage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmortizationScheduleWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AmortizationScheduleWriter writer = new AmortizationScheduleWriter(objectMapper);
+    private final AmortizationSchedule schedule = new AmortizationSchedule(BigDecimal.valueOf(10000), BigDecimal.valueOf(5), 30,
+            new BigDecimal("53.68"));
+
+    @Test
+    @DisplayName("JSON output is an array with one object per month")
+    void writeJson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        writer.writeJson(schedule, output);
+
+        JsonNode rows = objectMapper.readTree(output.toByteArray());
+        assertEquals(360, rows.size());
+        assertEquals(1, rows.get(0).get("month").asInt());
+        assertEquals(new BigDecimal("41.67"), rows.get(0).get("interest").decimalValue());
+        assertEquals(0, rows.get(359).get("remainingBalance").decimalValue().signum());
+    }
+
+    @Test
+    @DisplayName("CSV output has a header and one line per month")
+    void writeCsv() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        writer.writeCsv(schedule, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(361, lines.length);
+        assertEquals(AmortizationScheduleWriter.CSV_HEADER, lines[0]);
+        assertEquals("1,53.68,41.67,12.01,9987.99", lines[1]);
+    }
+
+    @Test
+    @DisplayName("CSV lines written one by one are the same as the CSV output")
+    void toCsvLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.writeCsv(schedule, output);
+
+        StringBuilder csv = new StringBuilder(AmortizationScheduleWriter.CSV_HEADER).append('\n');
+        schedule.forEach(row -> csv.append(writer.toCsvLine(row)));
+
+        assertEquals(output.toString(StandardCharsets.UTF_8), csv.toString());
+    }
+}
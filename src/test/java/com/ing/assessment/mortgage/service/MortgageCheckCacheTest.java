@@ -0,0 +1,137 @@
+package com.ing.assessment.mortgage.service;
+
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import com.ing.assessment.mortgage.exception.DataNotAvailableException;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MortgageCheckCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MortgageCheckCache cache = new MortgageCheckCache(100, meterRegistry);
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Test
+    @DisplayName("Requests with the same amounts share an entry, whatever their scale")
+    void sameAmountsHit() {
+        MortgageCheckCache.Result first = cache.get(1, request("150000", "50000"), this::compute);
+        MortgageCheckCache.Result second = cache.get(1, request("150000.00", "5.0E4"), this::compute);
+
+        assertSame(first, second);
+        assertEquals(1, computed.get());
+        assertEquals(0.5, meterRegistry.get(MortgageMetrics.CHECK_CACHE_HIT_RATIO_GAUGE).gauge().value());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Checks in cents share an entry per amounts and snapshot version")
+    void centsKeyedByAmountsAndVersion() {
+        MortgageCheckCache.Result first = cache.get(1, new MortgageCheckCents(5_000_000, 10, 15_000_000, 20_000_000), this::compute);
+        MortgageCheckCache.Result second = cache.get(1, new MortgageCheckCents(5_000_000, 10, 15_000_000, 20_000_000), this::compute);
+        cache.get(1, new MortgageCheckCents(5_000_000, 10, 15_000_001, 20_000_000), this::compute);
+        cache.get(2, new MortgageCheckCents(5_000_000, 10, 15_000_000, 20_000_000), this::compute);
+
+        assertSame(first, second);
+        assertEquals(3, computed.get());
+    }
+
+    @Test
+    @DisplayName("A new snapshot version recomputes and drops the results of older versions")
+    void newVersionInvalidates() {
+        cache.get(1, request("150000", "50000"), this::compute);
+        cache.get(1, request("100000", "50000"), this::compute);
+
+        cache.get(2, request("150000", "50000"), this::compute);
+
+        assertEquals(3, computed.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Failed checks are not cached")
+    void failuresNotCached() {
+        MortgageCheckRequest request = request("150000", "50000");
+
+        assertThrows(DataNotAvailableException.class, () -> cache.get(1, request, () -> {
+            throw new DataNotAvailableException("No interest rate found for maturity period: 10");
+        }));
+        cache.get(1, request, this::compute);
+
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent identical checks are computed once")
+    void concurrentChecksCoalesced() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<MortgageCheckCache.Result> first = executor.submit(() -> cache.get(1, request("150000", "50000"), () -> {
+                computing.countDown();
+                await(release);
+                return compute();
+            }));
+            computing.await(5, TimeUnit.SECONDS);
+            Future<MortgageCheckCache.Result> second = executor.submit(() -> cache.get(1, request("150000", "50000"), this::compute));
+            Future<MortgageCheckCache.Result> third = executor.submit(() -> cache.get(1, request("150000", "50000"), this::compute));
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertSame(first.get(), third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A maximum size of 0 computes every check")
+    void disabled() {
+        MortgageCheckCache off = new MortgageCheckCache(0, new SimpleMeterRegistry());
+
+        off.get(1, request("150000", "50000"), this::compute);
+        off.get(1, request("150000", "50000"), this::compute);
+
+        assertEquals(2, computed.get());
+    }
+
+    private MortgageCheckCache.Result compute() {
+        computed.incrementAndGet();
+        return new MortgageCheckCache.Result(new MortgageCheckResponse(true, new BigDecimal("1111.55")), Outcome.FEASIBLE);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MortgageCheckRequest request(String loanValue, String income) {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(new BigDecimal(income));
+        request.setMaturityPeriod(10);
+        request.setLoanValue(new BigDecimal(loanValue));
+        request.setHomeValue(new BigDecimal("200000"));
+        return request;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ing.assessment.mortgage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
+import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static com.ing.assessment.mortgage.util.MortgageConstants.MAX_STREAM_LINE_LENGTH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MortgageCheckStreamServiceTest {
+
+    @Mock
+    private MortgageService mortgageService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("process writes one NDJSON result per input line in order")
+    void processWritesResultPerLine() throws Exception {
+        when(mortgageService.checkMortgageItem(anyLong(), any(MortgageCheckRequest.class)))
+                .thenAnswer(invocation -> new MortgageCheckBatchItem(invocation.getArgument(0),
+                        new MortgageCheckResponse(true, BigDecimal.valueOf(invocation.<Long>getArgument(0))), null));
+        String input = """
+                {"income":60000,"maturityPeriod":15,"loanValue":150000,"homeValue":200000}
+
+                {"income":60000,"maturityPeriod":10,"loanValue":150000,"homeValue":200000}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = new MortgageCheckStreamService(mortgageService, mapper)
+                .process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(2, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode item = mapper.readTree(lines[i]);
+            assertEquals(i, item.get("index").asInt());
+            assertTrue(item.get("result").get("feasible").asBoolean());
+        }
+    }
+
+    @Test
+    @DisplayName("process reports malformed lines without stopping the stream")
+    void processReportsMalformedLine() throws Exception {
+        when(mortgageService.checkMortgageItem(eq(1L), any(MortgageCheckRequest.class)))
+                .thenReturn(new MortgageCheckBatchItem(1, new MortgageCheckResponse(false, BigDecimal.ZERO), null));
+        String input = "not-json\n{\"income\":1,\"maturityPeriod\":1,\"loanValue\":10,\"homeValue\":1}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new MortgageCheckStreamService(mortgageService, mapper)
+                .process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode error = mapper.readTree(lines[0]).get("error");
+        assertEquals(400, error.get("status").asInt());
+        assertEquals("Malformed request", error.get("message").asText());
+        assertEquals(1, mapper.readTree(lines[1]).get("index").asInt());
+        verify(mortgageService, never()).checkMortgageItem(eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("process answers a line over the length limit with 400 without keeping it")
+    void processReportsTooLongLine() throws Exception {
+        when(mortgageService.checkMortgageItem(eq(1L), any(MortgageCheckRequest.class)))
+                .thenReturn(new MortgageCheckBatchItem(1, new MortgageCheckResponse(true, BigDecimal.ONE), null));
+        String input = "{\"income\":\"" + "9".repeat(MAX_STREAM_LINE_LENGTH) + "\"}\n"
+                + "{\"income\":1,\"maturityPeriod\":1,\"loanValue\":1,\"homeValue\":1}";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = new MortgageCheckStreamService(mortgageService, mapper)
+                .process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(2, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode error = mapper.readTree(lines[0]).get("error");
+        assertEquals(400, error.get("status").asInt());
+        assertEquals("Request line exceeds " + MAX_STREAM_LINE_LENGTH + " characters", error.get("message").asText());
+        assertEquals(1, mapper.readTree(lines[1]).get("index").asInt());
+    }
+
+    @Test
+    @DisplayName("process reads lines that cross the read buffer and arrive in small pieces")
+    void processReadsLinesAcrossReads() throws Exception {
+        when(mortgageService.checkMortgageItem(anyLong(), any(MortgageCheckRequest.class)))
+                .thenAnswer(invocation -> new MortgageCheckBatchItem(invocation.getArgument(0),
+                        new MortgageCheckResponse(true, invocation.<MortgageCheckRequest>getArgument(1).getIncome()), null));
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append("{\"income\":").append(i).append(",\"maturityPeriod\":10,\"loanValue\":1,\"homeValue\":1}\n");
+        }
+        InputStream pieces = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(length, 7));
+            }
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = new MortgageCheckStreamService(mortgageService, mapper).process(pieces, output);
+
+        assertEquals(1000, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(i, mapper.readTree(lines[i]).get("result").get("monthlyCosts").asInt());
+        }
+    }
+}
@@ -1,19 +1,43 @@
 package com.ing.assessment.mortgage.service;
 
+import com.ing.assessment.mortgage.dto.AmortizationScheduleRequest;
+import com.ing.assessment.mortgage.dto.InterestRateFilter;
+import com.ing.assessment.mortgage.dto.InterestRatePage;
+import com.ing.assessment.mortgage.dto.MaxLoanRequest;
+import com.ing.assessment.mortgage.dto.MaxLoanResponse;
+import com.ing.assessment.mortgage.dto.MortgageCheckBatchItem;
+import com.ing.assessment.mortgage.dto.MortgageCheckCents;
 import com.ing.assessment.mortgage.dto.MortgageCheckRequest;
 import com.ing.assessment.mortgage.dto.MortgageCheckResponse;
 import com.ing.assessment.mortgage.dto.MortgageRate;
 import com.ing.assessment.mortgage.exception.DataNotAvailableException;
+import com.ing.assessment.mortgage.exception.InvalidRequestException;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics;
+import com.ing.assessment.mortgage.metrics.MortgageMetrics.Outcome;
+import com.ing.assessment.mortgage.repo.JdbcMortgageRateRepository;
+import com.ing.assessment.mortgage.repo.MortgageRateJdbcStore;
 import com.ing.assessment.mortgage.repo.MortgageRateRepository;
+import com.ing.assessment.mortgage.repo.MortgageRateSnapshot;
+import com.ing.assessment.mortgage.util.CsvUtil;
 import com.ing.assessment.mortgage.util.MonthlyPaymentCalculationUtil;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +45,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,12 +60,29 @@ class MortgageServiceImplTest {
     @Mock
     private MortgageRateRepository mortgageRateRepository;
 
+    @Mock
+    private MortgageRateSnapshot snapshot;
+
     @Mock
     private MonthlyPaymentCalculationUtil monthlyPaymentCalculationUtil;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private MortgageMetrics mortgageMetrics;
+
+    @Spy
+    private MortgageCheckCache mortgageCheckCache = new MortgageCheckCache(1000, new SimpleMeterRegistry());
+
     @InjectMocks
     private MortgageServiceImpl mortgageService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(mortgageRateRepository.getSnapshot()).thenReturn(snapshot);
+    }
+
     @Test
     @DisplayName("Test getAllRates")
     void testGetAllRates() {
@@ -46,6 +94,205 @@ class MortgageServiceImplTest {
         assertThat(rates).contains(rate);
     }
 
+    @Test
+    @DisplayName("getAllRates as of a time returns the rates in effect at that time")
+    void testGetAllRatesAsOf() {
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 1, 0, 0);
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(1).build();
+        when(mortgageRateRepository.findAll(asOf)).thenReturn(List.of(rate));
+
+        assertThat(mortgageService.getAllRates(asOf)).containsExactly(rate);
+    }
+
+    @Test
+    @DisplayName("Interest rate pages follow each other by maturity period until there is no next cursor")
+    void testGetInterestRatePage() {
+        when(mortgageRateRepository.getSnapshot()).thenReturn(snapshotOf(30, 5, 20, 10, 1));
+        InterestRateFilter filter = new InterestRateFilter();
+
+        InterestRatePage first = mortgageService.getInterestRatePage(filter, null, 2);
+        InterestRatePage second = mortgageService.getInterestRatePage(filter, first.getNextCursor(), 2);
+        InterestRatePage last = mortgageService.getInterestRatePage(filter, second.getNextCursor(), 2);
+
+        assertEquals(List.of(1, 5), periods(first));
+        assertEquals(List.of(10, 20), periods(second));
+        assertEquals(List.of(30), periods(last));
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("A cursor continues after its maturity period when the rates were reloaded in between")
+    void testGetInterestRatePage_AfterReload() {
+        InterestRateFilter filter = new InterestRateFilter();
+        when(mortgageRateRepository.getSnapshot()).thenReturn(snapshotOf(1, 5, 10, 20));
+        InterestRatePage first = mortgageService.getInterestRatePage(filter, null, 2);
+
+        when(mortgageRateRepository.getSnapshot()).thenReturn(snapshotOf(1, 2, 7, 20, 25));
+        InterestRatePage second = mortgageService.getInterestRatePage(filter, first.getNextCursor(), 2);
+
+        assertEquals(List.of(7, 20), periods(second));
+        assertNotNull(second.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Interest rate page applies the maturity range and updatedSince filters")
+    void testGetInterestRatePage_Filters() {
+        LocalDateTime old = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime recent = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(mortgageRateRepository.getSnapshot()).thenReturn(MortgageRateSnapshot.of(List.of(
+                new MortgageRate(1, BigDecimal.ONE, recent),
+                new MortgageRate(5, BigDecimal.ONE, old),
+                new MortgageRate(10, BigDecimal.ONE, recent),
+                new MortgageRate(20, BigDecimal.ONE, recent),
+                new MortgageRate(30, BigDecimal.ONE, recent))));
+        InterestRateFilter filter = new InterestRateFilter();
+        filter.setMinMaturity(2);
+        filter.setMaxMaturity(20);
+        filter.setUpdatedSince(recent);
+
+        InterestRatePage page = mortgageService.getInterestRatePage(filter, null, 10);
+
+        assertEquals(List.of(10, 20), periods(page));
+        assertNull(page.getNextCursor());
+        assertEquals(List.of(10, 20), mortgageService.streamInterestRates(filter).map(MortgageRate::getMaturityPeriod).toList());
+    }
+
+    @Test
+    @DisplayName("Interest rate page rejects an invalid limit, a malformed cursor and a cursor of other filters")
+    void testGetInterestRatePage_Invalid() {
+        InterestRateFilter filter = new InterestRateFilter();
+        assertThrows(InvalidRequestException.class, () -> mortgageService.getInterestRatePage(filter, null, 0));
+        assertThrows(InvalidRequestException.class, () -> mortgageService.getInterestRatePage(filter, null, 1001));
+
+        when(mortgageRateRepository.getSnapshot()).thenReturn(snapshotOf(1, 5, 10));
+        String cursor = mortgageService.getInterestRatePage(filter, null, 1).getNextCursor();
+        assertThrows(InvalidRequestException.class, () -> mortgageService.getInterestRatePage(filter, "not-a-cursor!", 1));
+
+        InterestRateFilter other = new InterestRateFilter();
+        other.setMinMaturity(5);
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> mortgageService.getInterestRatePage(other, cursor, 1));
+        assertEquals("Cursor does not match the filters", ex.getMessage());
+    }
+
+    private static MortgageRateSnapshot snapshotOf(int... periods) {
+        List<MortgageRate> rates = new ArrayList<>();
+        for (int period : periods) {
+            rates.add(new MortgageRate(period, BigDecimal.ONE, LocalDateTime.of(2025, 1, 1, 0, 0)));
+        }
+        return MortgageRateSnapshot.of(rates);
+    }
+
+    private static List<Integer> periods(InterestRatePage page) {
+        return page.getRates().stream().map(MortgageRate::getMaturityPeriod).toList();
+    }
+
+    @Test
+    @DisplayName("Repeated mortgage checks are computed once per rate snapshot and recorded every time")
+    void testCheckMortgage_Memoized() {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(10).build();
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(10)).thenReturn(Optional.empty());
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(any(BigDecimal.class), eq(BigDecimal.TEN), eq(10)))
+                .thenReturn(BigDecimal.valueOf(1321.51));
+
+        MortgageCheckResponse first = mortgageService.checkMortgage(request(50000, 10, 100000, 120000));
+        MortgageCheckResponse second = mortgageService.checkMortgage(request(50000, 10, 100000, 120000));
+        when(snapshot.getVersion()).thenReturn(2L);
+        mortgageService.checkMortgage(request(50000, 10, 100000, 120000));
+
+        assertSame(first, second);
+        verify(snapshot, times(2)).findByMaturityPeriod(10);
+        verify(mortgageMetrics, times(3)).recordCheck(eq(10), eq(Outcome.FEASIBLE), anyLong());
+    }
+
+    @Test
+    @DisplayName("A check reads its rate, annuity factor and cache key from one snapshot while the rates are reloaded")
+    void testCheckMortgage_OneSnapshot() {
+        LocalDateTime updated = LocalDateTime.of(2025, 1, 1, 0, 0);
+        MortgageRateSnapshot loaded = MortgageRateSnapshot.of(List.of(new MortgageRate(10, BigDecimal.ONE, updated)), 1);
+        MortgageRateSnapshot reloaded = MortgageRateSnapshot.of(List.of(new MortgageRate(10, BigDecimal.TEN, updated)), 2);
+        when(mortgageRateRepository.getSnapshot()).thenReturn(loaded, reloaded);
+        MonthlyPaymentCalculationUtil util = new MonthlyPaymentCalculationUtil();
+        MortgageServiceImpl service = new MortgageServiceImpl(mortgageRateRepository, util, validator, mortgageMetrics,
+                new MortgageCheckCache(1000, new SimpleMeterRegistry()));
+
+        MortgageCheckResponse response = service.checkMortgage(request(50000, 10, 100000, 120000));
+        MaxLoanResponse maxLoan = service.getMaxLoan(maxLoanRequest(50000, 100000, null));
+
+        assertEquals(util.calculateMonthlyPayment(BigDecimal.valueOf(100000), BigDecimal.ONE, 10), response.getMonthlyCosts());
+        assertEquals(util.calculateMonthlyPayment(maxLoan.getMaxLoanValue(), BigDecimal.TEN, 10), maxLoan.getMonthlyCosts());
+        verify(mortgageRateRepository, times(2)).getSnapshot();
+    }
+
+    @Test
+    @DisplayName("Cached mortgage checks stay valid when the rate table is reloaded unchanged")
+    void testCheckMortgage_MemoizedAcrossUnchangedReloads() {
+        MortgageRateJdbcStore store = mock(MortgageRateJdbcStore.class);
+        when(store.findAll()).thenReturn(List.of(new MortgageRate(10, BigDecimal.TEN, LocalDateTime.of(2025, 1, 1, 0, 0))));
+        JdbcMortgageRateRepository repository = new JdbcMortgageRateRepository(store, mock(CsvUtil.class),
+                Duration.ZERO, Duration.ZERO, false, "none");
+        repository.init();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MortgageServiceImpl service = new MortgageServiceImpl(repository, new MonthlyPaymentCalculationUtil(),
+                validator, mortgageMetrics, new MortgageCheckCache(1000, meterRegistry));
+        try {
+            MortgageCheckResponse first = service.checkMortgage(request(50000, 10, 100000, 120000));
+            long version = repository.getSnapshot().getVersion();
+            MortgageCheckResponse second = service.checkMortgage(request(50000, 10, 100000, 120000));
+
+            assertSame(first, second);
+            assertEquals(version, repository.getSnapshot().getVersion());
+            verify(store, atLeast(3)).findAll();
+            assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        } finally {
+            repository.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Mortgage check with asOf uses the rate and annuity factor in effect at that time")
+    void testCheckMortgage_AsOf() {
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 1, 0, 0);
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(50000));
+        request.setMaturityPeriod(10);
+        request.setLoanValue(BigDecimal.valueOf(100000));
+        request.setHomeValue(BigDecimal.valueOf(120000));
+        request.setAsOf(asOf);
+
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(10).build();
+        BigDecimal factor = new BigDecimal("0.01321507446");
+
+        when(snapshot.findByMaturityPeriod(10, asOf)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(10, asOf)).thenReturn(Optional.of(factor));
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.valueOf(100000), factor))
+                .thenReturn(BigDecimal.valueOf(1321.51));
+
+        MortgageCheckResponse response = mortgageService.checkMortgage(request);
+
+        assertTrue(response.isFeasible());
+        assertEquals(BigDecimal.valueOf(1321.51), response.getMonthlyCosts());
+    }
+
+    @Test
+    @DisplayName("Mortgage check with asOf before the first rate throws DataNotAvailableException")
+    void testCheckMortgage_AsOfBeforeFirstRate() {
+        LocalDateTime asOf = LocalDateTime.of(2000, 1, 1, 0, 0);
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(50000));
+        request.setMaturityPeriod(10);
+        request.setLoanValue(BigDecimal.valueOf(100000));
+        request.setHomeValue(BigDecimal.valueOf(120000));
+        request.setAsOf(asOf);
+
+        when(snapshot.findByMaturityPeriod(10, asOf)).thenReturn(Optional.empty());
+
+        DataNotAvailableException ex = assertThrows(DataNotAvailableException.class, () -> mortgageService.checkMortgage(request));
+        assertEquals("No interest rate found for maturity period: 10 as of 2000-01-01T00:00", ex.getMessage());
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.NO_RATE), anyLong());
+    }
+
     @Test
     void testCheckMortgage_Feasible() {
         MortgageCheckRequest request = new MortgageCheckRequest();
@@ -56,7 +303,7 @@ class MortgageServiceImplTest {
 
         MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(1).build();
 
-        when(mortgageRateRepository.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
         when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(
                 any(BigDecimal.class), any(BigDecimal.class), anyInt()))
                 .thenReturn(BigDecimal.valueOf(800));
@@ -65,6 +312,54 @@ class MortgageServiceImplTest {
 
         assertTrue(response.isFeasible());
         assertEquals(BigDecimal.valueOf(800), response.getMonthlyCosts());
+        assertEquals("quoted", response.getRateSource());
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.FEASIBLE), anyLong());
+    }
+
+    @Test
+    @DisplayName("Mortgage check marks an interpolated rate")
+    void testCheckMortgage_Interpolated() {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(50000));
+        request.setMaturityPeriod(7);
+        request.setLoanValue(BigDecimal.valueOf(100000));
+        request.setHomeValue(BigDecimal.valueOf(120000));
+
+        MortgageRate rate = MortgageRate.builder().interestRate(new BigDecimal("5.5")).maturityPeriod(7).build();
+        BigDecimal factor = new BigDecimal("0.01437040350");
+
+        when(snapshot.findByMaturityPeriod(7)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(7)).thenReturn(Optional.of(factor));
+        when(snapshot.isInterpolated(7)).thenReturn(true);
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.valueOf(100000), factor))
+                .thenReturn(BigDecimal.valueOf(1437.04));
+
+        MortgageCheckResponse response = mortgageService.checkMortgage(request);
+
+        assertTrue(response.isFeasible());
+        assertEquals("interpolated", response.getRateSource());
+    }
+
+    @Test
+    void testCheckMortgage_FeasibleWithAnnuityFactor() {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(50000));
+        request.setMaturityPeriod(10);
+        request.setLoanValue(BigDecimal.valueOf(100000));
+        request.setHomeValue(BigDecimal.valueOf(120000));
+
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(10).build();
+        BigDecimal factor = new BigDecimal("0.01321507446");
+
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(10)).thenReturn(Optional.of(factor));
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.valueOf(100000), factor))
+                .thenReturn(BigDecimal.valueOf(1321.51));
+
+        MortgageCheckResponse response = mortgageService.checkMortgage(request);
+
+        assertTrue(response.isFeasible());
+        assertEquals(BigDecimal.valueOf(1321.51), response.getMonthlyCosts());
     }
 
     @Test
@@ -78,6 +373,7 @@ class MortgageServiceImplTest {
         MortgageCheckResponse response = mortgageService.checkMortgage(request);
 
         assertFalse(response.isFeasible());
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.INFEASIBLE_INCOME), anyLong());
     }
 
     @Test
@@ -91,6 +387,7 @@ class MortgageServiceImplTest {
         MortgageCheckResponse response = mortgageService.checkMortgage(request);
 
         assertFalse(response.isFeasible());
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.INFEASIBLE_VALUE), anyLong());
     }
 
     @Test
@@ -101,8 +398,270 @@ class MortgageServiceImplTest {
         request.setLoanValue(BigDecimal.valueOf(100000));
         request.setHomeValue(BigDecimal.valueOf(120000));
 
-        when(mortgageRateRepository.findByMaturityPeriod(5)).thenReturn(Optional.empty());
+        when(snapshot.findByMaturityPeriod(5)).thenReturn(Optional.empty());
 
         assertThrows(DataNotAvailableException.class, () -> mortgageService.checkMortgage(request));
+        verify(mortgageMetrics).rateLookupMiss(5);
+        verify(mortgageMetrics).recordCheck(eq(5), eq(Outcome.NO_RATE), anyLong());
+    }
+
+    @Test
+    @DisplayName("A check in cents computes the payment of the loan in euros")
+    void testCheckMortgageCents_Feasible() {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(10).build();
+        BigDecimal factor = new BigDecimal("0.01321507446");
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(10)).thenReturn(Optional.of(factor));
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(new BigDecimal("100000.50"), factor))
+                .thenReturn(BigDecimal.valueOf(1321.52));
+
+        MortgageCheckResponse response = mortgageService.checkMortgage(
+                new MortgageCheckCents(5_000_000, 10, 10_000_050, 12_000_000));
+
+        assertTrue(response.isFeasible());
+        assertEquals(BigDecimal.valueOf(1321.52), response.getMonthlyCosts());
+        assertEquals("quoted", response.getRateSource());
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.FEASIBLE), anyLong());
+    }
+
+    @Test
+    @DisplayName("A check in cents is infeasible from one cent over four times the income or the home value")
+    void testCheckMortgageCents_NotFeasible() {
+        assertFalse(mortgageService.checkMortgage(new MortgageCheckCents(2_500_000, 10, 10_000_001, 12_000_000)).isFeasible());
+        assertFalse(mortgageService.checkMortgage(new MortgageCheckCents(5_000_000, 10, 12_000_001, 12_000_000)).isFeasible());
+
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.INFEASIBLE_INCOME), anyLong());
+        verify(mortgageMetrics).recordCheck(eq(10), eq(Outcome.INFEASIBLE_VALUE), anyLong());
+    }
+
+    @Test
+    @DisplayName("A check in cents for a maturity period without rate throws")
+    void testCheckMortgageCents_RateNotFound() {
+        when(snapshot.findByMaturityPeriod(5)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotAvailableException.class,
+                () -> mortgageService.checkMortgage(new MortgageCheckCents(5_000_000, 5, 10_000_000, 12_000_000)));
+        verify(mortgageMetrics).recordCheck(eq(5), eq(Outcome.NO_RATE), anyLong());
     }
+
+    @Test
+    @DisplayName("Test checkMortgages returns results in request order with per item errors")
+    void testCheckMortgages() {
+        MortgageServiceImpl service = new MortgageServiceImpl(mortgageRateRepository, monthlyPaymentCalculationUtil,
+                Validation.buildDefaultValidatorFactory().getValidator(), mortgageMetrics,
+                new MortgageCheckCache(1000, new SimpleMeterRegistry()));
+        MortgageCheckRequest feasible = request(50000, 10, 100000, 120000);
+        MortgageCheckRequest invalid = request(50000, 10, 100000, 120000);
+        invalid.setIncome(null);
+        MortgageCheckRequest unknownPeriod = request(50000, 7, 100000, 120000);
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(10).build();
+
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findByMaturityPeriod(7)).thenReturn(Optional.empty());
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(
+                any(BigDecimal.class), any(BigDecimal.class), anyInt()))
+                .thenReturn(BigDecimal.valueOf(800));
+
+        List<MortgageCheckBatchItem> items = service.checkMortgages(
+                Arrays.asList(feasible, invalid, null, unknownPeriod));
+
+        assertEquals(4, items.size());
+        assertTrue(items.get(0).getResult().isFeasible());
+        assertEquals(BigDecimal.valueOf(800), items.get(0).getResult().getMonthlyCosts());
+        assertEquals(400, items.get(1).getError().getStatus());
+        assertEquals("Income is required", items.get(1).getError().getMessage());
+        assertEquals(400, items.get(2).getError().getStatus());
+        assertEquals(404, items.get(3).getError().getStatus());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndex());
+        }
+    }
+
+    @Test
+    @DisplayName("A batch item failing several constraints reports the first field in request order")
+    void testCheckMortgageItem_SeveralViolations() {
+        MortgageServiceImpl service = new MortgageServiceImpl(mortgageRateRepository, monthlyPaymentCalculationUtil,
+                Validation.buildDefaultValidatorFactory().getValidator(), mortgageMetrics,
+                new MortgageCheckCache(1000, new SimpleMeterRegistry()));
+        MortgageCheckRequest incomeAndHomeValue = request(50000, 10, 100000, -1);
+        incomeAndHomeValue.setIncome(null);
+        MortgageCheckRequest periodAndLoanValue = request(50000, 0, -1, 120000);
+        periodAndLoanValue.setHomeValue(null);
+
+        assertEquals(MortgageCheckRequest.INCOME_REQUIRED,
+                service.checkMortgageItem(0, incomeAndHomeValue).getError().getMessage());
+        assertEquals(MortgageCheckRequest.MATURITY_PERIOD_TOO_SHORT,
+                service.checkMortgageItem(1, periodAndLoanValue).getError().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test checkMortgages keeps request order for large parallel batches")
+    void testCheckMortgagesLargeBatch() {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.TEN).maturityPeriod(10).build();
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(
+                any(BigDecimal.class), any(BigDecimal.class), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0, BigDecimal.class).movePointLeft(2));
+
+        List<MortgageCheckRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            requests.add(request(50000, 10, i * 100, 120000));
+        }
+
+        List<MortgageCheckBatchItem> items = mortgageService.checkMortgages(requests);
+
+        assertEquals(500, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndex());
+            assertEquals(BigDecimal.valueOf((i + 1) * 100).movePointLeft(2), items.get(i).getResult().getMonthlyCosts());
+        }
+    }
+
+    @Test
+    @DisplayName("Test checkMortgages rejects empty and oversized batches")
+    void testCheckMortgagesInvalidBatch() {
+        assertThrows(InvalidRequestException.class, () -> mortgageService.checkMortgages(Collections.emptyList()));
+        assertThrows(InvalidRequestException.class, () -> mortgageService.checkMortgages(
+                Collections.nCopies(1001, request(1, 1, 1, 1))));
+    }
+
+    private static MortgageCheckRequest request(long income, int maturityPeriod, long loanValue, long homeValue) {
+        MortgageCheckRequest request = new MortgageCheckRequest();
+        request.setIncome(BigDecimal.valueOf(income));
+        request.setMaturityPeriod(maturityPeriod);
+        request.setLoanValue(BigDecimal.valueOf(loanValue));
+        request.setHomeValue(BigDecimal.valueOf(homeValue));
+        return request;
+    }
+
+    @Test
+    @DisplayName("Amortization schedule uses the rate and payment of the mortgage check")
+    void testGetAmortizationSchedule() {
+        AmortizationScheduleRequest request = new AmortizationScheduleRequest();
+        request.setMaturityPeriod(10);
+        request.setLoanValue(BigDecimal.valueOf(10000));
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.valueOf(5)).maturityPeriod(10).build();
+        BigDecimal factor = MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.valueOf(5), 10);
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(10)).thenReturn(Optional.of(factor));
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.valueOf(10000), factor))
+                .thenReturn(new BigDecimal("106.07"));
+
+        AmortizationSchedule schedule = mortgageService.getAmortizationSchedule(request);
+
+        assertEquals(new BigDecimal("106.07"), schedule.getMonthlyPayment());
+        assertEquals(120, schedule.getMonths());
+        assertEquals(new BigDecimal("41.67"), schedule.iterator().next().getInterest());
+    }
+
+    @Test
+    @DisplayName("Amortization schedule without a rate throws DataNotAvailableException")
+    void testGetAmortizationScheduleRateNotFound() {
+        AmortizationScheduleRequest request = new AmortizationScheduleRequest();
+        request.setMaturityPeriod(7);
+        request.setLoanValue(BigDecimal.valueOf(10000));
+        when(snapshot.findByMaturityPeriod(7)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotAvailableException.class, () -> mortgageService.getAmortizationSchedule(request));
+        verify(mortgageMetrics).rateLookupMiss(7);
+    }
+
+    @Test
+    @DisplayName("Maximum loan is limited by income")
+    void testGetMaxLoanLimitedByIncome() {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.valueOf(5)).maturityPeriod(10).build();
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.valueOf(200000), BigDecimal.valueOf(5), 10))
+                .thenReturn(new BigDecimal("2121.31"));
+
+        MaxLoanResponse response = mortgageService.getMaxLoan(maxLoanRequest(50000, 300000, null));
+
+        assertEquals(BigDecimal.valueOf(200000), response.getMaxLoanValue());
+        assertEquals(new BigDecimal("2121.31"), response.getMonthlyCosts());
+        assertEquals("income", response.getLimitedBy());
+    }
+
+    @Test
+    @DisplayName("Maximum loan is limited by home value")
+    void testGetMaxLoanLimitedByHomeValue() {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.valueOf(5)).maturityPeriod(10).build();
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+
+        MaxLoanResponse response = mortgageService.getMaxLoan(maxLoanRequest(50000, 150000, null));
+
+        assertEquals(BigDecimal.valueOf(150000), response.getMaxLoanValue());
+        assertEquals("home-value", response.getLimitedBy());
+    }
+
+    @Test
+    @DisplayName("Maximum loan limits are cut to whole cents")
+    void testGetMaxLoanRoundsLimitsDown() {
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.valueOf(5)).maturityPeriod(10).build();
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        MaxLoanRequest byIncome = maxLoanRequest(0, 300000, null);
+        byIncome.setIncome(new BigDecimal("1000.001"));
+        MaxLoanRequest byHomeValue = maxLoanRequest(50000, 0, null);
+        byHomeValue.setHomeValue(new BigDecimal("150000.999"));
+
+        assertEquals(new BigDecimal("4000.00"), mortgageService.getMaxLoan(byIncome).getMaxLoanValue());
+        assertEquals(new BigDecimal("150000.99"), mortgageService.getMaxLoan(byHomeValue).getMaxLoanValue());
+    }
+
+    @Test
+    @DisplayName("Maximum loan is the largest loan whose monthly payment fits")
+    void testGetMaxLoanLimitedByMonthlyPayment() {
+        MonthlyPaymentCalculationUtil util = new MonthlyPaymentCalculationUtil();
+        MortgageServiceImpl service = new MortgageServiceImpl(mortgageRateRepository, util,
+                Validation.buildDefaultValidatorFactory().getValidator(), mortgageMetrics,
+                new MortgageCheckCache(1000, new SimpleMeterRegistry()));
+        MortgageRate rate = MortgageRate.builder().interestRate(new BigDecimal("5.222222")).maturityPeriod(10).build();
+        BigDecimal factor = MonthlyPaymentCalculationUtil.calculateAnnuityFactor(rate.getInterestRate(), 10);
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.of(rate));
+        when(snapshot.findAnnuityFactor(10)).thenReturn(Optional.of(factor));
+
+        for (BigDecimal maxPayment : List.of(new BigDecimal("1000"), new BigDecimal("1234.56"), new BigDecimal("0.01"))) {
+            MaxLoanResponse response = service.getMaxLoan(maxLoanRequest(1_000_000, 2_000_000, maxPayment));
+
+            assertEquals("monthly-payment", response.getLimitedBy());
+            assertTrue(response.getMonthlyCosts().compareTo(maxPayment) <= 0);
+            assertEquals(util.calculateMonthlyPayment(response.getMaxLoanValue(), factor), response.getMonthlyCosts());
+            assertTrue(util.calculateMonthlyPayment(response.getMaxLoanValue().add(new BigDecimal("0.01")), factor)
+                    .compareTo(maxPayment) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Maximum loan for a zero rate is the payment times the number of months")
+    void testGetMaxLoanZeroRate() {
+        MortgageServiceImpl service = new MortgageServiceImpl(mortgageRateRepository, new MonthlyPaymentCalculationUtil(),
+                Validation.buildDefaultValidatorFactory().getValidator(), mortgageMetrics,
+                new MortgageCheckCache(1000, new SimpleMeterRegistry()));
+        MortgageRate rate = MortgageRate.builder().interestRate(BigDecimal.ZERO).maturityPeriod(1).build();
+        when(snapshot.findByMaturityPeriod(1)).thenReturn(Optional.of(rate));
+
+        MaxLoanRequest request = maxLoanRequest(1_000_000, 2_000_000, new BigDecimal("1000"));
+        request.setMaturityPeriod(1);
+        MaxLoanResponse response = service.getMaxLoan(request);
+
+        assertEquals(new BigDecimal("12000.05"), response.getMaxLoanValue());
+        assertEquals(new BigDecimal("1000.00"), response.getMonthlyCosts());
+    }
+
+    @Test
+    @DisplayName("Maximum loan without a rate throws DataNotAvailableException")
+    void testGetMaxLoanRateNotFound() {
+        when(snapshot.findByMaturityPeriod(10)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotAvailableException.class, () -> mortgageService.getMaxLoan(maxLoanRequest(50000, 150000, null)));
+    }
+
+    private static MaxLoanRequest maxLoanRequest(long income, long homeValue, BigDecimal maxMonthlyPayment) {
+        MaxLoanRequest request = new MaxLoanRequest();
+        request.setIncome(BigDecimal.valueOf(income));
+        request.setMaturityPeriod(10);
+        request.setHomeValue(BigDecimal.valueOf(homeValue));
+        request.setMaxMonthlyPayment(maxMonthlyPayment);
+        return request;
+    }
+
 }
@@ -1,14 +1,27 @@
 package com.ing.assessment.mortgage.util;
 
 import com.ing.assessment.mortgage.exception.CsvLoadException;
+import com.ing.assessment.mortgage.repo.MortgageRateSnapshot;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CsvUtilTest {
+    private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+    @AfterEach
+    void restoreContextClassLoader() {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
 
     @Test
     @DisplayName("init loads mortgage rates from test-mortgage-rate.csv on classpath")
@@ -23,6 +36,28 @@ class CsvUtilTest {
         util.init();
         assertNotNull(util.getMortgageRateList());
         assertEquals(4, util.getMortgageRateList().size());
+        assertEquals(4, util.getMortgageRateSnapshot().size());
+        assertEquals(MonthlyPaymentCalculationUtil.calculateAnnuityFactor(new BigDecimal("5.222222"), 10),
+                util.getMortgageRateSnapshot().findAnnuityFactor(10).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("init builds the rate curve when mortgage.rates.curve is set")
+    void initBuildsRateCurve() {
+        Thread.currentThread().setContextClassLoader(new ClassLoader() {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                return getClass().getResourceAsStream("/test-mortgage-rate.csv");
+            }
+        });
+        CsvUtil util = new CsvUtil();
+        ReflectionTestUtils.setField(util, "rateCurve", "monotone-cubic");
+        util.init();
+
+        assertEquals(4, util.getMortgageRateSnapshot().getCurrentRates().size());
+        assertTrue(util.getMortgageRateSnapshot().findByMaturityPeriod(7).isPresent());
+        assertTrue(util.getMortgageRateSnapshot().isInterpolated(7));
+        assertFalse(util.getMortgageRateSnapshot().isInterpolated(10));
     }
 
     @Test
@@ -53,4 +88,63 @@ class CsvUtilTest {
         assertDoesNotThrow(util::init);
         assertEquals(0, util.getMortgageRateList().size());
     }
-}
+
+    @Test
+    @DisplayName("reload publishes a new snapshot from the external rate file")
+    void reloadPublishesNewSnapshot(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("mortgage-rates.csv");
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n1,15.1,01-11-2025 11:30:00\n");
+        CsvUtil util = new CsvUtil();
+        ReflectionTestUtils.setField(util, "ratesFile", file.toString());
+        util.init();
+        long version = util.getMortgageRateSnapshot().getVersion();
+
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n1,4.5,01-12-2025 11:30:00\n2,5,01-12-2025 11:30:00\n");
+
+        assertTrue(util.reload());
+        assertEquals(2, util.getMortgageRateList().size());
+        assertEquals(new BigDecimal("4.5"), util.getMortgageRateSnapshot().findByMaturityPeriod(1).orElseThrow().getInterestRate());
+        assertTrue(util.getMortgageRateSnapshot().getVersion() > version);
+    }
+
+    @Test
+    @DisplayName("init loads the valid rows and quarantines the rows that cannot be parsed")
+    void initQuarantinesBadRows(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("mortgage-rates.csv");
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n1,15.1,01-11-2025 11:30:00\n2,abc,01-11-2025 11:30:00\n");
+        CsvUtil util = new CsvUtil();
+        ReflectionTestUtils.setField(util, "ratesFile", file.toString());
+        util.init();
+
+        assertEquals(1, util.getMortgageRateList().size());
+        assertEquals(1, util.getQuarantineReport().count());
+        assertEquals(3, util.getQuarantineReport().rows().get(0).line());
+
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n1,4.5,01-12-2025 11:30:00\n");
+        assertTrue(util.reload());
+        assertEquals(0, util.getQuarantineReport().count());
+    }
+
+    @Test
+    @DisplayName("reload keeps the current snapshot when the file is malformed or empty")
+    void reloadKeepsSnapshotOnMalformedFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("mortgage-rates.csv");
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n1,15.1,01-11-2025 11:30:00\n");
+        CsvUtil util = new CsvUtil();
+        ReflectionTestUtils.setField(util, "ratesFile", file.toString());
+        util.init();
+        MortgageRateSnapshot loaded = util.getMortgageRateSnapshot();
+
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n1,abc,01-11-2025 11:30:00\n");
+        assertFalse(util.reload());
+        assertSame(loaded, util.getMortgageRateSnapshot());
+
+        Files.writeString(file, "Maturity Period,Interest Rate,Last Update\n");
+        assertFalse(util.reload());
+        assertSame(loaded, util.getMortgageRateSnapshot());
+
+        Files.delete(file);
+        assertFalse(util.reload());
+        assertSame(loaded, util.getMortgageRateSnapshot());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.ing.assessment.mortgage.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DoublePaymentEngineTest {
+    private static final int DIFFERENTIAL_SAMPLES = 1_000_000;
+
+    private final MonthlyPaymentCalculationUtil exactEngine = new MonthlyPaymentCalculationUtil();
+    private final DoublePaymentEngine doubleEngine = new DoublePaymentEngine(exactEngine);
+
+    @Test
+    @DisplayName("Payments from the rate are identical to the BigDecimal engine")
+    void differentialFromRate() {
+        Random random = new Random(12);
+        for (int sample = 0; sample < DIFFERENTIAL_SAMPLES; sample++) {
+            BigDecimal principal = randomPrincipal(random);
+            BigDecimal rate = randomRate(random);
+            int years = 1 + random.nextInt(40);
+
+            assertEquals(exactEngine.calculateMonthlyPayment(principal, rate, years),
+                    doubleEngine.calculateMonthlyPayment(principal, rate, years),
+                    () -> principal + " at " + rate + "% for " + years + " years");
+        }
+    }
+
+    @Test
+    @DisplayName("Payments from an annuity factor are identical to the BigDecimal engine")
+    void differentialFromAnnuityFactor() {
+        Random random = new Random(21);
+        Map<String, BigDecimal> factors = new HashMap<>();
+        for (int sample = 0; sample < DIFFERENTIAL_SAMPLES; sample++) {
+            BigDecimal principal = randomPrincipal(random);
+            BigDecimal rate = randomRate(random).add(BigDecimal.valueOf(1, 4));
+            int years = 1 + random.nextInt(40);
+            BigDecimal factor = factors.computeIfAbsent(rate + "/" + years,
+                    key -> MonthlyPaymentCalculationUtil.calculateAnnuityFactor(rate, years));
+
+            assertEquals(exactEngine.calculateMonthlyPayment(principal, factor),
+                    doubleEngine.calculateMonthlyPayment(principal, factor),
+                    () -> principal + " with factor " + factor);
+        }
+    }
+
+    @Test
+    @DisplayName("Zero principal and zero rate are delegated to the BigDecimal engine")
+    void zeroInputs() {
+        assertEquals(BigDecimal.ZERO, doubleEngine.calculateMonthlyPayment(BigDecimal.ZERO, BigDecimal.valueOf(5), 10));
+        assertEquals(new BigDecimal("1000.00"), doubleEngine.calculateMonthlyPayment(BigDecimal.valueOf(12000), BigDecimal.ZERO, 1));
+    }
+
+    @Test
+    @DisplayName("A payment on a half cent is recalculated exactly")
+    void halfCentFallsBack() {
+        // 1 * 0.015 is exactly 1.5 cents, in double 0.015 * 100 is 1.4999999999999998
+        assertEquals(new BigDecimal("0.02"), doubleEngine.calculateMonthlyPayment(BigDecimal.ONE, new BigDecimal("0.015")));
+        assertEquals(-1, DoublePaymentEngine.roundHalfUp(106.5, DoublePaymentEngine.FACTOR_RELATIVE_ERROR));
+        assertEquals(107, DoublePaymentEngine.roundHalfUp(106.6, DoublePaymentEngine.FACTOR_RELATIVE_ERROR));
+        assertEquals(106, DoublePaymentEngine.roundHalfUp(106.4, DoublePaymentEngine.FACTOR_RELATIVE_ERROR));
+    }
+
+    @Test
+    @DisplayName("Amounts beyond double precision are recalculated exactly")
+    void hugeAmountFallsBack() {
+        assertEquals(-1, DoublePaymentEngine.roundHalfUp(DoublePaymentEngine.MAX_CENTS, DoublePaymentEngine.FACTOR_RELATIVE_ERROR));
+        BigDecimal principal = new BigDecimal("999999999999999999.99");
+        assertEquals(exactEngine.calculateMonthlyPayment(principal, BigDecimal.valueOf(5), 30),
+                doubleEngine.calculateMonthlyPayment(principal, BigDecimal.valueOf(5), 30));
+    }
+
+    /**
+     * Principals from 1 cent to 10 million with 0 to 3 decimals.
+     */
+    private static BigDecimal randomPrincipal(Random random) {
+        long unscaled = 1 + (long) Math.pow(10, random.nextDouble() * 10);
+        return BigDecimal.valueOf(unscaled, random.nextInt(4));
+    }
+
+    /**
+     * Rates from 0 to 25% with up to 6 decimals, with extra weight on very small rates.
+     */
+    private static BigDecimal randomRate(Random random) {
+        if (random.nextInt(10) == 0) {
+            return BigDecimal.valueOf(random.nextInt(30), 4);
+        }
+        return BigDecimal.valueOf(random.nextInt(25_000_000), random.nextInt(7));
+    }
+}
@@ -32,4 +32,27 @@ class MonthlyPaymentCalculationUtilTest {
         BigDecimal payment = monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.ZERO, BigDecimal.valueOf(5), 10);
         assertEquals(BigDecimal.ZERO, payment);
     }
+
+    @Test
+    @DisplayName("Test calculate monthly payment with precomputed annuity factor")
+    void testCalculateMonthlyPaymentWithAnnuityFactor() {
+        MonthlyPaymentCalculationUtil monthlyPaymentCalculationUtil = new MonthlyPaymentCalculationUtil();
+        BigDecimal factor = MonthlyPaymentCalculationUtil.calculateAnnuityFactor(BigDecimal.valueOf(5), 10);
+        BigDecimal payment = monthlyPaymentCalculationUtil.calculateMonthlyPayment(BigDecimal.valueOf(10000), factor);
+        assertEquals(BigDecimal.valueOf(106.07).setScale(2), payment);
+    }
+
+    @Test
+    @DisplayName("Test annuity factor payment matches rate based payment")
+    void testAnnuityFactorMatchesRateBasedPayment() {
+        MonthlyPaymentCalculationUtil monthlyPaymentCalculationUtil = new MonthlyPaymentCalculationUtil();
+        BigDecimal principal = new BigDecimal("345678.91");
+        for (String rate : new String[]{"15.1", "12.12", "5.1", "5.222222", "6", "7.05", "8.1", "9.1"}) {
+            for (int years : new int[]{1, 2, 5, 10, 15, 20, 25, 30}) {
+                BigDecimal factor = MonthlyPaymentCalculationUtil.calculateAnnuityFactor(new BigDecimal(rate), years);
+                assertEquals(monthlyPaymentCalculationUtil.calculateMonthlyPayment(principal, new BigDecimal(rate), years),
+                        monthlyPaymentCalculationUtil.calculateMonthlyPayment(principal, factor));
+            }
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package com.ing.assessment.mortgage.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MortgageRateFileWatcherTest {
+
+    private static final String HEADER = "Maturity Period,Interest Rate,Last Update\n";
+
+    @Test
+    @DisplayName("Changing the rate file publishes a new snapshot and records the reload")
+    void reloadsOnChange(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("mortgage-rates.csv");
+        Files.writeString(file, HEADER + "1,15.1,01-11-2025 11:30:00\n");
+        CsvUtil csvUtil = new CsvUtil();
+        ReflectionTestUtils.setField(csvUtil, "ratesFile", file.toString());
+        csvUtil.init();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MortgageRateFileWatcher watcher = new MortgageRateFileWatcher(csvUtil, meterRegistry);
+        watcher.start();
+        try {
+            Path tmp = dir.resolve("mortgage-rates.csv.tmp");
+            Files.writeString(tmp, HEADER + "1,3.5,01-12-2025 11:30:00\n");
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long deadline = System.currentTimeMillis() + 15_000;
+            while ((csvUtil.getMortgageRateSnapshot().getVersion() < 2
+                    || meterRegistry.timer(MortgageRateFileWatcher.RELOAD_TIMER, "outcome", "success").count() < 1)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertEquals(new BigDecimal("3.5"), csvUtil.getMortgageRateSnapshot().findByMaturityPeriod(1).orElseThrow().getInterestRate());
+            assertTrue(meterRegistry.timer(MortgageRateFileWatcher.RELOAD_TIMER, "outcome", "success").count() >= 1);
+        } finally {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("A failed reload is recorded and keeps the current rates")
+    void failedReloadIsRecorded(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("mortgage-rates.csv");
+        Files.writeString(file, HEADER + "1,15.1,01-11-2025 11:30:00\n");
+        CsvUtil csvUtil = new CsvUtil();
+        ReflectionTestUtils.setField(csvUtil, "ratesFile", file.toString());
+        csvUtil.init();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MortgageRateFileWatcher watcher = new MortgageRateFileWatcher(csvUtil, meterRegistry);
+
+        Files.writeString(file, HEADER + "1,not-a-rate,01-11-2025 11:30:00\n");
+        watcher.reload();
+
+        assertEquals(new BigDecimal("15.1"), csvUtil.getMortgageRateSnapshot().findByMaturityPeriod(1).orElseThrow().getInterestRate());
+        assertEquals(1, meterRegistry.timer(MortgageRateFileWatcher.RELOAD_TIMER, "outcome", "failure").count());
+    }
+}
@@ -0,0 +1,132 @@
+package com.ing.assessment.mortgage.util;
+
+import com.ing.assessment.mortgage.dto.MortgageRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateFileLoaderTest {
+    private static final String HEADER = "Maturity Period,Interest Rate,Last Update\n";
+    private static final LocalDateTime LAST_UPDATE = LocalDateTime.of(2025, 11, 1, 11, 30);
+
+    @Test
+    @DisplayName("Rates are parsed into the same values as BigDecimal and the date pattern")
+    void parsesRows() {
+        String csv = HEADER
+                + "1,15.1,01-11-2025 11:30:00\r\n"
+                + "\n"
+                + " 2 , 6 , 01-11-2025 11:30:00 \n"
+                + "\"3\",\"-0.50\",\"01-11-2025 11:30:00\"\n"
+                + "4,.5,01-11-2025 11:30:00\n"
+                + "5,+5.,31-12-2025 23:59:59\n"
+                + "6,1.5e1,01-11-2025 11:30:00\n"
+                + "7,12345678901234567890.123,01-11-2025 11:30:00";
+
+        RateFileLoader.Result result = RateFileLoader.load(csv.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(List.of(
+                new MortgageRate(1, new BigDecimal("15.1"), LAST_UPDATE),
+                new MortgageRate(2, new BigDecimal("6"), LAST_UPDATE),
+                new MortgageRate(3, new BigDecimal("-0.50"), LAST_UPDATE),
+                new MortgageRate(4, new BigDecimal(".5"), LAST_UPDATE),
+                new MortgageRate(5, new BigDecimal("5."), LocalDateTime.of(2025, 12, 31, 23, 59, 59)),
+                new MortgageRate(6, new BigDecimal("1.5e1"), LAST_UPDATE),
+                new MortgageRate(7, new BigDecimal("12345678901234567890.123"), LAST_UPDATE)), result.rates());
+        assertEquals(0, result.quarantine().count());
+    }
+
+    @Test
+    @DisplayName("Rows that cannot be parsed are quarantined with their line number")
+    void quarantinesBadRows() {
+        String csv = HEADER
+                + "1,15.1,01-11-2025 11:30:00\n"
+                + "2,abc,01-11-2025 11:30:00\n"
+                + "3,5,31-02-2025 11:30:00\n"
+                + "\n"
+                + "4,5\n"
+                + ",5,01-11-2025 11:30:00\n"
+                + "99999999999,5,01-11-2025 11:30:00\n"
+                + "8,5,01-11-2025 11:30\n"
+                + "9,5,01-11-2025 11:30:00,extra\n"
+                + "300000000,5,01-11-2025 11:30:00\n"
+                + "100,5,01-11-2025 11:30:00\n"
+                + "10,5.1,02-12-2025 01:30:01\n";
+
+        RateFileLoader.Result result = RateFileLoader.load(csv.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(result.rates()).extracting(MortgageRate::getMaturityPeriod).containsExactly(1, 100, 10);
+        assertEquals(8, result.quarantine().count());
+        assertThat(result.quarantine().rows()).extracting(RateFileLoader.QuarantinedRow::line)
+                .containsExactly(3L, 4L, 6L, 7L, 8L, 9L, 10L, 11L);
+        assertEquals("Maturity period above 100 years", result.quarantine().rows().get(7).reason());
+        RateFileLoader.QuarantinedRow first = result.quarantine().rows().get(0);
+        assertEquals("2,abc,01-11-2025 11:30:00", first.row());
+        assertThat(first.reason()).isNotBlank();
+        assertEquals("Expected 3 fields", result.quarantine().rows().get(2).reason());
+    }
+
+    @Test
+    @DisplayName("Chunked parallel load of a mapped file gives the rows in file order")
+    void chunkedLoad(@TempDir Path dir) throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int row = 1; row <= 10_000; row++) {
+            csv.append(row % 1000 == 0 ? row + ",bad," : row + "," + row % 1500 / 100.0 + ",")
+                    .append(String.format("%02d-11-2025 11:30:00", 1 + row % 28))
+                    .append(row % 2 == 0 ? "\r\n" : "\n");
+        }
+        Path file = dir.resolve("rates.csv");
+        Files.writeString(file, csv);
+
+        RateFileLoader.Result whole = RateFileLoader.load(Files.readAllBytes(file), 10_000);
+        RateFileLoader.Result mapped = RateFileLoader.load(file, 4096, 10_000);
+        RateFileLoader.Result tiny = RateFileLoader.load(file, 1, 10_000);
+
+        assertEquals(9_990, whole.rates().size());
+        assertEquals(whole.rates(), mapped.rates());
+        assertEquals(whole.rates(), tiny.rates());
+        assertEquals(whole.quarantine(), mapped.quarantine());
+        assertEquals(whole.quarantine(), tiny.quarantine());
+        assertThat(mapped.quarantine().rows()).extracting(RateFileLoader.QuarantinedRow::line)
+                .containsExactly(1001L, 2001L, 3001L, 4001L, 5001L, 6001L, 7001L, 8001L, 9001L, 10001L);
+        assertThat(mapped.rowsPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Quarantine report keeps the first rows and counts them all")
+    void quarantineIsCapped() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int row = 0; row < MortgageConstants.MAX_QUARANTINED_ROWS + 10; row++) {
+            csv.append("x,y,z\n");
+        }
+
+        RateFileLoader.Result result = RateFileLoader.load(csv.toString().getBytes(StandardCharsets.UTF_8), 64,
+                MortgageConstants.MAX_MATURITY_PERIOD);
+
+        assertThat(result.rates()).isEmpty();
+        assertEquals(MortgageConstants.MAX_QUARANTINED_ROWS + 10, result.quarantine().count());
+        assertEquals(MortgageConstants.MAX_QUARANTINED_ROWS, result.quarantine().rows().size());
+        assertEquals(2, result.quarantine().rows().get(0).line());
+    }
+
+    @Test
+    @DisplayName("Empty files and header-only files have no rows")
+    void emptyFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("rates.csv");
+        Files.writeString(file, "");
+        assertThat(RateFileLoader.load(file).rates()).isEmpty();
+
+        Files.writeString(file, HEADER);
+        assertThat(RateFileLoader.load(file).rates()).isEmpty();
+        assertEquals(0, RateFileLoader.load(file).quarantine().count());
+    }
+}